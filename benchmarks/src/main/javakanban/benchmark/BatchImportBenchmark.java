@@ -0,0 +1,97 @@
+package main.javakanban.benchmark;
+
+import main.javakanban.manager.task.FileBackedTaskManager;
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Импорт большой доски в пустой менеджер: addAll против поэлементного добавления.
+// Для файлового менеджера пакет пишет один снапшот вместо записи в журнал и свёрток на каждый элемент.
+// Каждый замер - один импорт в новый менеджер, поэтому режим SingleShotTime.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BatchImportBenchmark {
+
+    @Param({"inMemory", "concurrent", "fileBacked"})
+    public String manager;
+
+    @Param({"batch", "single"})
+    public String mode;
+
+    @Param({"100000"})
+    public int items;
+
+    private Path directory;
+    private TaskManager taskManager;
+    private List<Task> board;
+
+    @Setup(Level.Trial)
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("kanban-jmh");
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        if ("fileBacked".equals(manager)) {
+            File file = directory.resolve("tasks.csv").toFile();
+            Files.deleteIfExists(file.toPath());
+            Files.deleteIfExists(Path.of(file.getPath() + ".journal"));
+            taskManager = new FileBackedTaskManager(file);
+        } else {
+            taskManager = Boards.manager(manager);
+        }
+        board = Boards.items(items);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeManager() {
+        if (taskManager instanceof FileBackedTaskManager fileBacked) {
+            fileBacked.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDirectory() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public TaskManager importBoard() {
+        if ("batch".equals(mode)) {
+            taskManager.addAll(board);
+        } else {
+            for (Task item : board) {
+                Boards.add(taskManager, item);
+            }
+        }
+        return taskManager;
+    }
+}
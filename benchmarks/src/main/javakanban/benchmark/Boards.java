@@ -0,0 +1,112 @@
+package main.javakanban.benchmark;
+
+import main.javakanban.manager.Managers;
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Заготовки досок для бенчмарков: детерминированные, чтобы запуски можно было сравнивать между собой.
+// На каждые 20 элементов - один эпик, 10 подзадач и 9 задач; задачи и подзадачи идут друг за другом
+// без пересечений, с промежутком в 15 минут.
+final class Boards {
+
+    static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 9, 0);
+    static final Duration DURATION = Duration.ofMinutes(30);
+    static final Duration GAP = Duration.ofMinutes(15);
+
+    private static final String[] WORDS = {
+            "отчёт", "релиз", "встреча", "ревью", "миграция", "тест", "дизайн", "api", "база", "клиент",
+            "оплата", "поиск", "сборка", "документация", "профиль", "кэш", "журнал", "экспорт", "импорт", "доска"
+    };
+    private static final Status[] STATUSES = Status.values();
+
+    private Boards() {
+    }
+
+    // Элементы доски в порядке добавления; ID назначаются заранее, эпик идёт раньше своих подзадач
+    static List<Task> items(int size) {
+        List<Task> items = new ArrayList<>(size);
+        int epicId = 0;
+        for (int i = 0; i < size; i++) {
+            int id = i + 1;
+            Task item;
+            if (i % 20 == 0) {
+                item = new Epic(name(i), description(i));
+                epicId = id;
+            } else if (i % 2 == 1) {
+                item = new Subtask(name(i), description(i), STATUSES[i % STATUSES.length], epicId);
+                schedule(item, i);
+            } else {
+                item = new Task(name(i), description(i));
+                item.setStatus(STATUSES[i % STATUSES.length]);
+                schedule(item, i);
+            }
+            item.setId(id);
+            items.add(item);
+        }
+        return items;
+    }
+
+    // Реализация по имени из @Param: сравниваемые менеджеры в одном бенчмарке
+    static TaskManager manager(String kind) {
+        return switch (kind) {
+            case "inMemory" -> Managers.getDefault();
+            case "concurrent" -> Managers.getConcurrent();
+            case "instrumented" -> Managers.getInstrumented();
+            case "synchronized" -> new SynchronizedTaskManager(Managers.getDefault());
+            default -> throw new IllegalArgumentException("Неизвестный менеджер: " + kind);
+        };
+    }
+
+    static <M extends TaskManager> M fill(M manager, int size) {
+        for (Task item : items(size)) {
+            add(manager, item);
+        }
+        return manager;
+    }
+
+    static void add(TaskManager manager, Task item) {
+        switch (item) {
+            case Epic epic -> manager.addEpic(epic);
+            case Subtask subtask -> manager.addSubtask(subtask);
+            default -> manager.addTask(item);
+        }
+    }
+
+    // Начало i-го слота доски
+    static LocalDateTime slot(int index) {
+        return START.plus(DURATION.plus(GAP).multipliedBy(index));
+    }
+
+    // ID обычных задач доски, например для выборки при обновлении и чтении
+    static int[] taskIds(int size) {
+        return items(size).stream()
+                .filter(item -> item.getClass() == Task.class)
+                .mapToInt(Task::getId)
+                .toArray();
+    }
+
+    static String word(int index) {
+        return WORDS[Math.floorMod(index, WORDS.length)];
+    }
+
+    private static void schedule(Task item, int index) {
+        item.setStartTime(slot(index));
+        item.setDuration(DURATION);
+    }
+
+    private static String name(int index) {
+        return word(index) + " " + word(index / WORDS.length) + " №" + index;
+    }
+
+    private static String description(int index) {
+        return "Описание, \"с кавычками\": " + word(index * 7) + " и " + word(index * 13);
+    }
+}
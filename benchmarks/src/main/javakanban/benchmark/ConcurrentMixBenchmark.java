@@ -0,0 +1,101 @@
+package main.javakanban.benchmark;
+
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Status;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Смесь чтений и записей из нескольких потоков на общей доске:
+// ConcurrentTaskManager против InMemoryTaskManager за одним монитором.
+// В каждой группе три читателя и один писатель; JMH выводит пропускную способность каждой роли отдельно.
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentMixBenchmark {
+
+    private static final Status[] STATUSES = Status.values();
+
+    @Param({"concurrent", "synchronized"})
+    public String manager;
+
+    @Param({"10000"})
+    public int size;
+
+    private TaskManager taskManager;
+    private int[] taskIds;
+    private Task[] updates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        taskManager = Boards.fill(Boards.manager(manager), size);
+        taskIds = Boards.taskIds(size);
+        // Обновление меняет статус задачи, но не её время
+        updates = new Task[taskIds.length * STATUSES.length];
+        for (int i = 0; i < updates.length; i++) {
+            Task stored = taskManager.getTaskByID(taskIds[i / STATUSES.length]);
+            Task update = new Task(stored.getId(), stored.getName(), stored.getDescription(),
+                    STATUSES[i % STATUSES.length]);
+            update.setStartTime(stored.getStartTime());
+            update.setDuration(stored.getDuration());
+            updates[i] = update;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(3)
+    public Task getById(Cursor cursor) {
+        return taskManager.getTaskByID(taskIds[cursor.random.nextInt(taskIds.length)]);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public Task update(Cursor cursor) {
+        return taskManager.updateTask(updates[cursor.random.nextInt(updates.length)]);
+    }
+
+    // Колонка доски и первая страница по приоритету, пока другой поток переводит задачи между статусами
+    @Benchmark
+    @Group("boardView")
+    @GroupThreads(3)
+    public List<Task> viewBoard(Cursor cursor, Blackhole blackhole) {
+        Status status = STATUSES[cursor.random.nextInt(STATUSES.length)];
+        blackhole.consume(taskManager.countByStatus(TaskType.TASK, status));
+        return taskManager.getPrioritizedTasksPage(null, 20);
+    }
+
+    @Benchmark
+    @Group("boardView")
+    @GroupThreads(1)
+    public Task move(Cursor cursor) {
+        return taskManager.updateTask(updates[cursor.random.nextInt(updates.length)]);
+    }
+}
@@ -0,0 +1,85 @@
+package main.javakanban.benchmark;
+
+import main.javakanban.converter.CsvConverter;
+import main.javakanban.converter.CsvFormat;
+import main.javakanban.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Кодирование и разбор одной строки CSV, результат - наносекунды на строку.
+// Выделение памяти на строку показывает профилировщик: ./gradlew :benchmarks:jmh -Pjmh.include=Csv -Pjmh.args='-prof gc'
+// (метрика gc.alloc.rate.norm - байты на операцию, то есть на строку).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvBenchmark {
+
+    private static final int ROWS = 1024;
+
+    private Task[] tasks;
+    private String[] lines;
+    private StringBuilder buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Task> items = Boards.items(ROWS);
+        tasks = items.toArray(new Task[0]);
+        lines = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            lines[i] = CsvConverter.toCsv(tasks[i]);
+        }
+        buffer = new StringBuilder(256);
+    }
+
+    // Запись снапшота: строки дописываются в общий буфер
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void appendCsv(Blackhole blackhole) {
+        for (Task task : tasks) {
+            buffer.setLength(0);
+            blackhole.consume(CsvConverter.appendCsv(task, buffer).length());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void toCsv(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(CsvConverter.toCsv(task));
+        }
+    }
+
+    // Разбор строки по заголовку текущего формата, как при загрузке файла
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void parse(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(CsvFormat.CURRENT.parse(line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void fromCsv(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(CsvConverter.fromCsv(line));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package main.javakanban.benchmark;
+
+import main.javakanban.manager.history.ConcurrentHistoryManager;
+import main.javakanban.manager.history.HistoryManager;
+import main.javakanban.manager.history.InMemoryHistoryManager;
+import main.javakanban.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Добавление просмотра и чтение истории для обеих реализаций.
+// Просматриваемых задач вдвое больше ёмкости, поэтому часть добавлений вытесняет самые давние записи,
+// а часть переносит уже просмотренную задачу в конец.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistoryBenchmark {
+
+    private static final int VIEWS = 4096;
+
+    @Param({"inMemory", "concurrent"})
+    public String history;
+
+    @Param({"10", "100", "1000"})
+    public int capacity;
+
+    private HistoryManager historyManager;
+    private Task[] views;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Task[] tasks = new Task[capacity * 2];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new Task(i + 1, "Задача " + i, "Описание", null);
+        }
+        // Задачи держит сам бенчмарк, поэтому слабые ссылки в истории не очищаются
+        historyManager = "concurrent".equals(history)
+                ? new ConcurrentHistoryManager(capacity, id -> tasks[id - 1])
+                : new InMemoryHistoryManager(capacity, id -> tasks[id - 1]);
+        SplittableRandom random = new SplittableRandom(42);
+        views = new Task[VIEWS];
+        for (int i = 0; i < VIEWS; i++) {
+            views[i] = tasks[random.nextInt(tasks.length)];
+        }
+        for (Task task : tasks) {
+            historyManager.add(task);
+        }
+    }
+
+    @Benchmark
+    public void add() {
+        int view = next;
+        next = (view + 1) & (VIEWS - 1);
+        historyManager.add(views[view]);
+    }
+
+    @Benchmark
+    public List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+}
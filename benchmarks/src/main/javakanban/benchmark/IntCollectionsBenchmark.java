@@ -0,0 +1,112 @@
+package main.javakanban.benchmark;
+
+import main.javakanban.util.IntHashMap;
+import main.javakanban.util.IntLinkedSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Коллекции без упаковки против стандартных, на которых менеджер был построен раньше:
+// IntHashMap против HashMap<Integer, ...> (хранилища задач) и IntLinkedSet против ArrayList<Integer>
+// (ID подзадач эпика, где удаление шло поиском по списку).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntCollectionsBenchmark {
+
+    private static final int KEYS = 1024;
+
+    @Param({"16", "1024", "65536"})
+    public int size;
+
+    private IntHashMap<Object> intMap;
+    private Map<Integer, Object> boxedMap;
+    private IntLinkedSet intSet;
+    private List<Integer> boxedList;
+    private int[] keys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        intMap = new IntHashMap<>();
+        boxedMap = new HashMap<>();
+        intSet = new IntLinkedSet();
+        boxedList = new ArrayList<>();
+        // ID разрежены, как после удалений
+        for (int i = 0; i < size; i++) {
+            int id = i * 3 + 1;
+            Object value = "задача " + id;
+            intMap.put(id, value);
+            boxedMap.put(id, value);
+            intSet.add(id);
+            boxedList.add(id);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        keys = new int[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = random.nextInt(size) * 3 + 1;
+        }
+    }
+
+    private int nextKey() {
+        int key = next;
+        next = (key + 1) & (KEYS - 1);
+        return keys[key];
+    }
+
+    @Benchmark
+    public Object intMapGet() {
+        return intMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Object boxedMapGet() {
+        return boxedMap.get(nextKey());
+    }
+
+    // Удаление и повторная вставка существующего ключа - размер коллекции не меняется
+    @Benchmark
+    public Object intMapRemovePut() {
+        int key = nextKey();
+        return intMap.put(key, intMap.remove(key));
+    }
+
+    @Benchmark
+    public Object boxedMapRemovePut() {
+        int key = nextKey();
+        return boxedMap.put(key, boxedMap.remove(key));
+    }
+
+    @Benchmark
+    public boolean intSetRemoveAdd() {
+        int key = nextKey();
+        intSet.remove(key);
+        return intSet.add(key);
+    }
+
+    @Benchmark
+    public boolean boxedListRemoveAdd() {
+        Integer key = nextKey();
+        boxedList.remove(key);
+        return boxedList.add(key);
+    }
+}
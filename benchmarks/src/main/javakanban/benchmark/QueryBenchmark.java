@@ -0,0 +1,88 @@
+package main.javakanban.benchmark;
+
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Status;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Запросы колонок доски и поиск по индексам против полного обхода списка задач.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    private static final int LIMIT = 20;
+
+    @Param({"inMemory", "concurrent"})
+    public String manager;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private TaskManager taskManager;
+    private String query;
+    private String prefix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        taskManager = Boards.fill(Boards.manager(manager), size);
+        query = Boards.word(3) + " " + Boards.word(11);
+        prefix = Boards.word(4).substring(0, 3);
+    }
+
+    @Benchmark
+    public int countByStatus() {
+        return taskManager.countByStatus(TaskType.TASK, Status.IN_PROGRESS);
+    }
+
+    @Benchmark
+    public long countByScan() {
+        return taskManager.getTasks().stream()
+                .filter(task -> task.getStatus() == Status.IN_PROGRESS)
+                .count();
+    }
+
+    @Benchmark
+    public List<Task> getByStatus() {
+        return taskManager.getByStatus(TaskType.TASK, Status.IN_PROGRESS);
+    }
+
+    @Benchmark
+    public List<Task> search() {
+        return taskManager.search(query, LIMIT);
+    }
+
+    @Benchmark
+    public List<Task> searchPrefix() {
+        return taskManager.searchPrefix(prefix, LIMIT);
+    }
+
+    // Поиск без индекса: подстрока в имени, без ранжирования
+    @Benchmark
+    public List<Task> searchByScan() {
+        String word = Boards.word(3);
+        return taskManager.getTasks().stream()
+                .filter(task -> task.getName().toLowerCase(Locale.ROOT).contains(word))
+                .limit(LIMIT)
+                .toList();
+    }
+}
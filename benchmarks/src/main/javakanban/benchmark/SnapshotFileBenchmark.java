@@ -0,0 +1,98 @@
+package main.javakanban.benchmark;
+
+import main.javakanban.converter.BinarySnapshotReader;
+import main.javakanban.converter.MappedCsvReader;
+import main.javakanban.manager.task.FileBackedTaskManager;
+import main.javakanban.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Сохранение и загрузка большого снапшота в CSV и в двоичном формате.
+// save - полная перезапись снапшота (compact), load - загрузка с перестроением всех индексов менеджера,
+// read - только разбор записей файла, без менеджера.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SnapshotFileBenchmark {
+
+    @Param({"csv", "bin"})
+    public String format;
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private Path directory;
+    private File file;
+    private FileBackedTaskManager manager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("kanban-jmh");
+        file = directory.resolve("tasks." + format).toFile();
+        manager = new FileBackedTaskManager(file);
+        manager.addAll(Boards.items(rows));
+        manager.compact();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        manager.close();
+        try (var files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void save() {
+        manager.compact();
+    }
+
+    @Benchmark
+    public FileBackedTaskManager load() {
+        return FileBackedTaskManager.loadFromFile(file);
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) throws IOException {
+        if ("bin".equals(format)) {
+            try (BinarySnapshotReader reader = new BinarySnapshotReader(
+                    new BufferedInputStream(new FileInputStream(file)))) {
+                for (Task task = reader.read(); task != null; task = reader.read()) {
+                    blackhole.consume(task);
+                }
+            }
+        } else {
+            try (MappedCsvReader reader = new MappedCsvReader(file.toPath())) {
+                for (Task task = reader.read(); task != null; task = reader.read()) {
+                    blackhole.consume(task);
+                }
+            }
+        }
+    }
+}
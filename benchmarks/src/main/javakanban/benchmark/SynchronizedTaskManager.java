@@ -0,0 +1,251 @@
+package main.javakanban.benchmark;
+
+import main.javakanban.manager.task.TaskCursor;
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Базовая линия для сравнения с ConcurrentTaskManager: однопоточный менеджер за одним общим монитором,
+// как Collections.synchronizedMap. Потоки собираются в список под монитором, чтобы обход был безопасен.
+class SynchronizedTaskManager implements TaskManager {
+
+    private final TaskManager delegate;
+
+    SynchronizedTaskManager(TaskManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized Task addTask(Task task) {
+        return delegate.addTask(task);
+    }
+
+    @Override
+    public synchronized Epic addEpic(Epic epic) {
+        return delegate.addEpic(epic);
+    }
+
+    @Override
+    public synchronized Integer addSubtask(Subtask subtask) {
+        return delegate.addSubtask(subtask);
+    }
+
+    @Override
+    public synchronized Task updateTask(Task task) {
+        return delegate.updateTask(task);
+    }
+
+    @Override
+    public synchronized Epic updateEpic(Epic epic) {
+        return delegate.updateEpic(epic);
+    }
+
+    @Override
+    public synchronized Subtask updateSubtask(Subtask subtask) {
+        return delegate.updateSubtask(subtask);
+    }
+
+    @Override
+    public synchronized Task getTaskByID(int id) {
+        return delegate.getTaskByID(id);
+    }
+
+    @Override
+    public synchronized Epic getEpicByID(int id) {
+        return delegate.getEpicByID(id);
+    }
+
+    @Override
+    public synchronized Subtask getSubtaskByID(int id) {
+        return delegate.getSubtaskByID(id);
+    }
+
+    @Override
+    public synchronized List<Task> getTasks() {
+        return delegate.getTasks();
+    }
+
+    @Override
+    public synchronized List<Epic> getEpics() {
+        return delegate.getEpics();
+    }
+
+    @Override
+    public synchronized List<Subtask> getSubtasks() {
+        return delegate.getSubtasks();
+    }
+
+    @Override
+    public synchronized List<Subtask> getEpicSubtasks(int id) {
+        return delegate.getEpicSubtasks(id);
+    }
+
+    @Override
+    public synchronized Stream<Task> streamTasks() {
+        return delegate.streamTasks().toList().stream();
+    }
+
+    @Override
+    public synchronized Stream<Epic> streamEpics() {
+        return delegate.streamEpics().toList().stream();
+    }
+
+    @Override
+    public synchronized Stream<Subtask> streamSubtasks() {
+        return delegate.streamSubtasks().toList().stream();
+    }
+
+    @Override
+    public synchronized Stream<Subtask> streamEpicSubtasks(int id) {
+        return delegate.streamEpicSubtasks(id).toList().stream();
+    }
+
+    @Override
+    public synchronized Stream<Task> streamPrioritizedTasks() {
+        return delegate.streamPrioritizedTasks().toList().stream();
+    }
+
+    @Override
+    public synchronized Stream<Task> streamHistory() {
+        return delegate.streamHistory().toList().stream();
+    }
+
+    @Override
+    public synchronized void deleteTasks() {
+        delegate.deleteTasks();
+    }
+
+    @Override
+    public synchronized void deleteEpics() {
+        delegate.deleteEpics();
+    }
+
+    @Override
+    public synchronized void deleteSubtasks() {
+        delegate.deleteSubtasks();
+    }
+
+    @Override
+    public synchronized Object deleteTaskByID(int id) {
+        return delegate.deleteTaskByID(id);
+    }
+
+    @Override
+    public synchronized void deleteEpicByID(int id) {
+        delegate.deleteEpicByID(id);
+    }
+
+    @Override
+    public synchronized Object deleteSubtaskByID(int id) {
+        return delegate.deleteSubtaskByID(id);
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        return delegate.getHistory();
+    }
+
+    @Override
+    public synchronized Task getTaskByID(int id, String userId) {
+        return delegate.getTaskByID(id, userId);
+    }
+
+    @Override
+    public synchronized Epic getEpicByID(int id, String userId) {
+        return delegate.getEpicByID(id, userId);
+    }
+
+    @Override
+    public synchronized Subtask getSubtaskByID(int id, String userId) {
+        return delegate.getSubtaskByID(id, userId);
+    }
+
+    @Override
+    public synchronized List<Task> getHistory(String userId) {
+        return delegate.getHistory(userId);
+    }
+
+    @Override
+    public synchronized void removeUserHistory(String userId) {
+        delegate.removeUserHistory(userId);
+    }
+
+    @Override
+    public synchronized long getVersion() {
+        return delegate.getVersion();
+    }
+
+    @Override
+    public synchronized List<Task> getPrioritizedTasks() {
+        return delegate.getPrioritizedTasks();
+    }
+
+    @Override
+    public synchronized List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to) {
+        return delegate.getPrioritizedTasksBetween(from, to);
+    }
+
+    @Override
+    public synchronized List<Task> getPrioritizedTasksPage(TaskCursor after, int limit) {
+        return delegate.getPrioritizedTasksPage(after, limit);
+    }
+
+    @Override
+    public synchronized LocalDateTime findFreeSlot(LocalDateTime after, Duration duration) {
+        return delegate.findFreeSlot(after, duration);
+    }
+
+    @Override
+    public synchronized List<Task> autoSchedule(Collection<? extends Task> unscheduled, LocalDateTime after) {
+        return delegate.autoSchedule(unscheduled, after);
+    }
+
+    @Override
+    public synchronized int countByStatus(TaskType type, Status status) {
+        return delegate.countByStatus(type, status);
+    }
+
+    @Override
+    public synchronized int countByType(TaskType type) {
+        return delegate.countByType(type);
+    }
+
+    @Override
+    public synchronized List<Task> getByStatus(TaskType type, Status status) {
+        return delegate.getByStatus(type, status);
+    }
+
+    @Override
+    public synchronized List<Task> search(String query, int limit) {
+        return delegate.search(query, limit);
+    }
+
+    @Override
+    public synchronized List<Task> searchPrefix(String prefix, int limit) {
+        return delegate.searchPrefix(prefix, limit);
+    }
+
+    @Override
+    public synchronized List<Task> addAll(Collection<? extends Task> items) {
+        return delegate.addAll(items);
+    }
+
+    @Override
+    public synchronized List<Task> updateAll(Collection<? extends Task> items) {
+        return delegate.updateAll(items);
+    }
+
+    @Override
+    public synchronized void deleteAll(Collection<Integer> ids) {
+        delegate.deleteAll(ids);
+    }
+}
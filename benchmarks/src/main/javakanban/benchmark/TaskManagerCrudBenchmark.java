@@ -0,0 +1,87 @@
+package main.javakanban.benchmark;
+
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Status;
+import main.javakanban.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Пропускная способность добавления, обновления, удаления и чтения на заполненной доске.
+// Вариант instrumented - тот же InMemoryTaskManager за InstrumentedTaskManager: разница с inMemory
+// и есть накладные расходы на сбор метрик.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskManagerCrudBenchmark {
+
+    @Param({"inMemory", "concurrent", "instrumented"})
+    public String manager;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private TaskManager taskManager;
+    private int[] taskIds;
+    private Task[] updates;
+    private LocalDateTime freeSlot;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        taskManager = Boards.fill(Boards.manager(manager), size);
+        taskIds = Boards.taskIds(size);
+        // Обновления меняют статус и не двигают задачу по времени
+        updates = new Task[taskIds.length];
+        for (int i = 0; i < taskIds.length; i++) {
+            Task stored = taskManager.getTaskByID(taskIds[i]);
+            Task update = new Task(stored.getId(), stored.getName(), stored.getDescription(), Status.IN_PROGRESS);
+            update.setStartTime(stored.getStartTime());
+            update.setDuration(stored.getDuration());
+            updates[i] = update;
+        }
+        freeSlot = Boards.slot(size + 1);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == taskIds.length ? 0 : index + 1;
+        return index;
+    }
+
+    // Добавление в конец доски с проверкой пересечений и удаление той же задачи
+    @Benchmark
+    public Object addAndDelete() {
+        Task task = new Task("Новая задача", "Описание новой задачи");
+        task.setStartTime(freeSlot);
+        task.setDuration(Boards.DURATION);
+        taskManager.addTask(task);
+        return taskManager.deleteTaskByID(task.getId());
+    }
+
+    @Benchmark
+    public Task update() {
+        return taskManager.updateTask(updates[nextIndex()]);
+    }
+
+    // Чтение по ID, включая запись в историю просмотров
+    @Benchmark
+    public Task getById() {
+        return taskManager.getTaskByID(taskIds[nextIndex()]);
+    }
+}
@@ -0,0 +1,123 @@
+package main.javakanban.manager.task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Проверка пересечения по времени в зависимости от размера доски и длительности задач:
+// TimeIntervalIndex против прежней сетки 15-минутных слотов, где цена проверки росла с длительностью задачи.
+// Лежит в пакете менеджера, потому что индекс пакетно-приватный.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConflictCheckBenchmark {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int PROBES = 1024;
+
+    @Param({"interval", "slots"})
+    public String index;
+
+    @Param({"100", "1000", "10000"})
+    public int boardSize;
+
+    @Param({"15", "240", "1440"})
+    public int durationMinutes;
+
+    private ConflictIndex conflicts;
+    private LocalDateTime[] probeStarts;
+    private LocalDateTime[] probeEnds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        conflicts = "slots".equals(index) ? new SlotIndex() : new IntervalIndex();
+        // Задачи идут вплотную с промежутком в 15 минут
+        long step = durationMinutes + 15;
+        for (int i = 0; i < boardSize; i++) {
+            LocalDateTime start = START.plusMinutes(i * step);
+            conflicts.add(i + 1, start, start.plusMinutes(durationMinutes));
+        }
+        // Проверяемые интервалы выровнены по 15 минутам, как время задач; примерно половина пересекается
+        SplittableRandom random = new SplittableRandom(42);
+        long boardSlots = boardSize * step / 15;
+        probeStarts = new LocalDateTime[PROBES];
+        probeEnds = new LocalDateTime[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeStarts[i] = START.plusMinutes(random.nextLong(boardSlots) * 15);
+            probeEnds[i] = probeStarts[i].plusMinutes(random.nextBoolean() ? 15 : durationMinutes);
+        }
+    }
+
+    @Benchmark
+    public boolean hasConflict() {
+        int probe = next;
+        next = (probe + 1) & (PROBES - 1);
+        return conflicts.hasConflict(-1, probeStarts[probe], probeEnds[probe]);
+    }
+
+    private interface ConflictIndex {
+        void add(int taskId, LocalDateTime start, LocalDateTime end);
+
+        boolean hasConflict(int taskId, LocalDateTime start, LocalDateTime end);
+    }
+
+    private static class IntervalIndex implements ConflictIndex {
+        private final TimeIntervalIndex intervals = new TimeIntervalIndex();
+
+        @Override
+        public void add(int taskId, LocalDateTime start, LocalDateTime end) {
+            intervals.add(taskId, start, end);
+        }
+
+        @Override
+        public boolean hasConflict(int taskId, LocalDateTime start, LocalDateTime end) {
+            return intervals.hasConflict(taskId, start, end);
+        }
+    }
+
+    // Прежний алгоритм InMemoryTaskManager: каждый занятый 15-минутный слот - запись в словаре
+    private static class SlotIndex implements ConflictIndex {
+        private final Map<LocalDateTime, Integer> slots = new HashMap<>();
+
+        @Override
+        public void add(int taskId, LocalDateTime start, LocalDateTime end) {
+            LocalDateTime current = start;
+            while (current.isBefore(end)) {
+                slots.put(current, taskId);
+                current = current.plusMinutes(15);
+            }
+        }
+
+        @Override
+        public boolean hasConflict(int taskId, LocalDateTime start, LocalDateTime end) {
+            LocalDateTime current = start;
+            while (current.isBefore(end)) {
+                Integer occupiedByTaskId = slots.get(current);
+                if (occupiedByTaskId != null && occupiedByTaskId != taskId) {
+                    return true;
+                }
+                current = current.plusMinutes(15);
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package main.javakanban.manager.task;
+
+import main.javakanban.util.IntHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Чтение списка через SnapshotCache: попадание в снимок, пересборка после записи
+// и копирование хранилища на каждый вызов, как было до кэша.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotCacheBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private IntHashMap<Object> store;
+    private SnapshotCache<Object> cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new IntHashMap<>();
+        for (int i = 1; i <= size; i++) {
+            store.put(i, "задача " + i);
+        }
+        cache = new SnapshotCache<>(store::values);
+        cache.get();
+    }
+
+    @Benchmark
+    public List<Object> cachedHit() {
+        return cache.get();
+    }
+
+    // Каждое чтение следует за записью - худший случай для кэша
+    @Benchmark
+    public List<Object> cachedAfterWrite() {
+        cache.invalidate();
+        return cache.get();
+    }
+
+    @Benchmark
+    public List<Object> copy() {
+        return new ArrayList<>(store.values());
+    }
+}
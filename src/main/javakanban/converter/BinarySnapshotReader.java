@@ -0,0 +1,165 @@
+package main.javakanban.converter;
+
+import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static main.javakanban.converter.BinarySnapshotWriter.*;
+
+// Потоковое чтение снапшота, записанного BinarySnapshotWriter, за один проход
+public class BinarySnapshotReader implements Closeable {
+
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private final InputStream in;
+    private final List<String> strings = new ArrayList<>();
+    private boolean finished;
+
+    public BinarySnapshotReader(InputStream in) throws IOException {
+        this.in = in;
+        byte[] magic = new byte[MAGIC.length];
+        for (int i = 0; i < magic.length; i++) {
+            magic[i] = (byte) readByte();
+        }
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Файл не является двоичным снапшотом задач");
+        }
+        int version = readByte();
+        if (version != VERSION) {
+            throw new IOException("Неподдерживаемая версия снапшота: " + version);
+        }
+    }
+
+    // Возвращает следующую задачу или null, когда записи закончились
+    public Task read() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int typeCode = readByte();
+        if (typeCode == END) {
+            finished = true;
+            return null;
+        }
+        if (typeCode > TYPES.length) {
+            throw new IOException("Неизвестный тип задачи: " + typeCode);
+        }
+        TaskType type = TYPES[typeCode - 1];
+        int id = (int) readVarLong();
+        int statusCode = readByte();
+        if (statusCode >= STATUSES.length) {
+            throw new IOException("Неизвестный статус: " + statusCode);
+        }
+        Status status = STATUSES[statusCode];
+        int flags = readByte();
+        String name = readString();
+        String description = readString();
+
+        Duration duration = null;
+        LocalDateTime startTime = null;
+        try {
+            if ((flags & FLAG_DURATION) != 0) {
+                duration = Duration.ofMinutes(readVarLong());
+            }
+            if ((flags & FLAG_START) != 0) {
+                long zigzag = readVarLong();
+                long epochMinute = (zigzag >>> 1) ^ -(zigzag & 1);
+                int second = 0;
+                int nano = 0;
+                if ((flags & FLAG_START_SUBMINUTE) != 0) {
+                    second = (int) readVarLong();
+                    nano = (int) readVarLong();
+                }
+                startTime = LocalDateTime.ofEpochSecond(Math.addExact(Math.multiplyExact(epochMinute, 60), second),
+                        nano, ZoneOffset.UTC);
+            }
+        } catch (ArithmeticException | DateTimeException e) {
+            throw new IOException("Некорректное время в снапшоте: " + e.getMessage(), e);
+        }
+
+        Task task;
+        switch (type) {
+            case EPIC:
+                task = new Epic(id, name, description, status);
+                break;
+            case SUBTASK:
+                task = new Subtask(name, description, status, (int) readVarLong());
+                task.setId(id);
+                break;
+            default:
+                task = new Task(id, name, description, status);
+                break;
+        }
+        task.setDuration(duration);
+        task.setStartTime(startTime);
+        return task;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readString() throws IOException {
+        long tag = readVarLong();
+        if (tag == STRING_NULL) {
+            return null;
+        }
+        if (tag >= STRING_REFERENCE_BASE) {
+            long reference = tag - STRING_REFERENCE_BASE;
+            if (reference >= strings.size()) {
+                throw new IOException("Ссылка на неизвестную строку: " + reference);
+            }
+            return strings.get((int) reference);
+        }
+        long length = readVarLong();
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Некорректная длина строки: " + length);
+        }
+        // readNBytes не выделяет весь буфер заранее, поэтому повреждённая длина не приводит к OutOfMemoryError
+        byte[] bytes = in.readNBytes((int) length);
+        if (bytes.length < length) {
+            throw new EOFException("Неожиданный конец снапшота");
+        }
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        if (value.length() <= MAX_INTERNED_LENGTH) {
+            strings.add(value);
+        }
+        return value;
+    }
+
+    private long readVarLong() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Повреждённое число в снапшоте");
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Неожиданный конец снапшота");
+        }
+        return b;
+    }
+}
@@ -0,0 +1,113 @@
+package main.javakanban.converter;
+
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+// Компактный двоичный снапшот задач.
+// Формат (версия 1): "KNBN", байт версии, затем записи до маркера END:
+//   тип (байт), id (varint), статус (байт), флаги (байт), имя и описание (строки),
+//   длительность в минутах (varlong), старт в минутах от эпохи UTC (zigzag varlong)
+//   [+ секунды и наносекунды, если старт не кратен минуте], для подзадачи - id эпика (varint).
+// Строка: 0 - null, 1 - новая строка (длина varint + UTF-8), k >= 2 - ссылка на k - 2-ю короткую строку;
+// короткими (до MAX_INTERNED_LENGTH символов) считаются строки, которые обе стороны запоминают для ссылок.
+public class BinarySnapshotWriter implements Closeable {
+
+    static final byte[] MAGIC = {'K', 'N', 'B', 'N'};
+    static final int VERSION = 1;
+    static final int END = 0;
+    static final int FLAG_DURATION = 1;
+    static final int FLAG_START = 1 << 1;
+    static final int FLAG_START_SUBMINUTE = 1 << 2;
+    static final int STRING_NULL = 0;
+    static final int STRING_LITERAL = 1;
+    static final int STRING_REFERENCE_BASE = 2;
+    // Длинные строки (описания) почти всегда уникальны - их не интернируем
+    static final int MAX_INTERNED_LENGTH = 32;
+
+    private final OutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    public BinarySnapshotWriter(OutputStream out) throws IOException {
+        this.out = out;
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    public void write(Task task) throws IOException {
+        out.write(task.getType().ordinal() + 1);
+        writeVarLong(task.getId());
+        out.write(task.getStatus().ordinal());
+
+        LocalDateTime start = task.getStartTime();
+        int flags = 0;
+        if (task.getDuration() != null) {
+            flags |= FLAG_DURATION;
+        }
+        if (start != null) {
+            flags |= FLAG_START;
+            if (start.getSecond() != 0 || start.getNano() != 0) {
+                flags |= FLAG_START_SUBMINUTE;
+            }
+        }
+        out.write(flags);
+
+        writeString(task.getName());
+        writeString(task.getDescription());
+        if (task.getDuration() != null) {
+            writeVarLong(task.getDuration().toMinutes());
+        }
+        if (start != null) {
+            long epochMinute = Math.floorDiv(start.toEpochSecond(ZoneOffset.UTC), 60);
+            writeVarLong((epochMinute << 1) ^ (epochMinute >> 63));
+            if ((flags & FLAG_START_SUBMINUTE) != 0) {
+                writeVarLong(start.getSecond());
+                writeVarLong(start.getNano());
+            }
+        }
+        if (task instanceof Subtask) {
+            writeVarLong(((Subtask) task).getEpicId());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.write(END);
+        out.close();
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(STRING_NULL);
+            return;
+        }
+        Integer reference = strings.get(value);
+        if (reference != null) {
+            writeVarLong(STRING_REFERENCE_BASE + reference);
+            return;
+        }
+        if (value.length() <= MAX_INTERNED_LENGTH) {
+            strings.put(value, strings.size());
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(STRING_LITERAL);
+        writeVarLong(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
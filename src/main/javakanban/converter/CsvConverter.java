@@ -4,56 +4,199 @@ import main.javakanban.model.*;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 public class CsvConverter {
 
+    private static final int MIN_FAST_YEAR = 1000;
+    private static final int MAX_FAST_YEAR = 9999;
+
     public static String toCsv(Task task) {
+        return appendCsv(task, new StringBuilder(96)).toString();
+    }
+
+    public static String toCsv(Epic epic) {
+        return toCsv((Task) epic);
+    }
+
+    public static String toCsv(Subtask subtask) {
+        return toCsv((Task) subtask);
+    }
+
+    // Дописывает строку задачи (без перевода строки) в переданный буфер без промежуточных объектов.
+    // Имя и описание с запятыми, кавычками или переводами строк заключаются в кавычки (RFC 4180).
+    public static StringBuilder appendCsv(Task task, StringBuilder out) {
+        out.append(task.getId()).append(',')
+                .append(task.getType().name()).append(',');
+        appendField(task.getName(), out);
+        out.append(',').append(task.getStatus().name()).append(',');
+        appendField(task.getDescription(), out);
+        out.append(',');
+        if (task.getDuration() != null) {
+            out.append(task.getDuration().toMinutes());
+        }
+        out.append(',');
+        if (task.getStartTime() != null) {
+            appendDateTime(task.getStartTime(), out);
+        }
+        out.append(',');
         if (task instanceof Subtask) {
-            return toCsv((Subtask) task);
-        } else if (task instanceof Epic) {
-            return toCsv((Epic) task);
+            out.append(((Subtask) task).getEpicId());
         }
-        return toCsvDetails(task);
+        return out;
     }
 
-    private static String toCsvDetails(Task task) {
-        return String.format("%d,%s,%s,%s,%s,%s,%s,%s",
-                task.getId(),
-                task.getType(),
-                task.getName(),
-                task.getStatus().name(),
-                task.getDescription(),
-                (task.getDuration() == null ? "" : task.getDuration().toMinutes()),
-                (task.getStartTime() == null ? "" : task.getStartTime()),
-                "");
+    private static void appendField(String value, StringBuilder out) {
+        if (value == null) {
+            // Как и прежний String.format
+            out.append("null");
+            return;
+        }
+        if (!needsQuotes(value)) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
     }
 
-    public static String toCsv(Epic epic) {
-        return String.format("%d,%s,%s,%s,%s,%s,%s,%s",
-                epic.getId(),
-                epic.getType(),
-                epic.getName(),
-                epic.getStatus().name(),
-                epic.getDescription(),
-                (epic.getDuration() == null ? "" : epic.getDuration().toMinutes()),
-                (epic.getStartTime() == null ? "" : epic.getStartTime()),
-                "");
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
     }
 
-    public static String toCsv(Subtask subtask) {
-        return String.format("%d,%s,%s,%s,%s,%s,%s,%s",
-                subtask.getId(),
-                subtask.getType(),
-                subtask.getName(),
-                subtask.getStatus().name(),
-                subtask.getDescription(),
-                (subtask.getDuration() == null ? "" : subtask.getDuration().toMinutes()),
-                (subtask.getStartTime() == null ? "" : subtask.getStartTime()),
-                subtask.getEpicId());
+    // То же, что LocalDateTime.toString(), но без создания строки
+    private static void appendDateTime(LocalDateTime time, StringBuilder out) {
+        int year = time.getYear();
+        if (year < MIN_FAST_YEAR || year > MAX_FAST_YEAR) {
+            out.append(time);
+            return;
+        }
+        out.append(year).append('-');
+        appendTwoDigits(time.getMonthValue(), out);
+        out.append('-');
+        appendTwoDigits(time.getDayOfMonth(), out);
+        out.append('T');
+        appendTwoDigits(time.getHour(), out);
+        out.append(':');
+        appendTwoDigits(time.getMinute(), out);
+        int second = time.getSecond();
+        int nano = time.getNano();
+        if (second == 0 && nano == 0) {
+            return;
+        }
+        out.append(':');
+        appendTwoDigits(second, out);
+        if (nano == 0) {
+            return;
+        }
+        out.append('.');
+        if (nano % 1_000_000 == 0) {
+            appendDigits(nano / 1_000_000, 3, out);
+        } else if (nano % 1000 == 0) {
+            appendDigits(nano / 1000, 6, out);
+        } else {
+            appendDigits(nano, 9, out);
+        }
+    }
+
+    private static void appendTwoDigits(int value, StringBuilder out) {
+        out.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    private static void appendDigits(int value, int width, StringBuilder out) {
+        int divisor = 1;
+        for (int i = 1; i < width; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    // Разбивает строку на поля с учётом кавычек; удвоенная кавычка внутри поля - сама кавычка.
+    // Кавычка открывает поле в кавычках, только если стоит в его начале: старые файлы писались без
+    // экранирования, и кавычка посреди имени вроде «Купить 2" трубу» - обычный символ
+    public static String[] split(String line) {
+        if (line.indexOf('"') < 0) {
+            return line.split(",", -1);
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else {
+                field.append(c);
+                fieldStart = false;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Незакрытая кавычка в строке: " + line);
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    // Запись, в которой поле в кавычках не закрыто, продолжается на следующей строке файла.
+    // Кавычки считаются по тем же правилам, что и в split
+    public static boolean hasOpenQuote(CharSequence line) {
+        boolean quoted = false;
+        boolean fieldStart = true;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else {
+                fieldStart = c == ',';
+            }
+        }
+        return quoted;
     }
 
     public static Task fromCsv(String line) {
-        String[] parts = line.split(",", -1);
+        String[] parts = split(line);
 
         if (parts.length < 5) {
             throw new IllegalArgumentException("Недостаточно данных в строке: " + line);
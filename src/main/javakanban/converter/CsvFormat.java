@@ -0,0 +1,105 @@
+package main.javakanban.converter;
+
+import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Раскладка колонок CSV, определяемая один раз по заголовку файла.
+// Строки, число колонок в которых не совпадает с заголовком, разбираются эвристикой CsvConverter.fromCsv.
+public class CsvFormat {
+
+    public static final String HEADER = "id,type,name,status,description,duration,startTime,epic";
+    public static final CsvFormat CURRENT = fromHeader(HEADER);
+    // Файл без заголовка: каждая строка разбирается эвристикой CsvConverter.fromCsv
+    public static final CsvFormat HEADERLESS = new CsvFormat(new String[0]);
+
+    private final int columns;
+    private final int id;
+    private final int type;
+    private final int name;
+    private final int status;
+    private final int description;
+    private final int duration;
+    private final int startTime;
+    private final int epic;
+
+    private CsvFormat(String[] header) {
+        this.columns = header.length == 0 ? -1 : header.length;
+        this.id = indexOf(header, "id");
+        this.type = indexOf(header, "type");
+        this.name = indexOf(header, "name");
+        this.status = indexOf(header, "status");
+        this.description = indexOf(header, "description");
+        this.duration = indexOf(header, "duration");
+        this.startTime = indexOf(header, "startTime");
+        this.epic = indexOf(header, "epic");
+    }
+
+    // Возвращает null, если строка не похожа на заголовок (например, файл без заголовка)
+    public static CsvFormat fromHeader(String line) {
+        CsvFormat format = new CsvFormat(line.trim().split(",", -1));
+        if (format.id < 0 || format.type < 0 || format.name < 0 || format.status < 0) {
+            return null;
+        }
+        return format;
+    }
+
+    // Совпадает ли раскладка с той, что пишет CsvConverter.toCsv
+    public boolean isCurrent() {
+        return columns == 8 && id == 0 && type == 1 && name == 2 && status == 3 && description == 4
+                && duration == 5 && startTime == 6 && epic == 7;
+    }
+
+    public Task parse(String line) {
+        String[] parts = CsvConverter.split(line);
+        if (parts.length != columns) {
+            return CsvConverter.fromCsv(line);
+        }
+
+        int taskId = Integer.parseInt(parts[id]);
+        TaskType taskType = TaskType.valueOf(parts[type]);
+        String taskName = parts[name];
+        Status taskStatus = Status.valueOf(parts[status]);
+        String taskDescription = description < 0 ? "" : parts[description];
+        Duration taskDuration = isEmpty(parts, duration) ? null : Duration.ofMinutes(Long.parseLong(parts[duration]));
+        LocalDateTime taskStart = isEmpty(parts, startTime) ? null : LocalDateTime.parse(parts[startTime]);
+
+        Task task;
+        switch (taskType) {
+            case EPIC:
+                task = new Epic(taskId, taskName, taskDescription, taskStatus);
+                break;
+            case SUBTASK:
+                if (isEmpty(parts, epic)) {
+                    throw new IllegalArgumentException("Недостаточно данных для подзадачи: " + line);
+                }
+                task = new Subtask(taskName, taskDescription, taskStatus, Integer.parseInt(parts[epic]));
+                task.setId(taskId);
+                break;
+            default:
+                task = new Task(taskId, taskName, taskDescription, taskStatus);
+                break;
+        }
+        task.setDuration(taskDuration);
+        task.setStartTime(taskStart);
+        return task;
+    }
+
+    private static boolean isEmpty(String[] parts, int column) {
+        return column < 0 || parts[column].isEmpty() || parts[column].equals("null");
+    }
+
+    private static int indexOf(String[] header, String column) {
+        for (int i = 0; i < header.length; i++) {
+            if (header[i].trim().equals(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,32 @@
+package main.javakanban.converter;
+
+// Ошибка разбора строки CSV: загрузка продолжается, а проблемная строка попадает в отчёт
+public class CsvParseError {
+
+    private final int lineNumber;
+    private final String line;
+    private final String message;
+
+    public CsvParseError(int lineNumber, String line, String message) {
+        this.lineNumber = lineNumber;
+        this.line = line;
+        this.message = message;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "Строка " + lineNumber + ": " + message + " [" + line + "]";
+    }
+}
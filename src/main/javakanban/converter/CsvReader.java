@@ -0,0 +1,110 @@
+package main.javakanban.converter;
+
+import main.javakanban.model.Task;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Потоковый разбор CSV с задачами за один проход.
+// Раскладка колонок определяется по заголовку один раз; некорректные строки пропускаются
+// и попадают в getErrors() с номером строки, не прерывая чтение.
+// Привязка подзадач к эпикам остаётся вызывающему коду - эпик может встретиться позже подзадачи.
+public class CsvReader implements Iterator<Task>, Closeable {
+
+    private final BufferedReader reader;
+    private final List<CsvParseError> errors = new ArrayList<>();
+    private CsvFormat format = CsvFormat.HEADERLESS;
+    private String pendingLine;
+    private int lineNumber;
+    private Task next;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String first = readLine();
+        if (first != null) {
+            CsvFormat header = CsvFormat.fromHeader(first);
+            if (header != null) {
+                format = header;
+            } else {
+                // Файл без заголовка - первая строка уже содержит данные
+                pendingLine = first;
+                lineNumber--;
+            }
+        }
+    }
+
+    public CsvFormat getFormat() {
+        return format;
+    }
+
+    public List<CsvParseError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            String line = pendingLine != null ? pendingLine : readLine();
+            if (pendingLine != null) {
+                pendingLine = null;
+                lineNumber++;
+            }
+            if (line == null) {
+                return false;
+            }
+            if (line.isEmpty()) {
+                continue;
+            }
+            int recordLine = lineNumber;
+            // Поле в кавычках может содержать перевод строки - запись продолжается на следующих строках
+            while (CsvConverter.hasOpenQuote(line)) {
+                String continuation = readLine();
+                if (continuation == null) {
+                    break;
+                }
+                line = line + "\n" + continuation;
+            }
+            try {
+                next = format.parse(line);
+            } catch (RuntimeException e) {
+                errors.add(new CsvParseError(recordLine, line, String.valueOf(e.getMessage())));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Task next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Task result = next;
+        next = null;
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String readLine() {
+        try {
+            String line = reader.readLine();
+            if (line != null) {
+                lineNumber++;
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
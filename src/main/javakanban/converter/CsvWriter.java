@@ -0,0 +1,38 @@
+package main.javakanban.converter;
+
+import main.javakanban.model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+// Построчная запись CSV-снапшота: строки собираются в одном переиспользуемом буфере
+// и копируются в Writer без создания промежуточных String.
+public class CsvWriter implements Closeable {
+
+    private final Writer out;
+    private final StringBuilder row = new StringBuilder(256);
+    private char[] chars = new char[256];
+
+    public CsvWriter(Writer out) throws IOException {
+        this.out = out;
+        out.write(CsvFormat.HEADER);
+        out.write('\n');
+    }
+
+    public void write(Task task) throws IOException {
+        row.setLength(0);
+        CsvConverter.appendCsv(task, row).append('\n');
+        int length = row.length();
+        if (length > chars.length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        row.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
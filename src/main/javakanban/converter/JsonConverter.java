@@ -0,0 +1,140 @@
+package main.javakanban.converter;
+
+import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.Map;
+
+// Задачи в JSON и обратно. Длительность - в минутах, время - ISO-8601 без зоны, как в CSV.
+// Запись идёт прямо в JsonWriter; чтение - из объекта, разобранного JsonParser.
+public class JsonConverter {
+
+    public static void writeTask(Task task, JsonWriter out) throws IOException {
+        out.beginObject();
+        out.name("id");
+        if (task.getId() == null) {
+            out.nullValue();
+        } else {
+            out.value(task.getId());
+        }
+        out.name("type").value(task.getType().name());
+        out.name("name").value(task.getName());
+        out.name("description").value(task.getDescription());
+        out.name("status").value(task.getStatus() == null ? null : task.getStatus().name());
+        out.name("duration");
+        if (task.getDuration() == null) {
+            out.nullValue();
+        } else {
+            out.value(task.getDuration().toMinutes());
+        }
+        out.name("startTime").value(task.getStartTime() == null ? null : task.getStartTime().toString());
+        out.name("endTime").value(task.getEndTime() == null ? null : task.getEndTime().toString());
+        if (task instanceof Subtask subtask) {
+            out.name("epicId").value(subtask.getEpicId());
+        } else if (task instanceof Epic epic) {
+            out.name("subtasks").beginArray();
+            for (int subtaskId : epic.getSubtaskIdsSnapshot()) {
+                out.value(subtaskId);
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+    // Массив задач по мере обхода: подходит для ленивых потоков менеджера
+    public static void writeTasks(Iterator<? extends Task> tasks, JsonWriter out) throws IOException {
+        out.beginArray();
+        while (tasks.hasNext()) {
+            writeTask(tasks.next(), out);
+        }
+        out.endArray();
+    }
+
+    // Задача заданного типа из JSON-объекта; отсутствующий статус - NEW, отсутствующий id - новая задача
+    public static Task fromJson(Map<String, Object> json, TaskType type) {
+        Object declaredType = json.get("type");
+        if (declaredType != null && !type.name().equals(declaredType)) {
+            throw new IllegalArgumentException("Тип " + declaredType + " не совпадает с ожидаемым " + type);
+        }
+        String name = string(json, "name");
+        String description = string(json, "description");
+        Status status = json.get("status") == null ? Status.NEW : parseStatus(string(json, "status"));
+
+        Task task = switch (type) {
+            case TASK -> {
+                Task created = new Task(name, description);
+                created.setStatus(status);
+                yield created;
+            }
+            case EPIC -> new Epic(name, description);
+            case SUBTASK -> {
+                Integer epicId = integer(json, "epicId");
+                if (epicId == null) {
+                    throw new IllegalArgumentException("У подзадачи должно быть поле epicId");
+                }
+                yield new Subtask(name, description, status, epicId);
+            }
+        };
+
+        Integer id = integer(json, "id");
+        if (id != null) {
+            task.setId(id);
+        }
+        Long duration = number(json, "duration");
+        if (duration != null) {
+            task.setDuration(Duration.ofMinutes(duration));
+        }
+        String startTime = string(json, "startTime");
+        if (startTime != null) {
+            try {
+                task.setStartTime(LocalDateTime.parse(startTime));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Некорректное время начала: " + startTime, e);
+            }
+        }
+        return task;
+    }
+
+    private static Status parseStatus(String status) {
+        try {
+            return Status.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Неизвестный статус: " + status, e);
+        }
+    }
+
+    private static String string(Map<String, Object> json, String field) {
+        Object value = json.get(field);
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        throw new IllegalArgumentException("Поле " + field + " должно быть строкой");
+    }
+
+    private static Integer integer(Map<String, Object> json, String field) {
+        Long value = number(json, field);
+        if (value == null) {
+            return null;
+        }
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Поле " + field + " вне диапазона int: " + value);
+        }
+        return value.intValue();
+    }
+
+    private static Long number(Map<String, Object> json, String field) {
+        Object value = json.get(field);
+        if (value == null || value instanceof Long) {
+            return (Long) value;
+        }
+        throw new IllegalArgumentException("Поле " + field + " должно быть целым числом");
+    }
+}
@@ -0,0 +1,246 @@
+package main.javakanban.converter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Минимальный разбор JSON для тел запросов: объект -> LinkedHashMap, массив -> ArrayList,
+// целое число -> Long, дробное -> Double, строка, Boolean или null.
+// Ошибка синтаксиса - IllegalArgumentException с позицией.
+public class JsonParser {
+
+    private static final int MAX_DEPTH = 64;
+
+    private final String text;
+    private int position;
+    private int depth;
+
+    private JsonParser(String text) {
+        this.text = text;
+    }
+
+    public static Object parse(String text) {
+        JsonParser parser = new JsonParser(text);
+        parser.skipWhitespace();
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.position != text.length()) {
+            throw parser.error("Лишние символы после значения");
+        }
+        return value;
+    }
+
+    // Разбирает документ, который должен быть объектом
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String text) {
+        Object value = parse(text);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Ожидается JSON-объект");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private Object readValue() {
+        if (position >= text.length()) {
+            throw error("Неожиданный конец документа");
+        }
+        char c = text.charAt(position);
+        return switch (c) {
+            case '{' -> readObject();
+            case '[' -> readArray();
+            case '"' -> readString();
+            case 't' -> readLiteral("true", Boolean.TRUE);
+            case 'f' -> readLiteral("false", Boolean.FALSE);
+            case 'n' -> readLiteral("null", null);
+            default -> {
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    yield readNumber();
+                }
+                throw error("Неожиданный символ '" + c + "'");
+            }
+        };
+    }
+
+    private Map<String, Object> readObject() {
+        enter();
+        position++;
+        Map<String, Object> object = new LinkedHashMap<>();
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            depth--;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error("Ожидается имя поля");
+            }
+            String name = readString();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            object.put(name, readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+            } else {
+                expect('}');
+                depth--;
+                return object;
+            }
+        }
+    }
+
+    private List<Object> readArray() {
+        enter();
+        position++;
+        List<Object> array = new ArrayList<>();
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            depth--;
+            return array;
+        }
+        while (true) {
+            skipWhitespace();
+            array.add(readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+            } else {
+                expect(']');
+                depth--;
+                return array;
+            }
+        }
+    }
+
+    private String readString() {
+        position++;
+        StringBuilder value = null;
+        int from = position;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c == '"') {
+                String result = value == null
+                        ? text.substring(from, position)
+                        : value.append(text, from, position).toString();
+                position++;
+                return result;
+            }
+            if (c < 0x20) {
+                throw error("Управляющий символ внутри строки");
+            }
+            if (c != '\\') {
+                position++;
+                continue;
+            }
+            if (value == null) {
+                value = new StringBuilder();
+            }
+            value.append(text, from, position);
+            position++;
+            value.append(readEscape());
+            from = position;
+        }
+        throw error("Незакрытая строка");
+    }
+
+    private char readEscape() {
+        if (position >= text.length()) {
+            throw error("Незакрытая строка");
+        }
+        char c = text.charAt(position++);
+        return switch (c) {
+            case '"', '\\', '/' -> c;
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'u' -> {
+                if (position + 4 > text.length()) {
+                    throw error("Неполная escape-последовательность");
+                }
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(text.charAt(position++), 16);
+                    if (digit < 0) {
+                        throw error("Некорректная escape-последовательность");
+                    }
+                    code = code * 16 + digit;
+                }
+                yield (char) code;
+            }
+            default -> throw error("Некорректная escape-последовательность \\" + c);
+        };
+    }
+
+    private Object readNumber() {
+        int from = position;
+        boolean fraction = false;
+        if (peek() == '-') {
+            position++;
+        }
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                fraction = true;
+            } else if (c < '0' || c > '9') {
+                break;
+            }
+            position++;
+        }
+        String number = text.substring(from, position);
+        try {
+            if (!fraction) {
+                return Long.parseLong(number);
+            }
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            position = from;
+            throw error("Некорректное число " + number);
+        }
+    }
+
+    private Object readLiteral(String literal, Object value) {
+        if (!text.startsWith(literal, position)) {
+            throw error("Неизвестное значение");
+        }
+        position += literal.length();
+        return value;
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw error("Слишком глубокая вложенность");
+        }
+    }
+
+    private void expect(char expected) {
+        if (peek() != expected) {
+            throw error("Ожидается '" + expected + "'");
+        }
+        position++;
+    }
+
+    private char peek() {
+        return position < text.length() ? text.charAt(position) : 0;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Некорректный JSON: " + message + " (позиция " + position + ")");
+    }
+}
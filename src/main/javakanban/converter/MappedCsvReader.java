@@ -0,0 +1,364 @@
+package main.javakanban.converter;
+
+import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Чтение CSV-файла задач через отображение в память.
+// Разделители ищутся прямо в буфере окна, числовые, перечислимые и временные колонки
+// разбираются из байтов без промежуточных String; строки создаются только для имени и описания.
+// Файл отображается окнами, поэтому размер не ограничен 2 ГБ.
+// Отображение освобождается только сборщиком мусора, а Windows не даёт заменить файл, пока оно живо,
+// поэтому там окна читаются в буфер в куче (mapped = false): снапшот можно переписать сразу после загрузки.
+// Раскладка колонок определяется по заголовку; если она отличается от текущей, строки разбираются через CsvFormat.
+// Некорректные строки пропускаются и попадают в getErrors() с номером строки.
+public class MappedCsvReader implements Closeable {
+
+    private static final int COLUMNS = 8;
+    private static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+    // Предел размера буфера: окно дорастает до него, если запись длиннее окна
+    private static final long MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+    private static final boolean MAP_BY_DEFAULT = !System.getProperty("os.name", "").startsWith("Windows");
+
+    private final FileChannel channel;
+    private final long size;
+    private final boolean mapped;
+    private final int[] separators = new int[COLUMNS + 1];
+    private final List<CsvParseError> errors = new ArrayList<>();
+    private CsvFormat format = CsvFormat.CURRENT;
+    private byte[] scratch = new byte[256];
+    private ByteBuffer buffer;
+    private long windowSize;
+    private long windowStart;
+    private int position;
+    private int lineNumber;
+    // Переводы строк внутри полей в кавычках у последней найденной записи
+    private int embeddedLines;
+
+    public MappedCsvReader(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    // windowSize - размер отображаемого окна; под запись длиннее окна оно увеличивается
+    public MappedCsvReader(Path path, long windowSize) throws IOException {
+        this(path, windowSize, MAP_BY_DEFAULT);
+    }
+
+    // mapped = false - окна читаются в буфер в куче вместо отображения файла в память
+    public MappedCsvReader(Path path, long windowSize, boolean mapped) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = Math.min(windowSize, MAX_WINDOW_SIZE);
+        this.mapped = mapped;
+        mapWindow(0);
+        readHeader();
+    }
+
+    public CsvFormat getFormat() {
+        return format;
+    }
+
+    public List<CsvParseError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    // Номер последней прочитанной строки файла (заголовок - строка 1)
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    // Возвращает следующую задачу или null, когда файл закончился
+    public Task read() throws IOException {
+        while (true) {
+            int end = nextLineEnd();
+            if (end < 0) {
+                return null;
+            }
+            int start = position;
+            int contentEnd = end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+            position = end + 1;
+            int recordLine = ++lineNumber;
+            lineNumber += embeddedLines;
+            if (contentEnd > start) {
+                try {
+                    return format.isCurrent() ? parseLine(start, contentEnd) : format.parse(decode(start, contentEnd));
+                } catch (RuntimeException e) {
+                    errors.add(new CsvParseError(recordLine, decode(start, contentEnd), String.valueOf(e.getMessage())));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+
+    private Task parseLine(int start, int end) {
+        int columns = 0;
+        separators[columns++] = start - 1;
+        for (int i = start; i < end && columns <= COLUMNS; i++) {
+            byte b = buffer.get(i);
+            if (b == ',') {
+                separators[columns++] = i;
+            } else if (b == '"') {
+                // Поля в кавычках встречаются редко - разбираем такую строку через CsvFormat
+                return format.parse(decode(start, end));
+            }
+        }
+        if (columns != COLUMNS) {
+            return format.parse(decode(start, end));
+        }
+        separators[COLUMNS] = end;
+
+        int id = (int) parseLong(0);
+        TaskType type = parseType(1);
+        String name = decode(fieldStart(2), fieldEnd(2));
+        Status status = parseStatus(3);
+        String description = decode(fieldStart(4), fieldEnd(4));
+        Duration duration = isEmpty(5) ? null : Duration.ofMinutes(parseLong(5));
+        LocalDateTime startTime = isEmpty(6) ? null : parseDateTime(6);
+
+        Task task;
+        switch (type) {
+            case EPIC:
+                task = new Epic(id, name, description, status);
+                break;
+            case SUBTASK:
+                if (isEmpty(7)) {
+                    throw new IllegalArgumentException("Недостаточно данных для подзадачи");
+                }
+                task = new Subtask(name, description, status, (int) parseLong(7));
+                task.setId(id);
+                break;
+            default:
+                task = new Task(id, name, description, status);
+                break;
+        }
+        task.setDuration(duration);
+        task.setStartTime(startTime);
+        return task;
+    }
+
+    private int fieldStart(int column) {
+        return separators[column] + 1;
+    }
+
+    private int fieldEnd(int column) {
+        return separators[column + 1];
+    }
+
+    // Пустое значение и "null" трактуются одинаково, как и в CsvConverter
+    private boolean isEmpty(int column) {
+        int from = fieldStart(column);
+        int length = fieldEnd(column) - from;
+        return length == 0 || (length == 4 && buffer.get(from) == 'n' && buffer.get(from + 1) == 'u'
+                && buffer.get(from + 2) == 'l' && buffer.get(from + 3) == 'l');
+    }
+
+    private long parseLong(int column) {
+        return parseDigits(fieldStart(column), fieldEnd(column), true);
+    }
+
+    private long parseDigits(int from, int to, boolean signed) {
+        if (from >= to) {
+            throw new NumberFormatException("Пустое число");
+        }
+        boolean negative = false;
+        if (signed && (buffer.get(from) == '-' || buffer.get(from) == '+')) {
+            negative = buffer.get(from) == '-';
+            from++;
+            if (from == to) {
+                throw new NumberFormatException("Некорректное число");
+            }
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Некорректное число");
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10), digit);
+        }
+        return negative ? -value : value;
+    }
+
+    private TaskType parseType(int column) {
+        int from = fieldStart(column);
+        int length = fieldEnd(column) - from;
+        if (length == 4 && matches(from, "TASK")) {
+            return TaskType.TASK;
+        }
+        if (length == 4 && matches(from, "EPIC")) {
+            return TaskType.EPIC;
+        }
+        if (length == 7 && matches(from, "SUBTASK")) {
+            return TaskType.SUBTASK;
+        }
+        throw new IllegalArgumentException("Неизвестный тип задачи");
+    }
+
+    private Status parseStatus(int column) {
+        int from = fieldStart(column);
+        int length = fieldEnd(column) - from;
+        if (length == 3 && matches(from, "NEW")) {
+            return Status.NEW;
+        }
+        if (length == 4 && matches(from, "DONE")) {
+            return Status.DONE;
+        }
+        if (length == 11 && matches(from, "IN_PROGRESS")) {
+            return Status.IN_PROGRESS;
+        }
+        throw new IllegalArgumentException("Неизвестный статус");
+    }
+
+    private boolean matches(int from, String expected) {
+        for (int i = 0; i < expected.length(); i++) {
+            if (buffer.get(from + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Формат LocalDateTime.toString(): yyyy-MM-ddTHH:mm[:ss[.nnn...]]
+    private LocalDateTime parseDateTime(int column) {
+        int from = fieldStart(column);
+        int to = fieldEnd(column);
+        int length = to - from;
+        if (length < 16 || buffer.get(from + 4) != '-' || buffer.get(from + 10) != 'T') {
+            // Годы вне 0000-9999 и прочие редкие случаи
+            return LocalDateTime.parse(decode(from, to));
+        }
+        int year = (int) parseDigits(from, from + 4, false);
+        int month = (int) parseDigits(from + 5, from + 7, false);
+        int day = (int) parseDigits(from + 8, from + 10, false);
+        int hour = (int) parseDigits(from + 11, from + 13, false);
+        int minute = (int) parseDigits(from + 14, from + 16, false);
+        int second = 0;
+        int nano = 0;
+        if (length > 16) {
+            second = (int) parseDigits(from + 17, from + 19, false);
+            if (length > 20) {
+                int fractionDigits = length - 20;
+                nano = (int) parseDigits(from + 20, to, false);
+                for (int i = fractionDigits; i < 9; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    private String decode(int from, int to) {
+        int length = to - from;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(from, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // Первая строка - заголовок; файл без заголовка разбирается с первой строки эвристикой CsvConverter
+    private void readHeader() throws IOException {
+        int end = nextLineEnd();
+        if (end < 0) {
+            return;
+        }
+        int contentEnd = end > position && buffer.get(end - 1) == '\r' ? end - 1 : end;
+        CsvFormat header = CsvFormat.fromHeader(decode(position, contentEnd));
+        if (header == null) {
+            format = CsvFormat.HEADERLESS;
+            return;
+        }
+        format = header;
+        position = end + 1;
+        lineNumber++;
+    }
+
+    // Позиция перевода строки, завершающего текущую запись; переводы строк внутри кавычек пропускаются.
+    // Кавычки считаются как в CsvConverter.split: открывает поле только кавычка в его начале.
+    // Последняя строка без перевода тоже считается записью.
+    // Если запись не помещается в окно, окно сдвигается к её началу, а если она длиннее всего окна - увеличивается вдвое.
+    private int nextLineEnd() throws IOException {
+        while (true) {
+            int limit = buffer.limit();
+            boolean quoted = false;
+            boolean fieldStart = true;
+            embeddedLines = 0;
+            for (int i = position; i < limit; i++) {
+                byte b = buffer.get(i);
+                if (quoted) {
+                    if (b == '"') {
+                        if (i + 1 < limit && buffer.get(i + 1) == '"') {
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else if (b == '\n') {
+                        embeddedLines++;
+                    }
+                } else if (b == '\n') {
+                    return i;
+                } else if (b == '"' && fieldStart) {
+                    quoted = true;
+                    fieldStart = false;
+                } else {
+                    fieldStart = b == ',';
+                }
+            }
+            long absolute = windowStart + position;
+            if (windowStart + limit >= size) {
+                if (position < limit) {
+                    // Последняя строка без завершающего перевода: дописываем виртуальный конец
+                    return limit;
+                }
+                return -1;
+            }
+            if (position == 0 && limit == windowSize) {
+                if (windowSize == MAX_WINDOW_SIZE) {
+                    throw new IOException("Строка " + (lineNumber + 1) + " длиннее " + MAX_WINDOW_SIZE + " байт");
+                }
+                windowSize = Math.min(windowSize * 2, MAX_WINDOW_SIZE);
+            }
+            mapWindow(absolute);
+        }
+    }
+
+    private void mapWindow(long start) throws IOException {
+        windowStart = start;
+        position = 0;
+        int length = (int) Math.min(windowSize, size - start);
+        if (mapped) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            return;
+        }
+        if (buffer == null || buffer.capacity() < length) {
+            buffer = ByteBuffer.allocate(Math.max(length, (int) Math.min(windowSize, size)));
+        }
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,13 @@
+package main.javakanban.converter;
+
+import java.io.File;
+
+// Формат файла-снапшота определяется по расширению: *.bin - двоичный, остальные - CSV
+public enum SnapshotFormat {
+    CSV,
+    BINARY;
+
+    public static SnapshotFormat forFile(File file) {
+        return file.getName().endsWith(".bin") ? BINARY : CSV;
+    }
+}
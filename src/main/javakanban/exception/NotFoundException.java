@@ -0,0 +1,7 @@
+package main.javakanban.exception;
+
+public class NotFoundException extends RuntimeException {
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
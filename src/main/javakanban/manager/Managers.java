@@ -1,11 +1,25 @@
 package main.javakanban.manager;
 
+import main.javakanban.manager.metrics.InstrumentedTaskManager;
+import main.javakanban.manager.task.ConcurrentTaskManager;
 import main.javakanban.manager.task.InMemoryTaskManager;
+import main.javakanban.manager.task.TaskManager;
 
 public class Managers {
     public static InMemoryTaskManager getDefault() {
         return new InMemoryTaskManager();
     }
 
+    public static ConcurrentTaskManager getConcurrent() {
+        return new ConcurrentTaskManager();
+    }
+
+    // Менеджер по умолчанию со счётчиками вызовов и задержек
+    public static InstrumentedTaskManager getInstrumented() {
+        return getInstrumented(getDefault());
+    }
 
+    public static InstrumentedTaskManager getInstrumented(TaskManager delegate) {
+        return new InstrumentedTaskManager(delegate);
+    }
 }
@@ -0,0 +1,120 @@
+package main.javakanban.manager.history;
+
+import main.javakanban.model.Task;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+// Потокобезопасная история просмотров без общего монитора.
+// Каждому просмотру выдаётся возрастающий номер; order хранит просмотры в порядке номеров,
+// positions - текущий номер каждой задачи. Перенос задачи в конец атомарен в пределах её ключа
+// (ConcurrentHashMap.compute), поэтому разные задачи добавляются параллельно.
+// Как и InMemoryHistoryManager, хранит только ID задач и вытесняет самые давние просмотры.
+public class ConcurrentHistoryManager implements HistoryManager {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentMap<Integer, Long> positions = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Entry> order = new ConcurrentSkipListMap<>();
+    private final int capacity;
+    private final IntFunction<Task> resolver;
+
+    public ConcurrentHistoryManager() {
+        this(InMemoryHistoryManager.DEFAULT_CAPACITY);
+    }
+
+    // Без resolver задачи запоминаются по слабым ссылкам
+    public ConcurrentHistoryManager(int capacity) {
+        this(capacity, null);
+    }
+
+    public ConcurrentHistoryManager(int capacity, IntFunction<Task> resolver) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Ёмкость истории должна быть положительной: " + capacity);
+        }
+        this.capacity = capacity;
+        this.resolver = resolver;
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null || task.getId() == null) {
+            return;
+        }
+
+        final Entry entry = new Entry(task.getId(), resolver == null ? new WeakReference<>(task) : null);
+        positions.compute(task.getId(), (id, oldPosition) -> {
+            long position = sequence.incrementAndGet();
+            // Сначала вставляем новую позицию, потом убираем старую: читатель никогда не теряет задачу
+            order.put(position, entry);
+            if (oldPosition != null) {
+                order.remove(oldPosition);
+            }
+            return position;
+        });
+        evictOverflow();
+    }
+
+    @Override
+    public void remove(int id) {
+        positions.computeIfPresent(id, (key, position) -> {
+            order.remove(position);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        // Во время переноса задача может на мгновение встретиться дважды - оставляем последнюю позицию
+        final Map<Integer, Task> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<Long, Entry> viewed : order.entrySet()) {
+            final Entry entry = viewed.getValue();
+            final Task task = resolver != null ? resolver.apply(entry.id) : entry.reference.get();
+            snapshot.remove(entry.id);
+            if (task != null) {
+                snapshot.put(entry.id, task);
+            } else {
+                // Задача удалена - убираем запись при обходе
+                positions.remove(entry.id, viewed.getKey());
+                order.remove(viewed.getKey(), entry);
+            }
+        }
+        return new ArrayList<>(snapshot.values());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Число попыток ограничено: конкурирующие потоки могут одновременно переносить самую давнюю запись,
+    // а оставшийся излишек вытеснит следующее добавление
+    private void evictOverflow() {
+        for (int attempt = 0; attempt < 8 && positions.size() > capacity; attempt++) {
+            final Map.Entry<Long, Entry> eldest = order.firstEntry();
+            if (eldest == null) {
+                return;
+            }
+            if (positions.remove(eldest.getValue().id, eldest.getKey())) {
+                order.remove(eldest.getKey(), eldest.getValue());
+            }
+        }
+    }
+
+    private static class Entry {
+        final int id;
+        final WeakReference<Task> reference;
+
+        Entry(int id, WeakReference<Task> reference) {
+            this.id = id;
+            this.reference = reference;
+        }
+    }
+}
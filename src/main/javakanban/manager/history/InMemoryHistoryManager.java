@@ -2,17 +2,43 @@ package main.javakanban.manager.history;
 
 import main.javakanban.model.Task;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntFunction;
 
+// История просмотров с ограниченной ёмкостью: при переполнении вытесняется задача,
+// которую смотрели давнее всех. Узел хранит только ID задачи, а актуальный объект
+// берётся из менеджера задач через resolver, поэтому история не удерживает удалённые задачи.
 public class InMemoryHistoryManager implements HistoryManager {
 
+    public static final int DEFAULT_CAPACITY = 100;
+
     private final Map<Integer, Node> history = new HashMap<>();
+    private final int capacity;
+    private final IntFunction<Task> resolver;
     private Node first;
     private Node last;
 
+    public InMemoryHistoryManager() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Без resolver задачи запоминаются по слабым ссылкам
+    public InMemoryHistoryManager(int capacity) {
+        this(capacity, null);
+    }
+
+    public InMemoryHistoryManager(int capacity, IntFunction<Task> resolver) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Ёмкость истории должна быть положительной: " + capacity);
+        }
+        this.capacity = capacity;
+        this.resolver = resolver;
+    }
+
     @Override
     public void add(Task task) {
         if (task == null) {
@@ -22,6 +48,9 @@ public class InMemoryHistoryManager implements HistoryManager {
         remove(task.getId());
         linkLast(task);
         history.put(task.getId(), last);
+        if (history.size() > capacity) {
+            remove(first.id);
+        }
     }
 
     @Override
@@ -38,8 +67,12 @@ public class InMemoryHistoryManager implements HistoryManager {
         return getTasks();
     }
 
+    public int getCapacity() {
+        return capacity;
+    }
+
     private void linkLast(Task task) {
-        final Node newNode = new Node(last, task);
+        final Node newNode = new Node(last, task.getId(), resolver == null ? new WeakReference<>(task) : null);
         if (first == null) {
             first = newNode;
         } else {
@@ -53,12 +86,23 @@ public class InMemoryHistoryManager implements HistoryManager {
         final List<Task> tasks = new ArrayList<>(history.size());
         Node currentNode = first;
         while (currentNode != null) {
-            tasks.add(currentNode.element);
-            currentNode = currentNode.next;
+            final Node next = currentNode.next;
+            final Task task = resolve(currentNode);
+            if (task != null) {
+                tasks.add(task);
+            } else {
+                // Задача удалена - убираем узел при обходе
+                remove(currentNode.id);
+            }
+            currentNode = next;
         }
         return tasks;
     }
 
+    private Task resolve(Node node) {
+        return resolver != null ? resolver.apply(node.id) : node.reference.get();
+    }
+
     private void removeNode(Node node) {
         final Node prev = node.prev;
         final Node next = node.next;
@@ -78,12 +122,14 @@ public class InMemoryHistoryManager implements HistoryManager {
 
     private static class Node {
         Node prev;
-        Task element;
+        final int id;
+        final WeakReference<Task> reference;
         Node next;
 
-        Node(Node prev, Task element) {
+        Node(Node prev, int id, WeakReference<Task> reference) {
             this.prev = prev;
-            this.element = element;
+            this.id = id;
+            this.reference = reference;
         }
     }
 }
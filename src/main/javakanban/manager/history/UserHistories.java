@@ -0,0 +1,60 @@
+package main.javakanban.manager.history;
+
+import main.javakanban.model.Task;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Отдельная история просмотров для каждого пользователя.
+// История создаётся только при первом просмотре, чтение её не создаёт. Число историй ограничено:
+// при переполнении вытесняется история пользователя, который дольше всех не обращался.
+// Удалённые задачи вычищаются из историй лениво при чтении. Словарь историй защищён монитором,
+// потокобезопасность самих историй определяет фабрика.
+public class UserHistories {
+
+    public static final int DEFAULT_MAX_USERS = 10_000;
+
+    private final Supplier<HistoryManager> factory;
+    private final Map<String, HistoryManager> histories;
+
+    public UserHistories(Supplier<HistoryManager> factory) {
+        this(factory, DEFAULT_MAX_USERS);
+    }
+
+    public UserHistories(Supplier<HistoryManager> factory, int maxUsers) {
+        if (maxUsers < 1) {
+            throw new IllegalArgumentException("Число пользователей должно быть положительным: " + maxUsers);
+        }
+        this.factory = factory;
+        // Порядок доступа: первым идёт пользователь, который дольше всех не обращался
+        this.histories = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HistoryManager> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public synchronized HistoryManager forUser(String userId) {
+        return histories.computeIfAbsent(userId, key -> factory.get());
+    }
+
+    // Пустой список, если пользователь ничего не просматривал или его история вытеснена
+    public List<Task> getHistory(String userId) {
+        HistoryManager history;
+        synchronized (this) {
+            history = histories.get(userId);
+        }
+        return history == null ? List.of() : history.getHistory();
+    }
+
+    public synchronized boolean removeUser(String userId) {
+        return histories.remove(userId) != null;
+    }
+
+    public synchronized int size() {
+        return histories.size();
+    }
+}
@@ -0,0 +1,712 @@
+package main.javakanban.manager.metrics;
+
+import main.javakanban.manager.task.FileBackedTaskManager;
+import main.javakanban.manager.task.TaskCursor;
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Обёртка над любым TaskManager, которая считает вызовы, ошибки и задержки каждой операции.
+// Счётчики - поля, а не словарь, и без лямбд, поэтому успешный вызов не выделяет памяти.
+// Для потоков измеряется только создание: обход ленивый и идёт уже у вызывающего.
+public class InstrumentedTaskManager implements TaskManager {
+
+    private final TaskManager delegate;
+    private final TaskManagerMetrics metrics;
+    private final OperationStats addTask;
+    private final OperationStats addEpic;
+    private final OperationStats addSubtask;
+    private final OperationStats updateTask;
+    private final OperationStats updateEpic;
+    private final OperationStats updateSubtask;
+    private final OperationStats getTaskByID;
+    private final OperationStats getEpicByID;
+    private final OperationStats getSubtaskByID;
+    private final OperationStats getTasks;
+    private final OperationStats getEpics;
+    private final OperationStats getSubtasks;
+    private final OperationStats getEpicSubtasks;
+    private final OperationStats deleteTasks;
+    private final OperationStats deleteEpics;
+    private final OperationStats deleteSubtasks;
+    private final OperationStats deleteTaskByID;
+    private final OperationStats deleteEpicByID;
+    private final OperationStats deleteSubtaskByID;
+    private final OperationStats getHistory;
+    private final OperationStats getTaskByIDForUser;
+    private final OperationStats getEpicByIDForUser;
+    private final OperationStats getSubtaskByIDForUser;
+    private final OperationStats getHistoryForUser;
+    private final OperationStats removeUserHistory;
+    private final OperationStats getPrioritizedTasks;
+    private final OperationStats streamTasks;
+    private final OperationStats streamEpics;
+    private final OperationStats streamSubtasks;
+    private final OperationStats streamEpicSubtasks;
+    private final OperationStats streamPrioritizedTasks;
+    private final OperationStats streamHistory;
+    private final OperationStats getPrioritizedTasksBetween;
+    private final OperationStats getPrioritizedTasksPage;
+    private final OperationStats findFreeSlot;
+    private final OperationStats autoSchedule;
+    private final OperationStats countByStatus;
+    private final OperationStats countByType;
+    private final OperationStats getByStatus;
+    private final OperationStats search;
+    private final OperationStats searchPrefix;
+    private final OperationStats addAll;
+    private final OperationStats updateAll;
+    private final OperationStats deleteAll;
+
+    public InstrumentedTaskManager(TaskManager delegate) {
+        this(delegate, new TaskManagerMetrics());
+    }
+
+    public InstrumentedTaskManager(TaskManager delegate, TaskManagerMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.addTask = metrics.register("addTask");
+        this.addEpic = metrics.register("addEpic");
+        this.addSubtask = metrics.register("addSubtask");
+        this.updateTask = metrics.register("updateTask");
+        this.updateEpic = metrics.register("updateEpic");
+        this.updateSubtask = metrics.register("updateSubtask");
+        this.getTaskByID = metrics.register("getTaskByID");
+        this.getEpicByID = metrics.register("getEpicByID");
+        this.getSubtaskByID = metrics.register("getSubtaskByID");
+        this.getTasks = metrics.register("getTasks");
+        this.getEpics = metrics.register("getEpics");
+        this.getSubtasks = metrics.register("getSubtasks");
+        this.getEpicSubtasks = metrics.register("getEpicSubtasks");
+        this.deleteTasks = metrics.register("deleteTasks");
+        this.deleteEpics = metrics.register("deleteEpics");
+        this.deleteSubtasks = metrics.register("deleteSubtasks");
+        this.deleteTaskByID = metrics.register("deleteTaskByID");
+        this.deleteEpicByID = metrics.register("deleteEpicByID");
+        this.deleteSubtaskByID = metrics.register("deleteSubtaskByID");
+        this.getHistory = metrics.register("getHistory");
+        this.getTaskByIDForUser = metrics.register("getTaskByIDForUser");
+        this.getEpicByIDForUser = metrics.register("getEpicByIDForUser");
+        this.getSubtaskByIDForUser = metrics.register("getSubtaskByIDForUser");
+        this.getHistoryForUser = metrics.register("getHistoryForUser");
+        this.removeUserHistory = metrics.register("removeUserHistory");
+        this.getPrioritizedTasks = metrics.register("getPrioritizedTasks");
+        this.streamTasks = metrics.register("streamTasks");
+        this.streamEpics = metrics.register("streamEpics");
+        this.streamSubtasks = metrics.register("streamSubtasks");
+        this.streamEpicSubtasks = metrics.register("streamEpicSubtasks");
+        this.streamPrioritizedTasks = metrics.register("streamPrioritizedTasks");
+        this.streamHistory = metrics.register("streamHistory");
+        this.getPrioritizedTasksBetween = metrics.register("getPrioritizedTasksBetween");
+        this.getPrioritizedTasksPage = metrics.register("getPrioritizedTasksPage");
+        this.findFreeSlot = metrics.register("findFreeSlot");
+        this.autoSchedule = metrics.register("autoSchedule");
+        this.countByStatus = metrics.register("countByStatus");
+        this.countByType = metrics.register("countByType");
+        this.getByStatus = metrics.register("getByStatus");
+        this.search = metrics.register("search");
+        this.searchPrefix = metrics.register("searchPrefix");
+        this.addAll = metrics.register("addAll");
+        this.updateAll = metrics.register("updateAll");
+        this.deleteAll = metrics.register("deleteAll");
+        if (delegate instanceof FileBackedTaskManager fileBacked) {
+            // Запись снапшота происходит внутри других операций - её время считает сам менеджер
+            metrics.add(fileBacked.getSaveStats());
+        }
+    }
+
+    public TaskManager getDelegate() {
+        return delegate;
+    }
+
+    public TaskManagerMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Task addTask(Task task) {
+        long start = addTask.start();
+        try {
+            return delegate.addTask(task);
+        } catch (RuntimeException e) {
+            addTask.failed(e);
+            throw e;
+        } finally {
+            addTask.finished(start);
+        }
+    }
+
+    @Override
+    public Epic addEpic(Epic epic) {
+        long start = addEpic.start();
+        try {
+            return delegate.addEpic(epic);
+        } catch (RuntimeException e) {
+            addEpic.failed(e);
+            throw e;
+        } finally {
+            addEpic.finished(start);
+        }
+    }
+
+    @Override
+    public Integer addSubtask(Subtask subtask) {
+        long start = addSubtask.start();
+        try {
+            return delegate.addSubtask(subtask);
+        } catch (RuntimeException e) {
+            addSubtask.failed(e);
+            throw e;
+        } finally {
+            addSubtask.finished(start);
+        }
+    }
+
+    @Override
+    public Task updateTask(Task task) {
+        long start = updateTask.start();
+        try {
+            return delegate.updateTask(task);
+        } catch (RuntimeException e) {
+            updateTask.failed(e);
+            throw e;
+        } finally {
+            updateTask.finished(start);
+        }
+    }
+
+    @Override
+    public Epic updateEpic(Epic epic) {
+        long start = updateEpic.start();
+        try {
+            return delegate.updateEpic(epic);
+        } catch (RuntimeException e) {
+            updateEpic.failed(e);
+            throw e;
+        } finally {
+            updateEpic.finished(start);
+        }
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        long start = updateSubtask.start();
+        try {
+            return delegate.updateSubtask(subtask);
+        } catch (RuntimeException e) {
+            updateSubtask.failed(e);
+            throw e;
+        } finally {
+            updateSubtask.finished(start);
+        }
+    }
+
+    @Override
+    public Task getTaskByID(int id) {
+        long start = getTaskByID.start();
+        try {
+            return delegate.getTaskByID(id);
+        } catch (RuntimeException e) {
+            getTaskByID.failed(e);
+            throw e;
+        } finally {
+            getTaskByID.finished(start);
+        }
+    }
+
+    @Override
+    public Epic getEpicByID(int id) {
+        long start = getEpicByID.start();
+        try {
+            return delegate.getEpicByID(id);
+        } catch (RuntimeException e) {
+            getEpicByID.failed(e);
+            throw e;
+        } finally {
+            getEpicByID.finished(start);
+        }
+    }
+
+    @Override
+    public Subtask getSubtaskByID(int id) {
+        long start = getSubtaskByID.start();
+        try {
+            return delegate.getSubtaskByID(id);
+        } catch (RuntimeException e) {
+            getSubtaskByID.failed(e);
+            throw e;
+        } finally {
+            getSubtaskByID.finished(start);
+        }
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        long start = getTasks.start();
+        try {
+            return delegate.getTasks();
+        } catch (RuntimeException e) {
+            getTasks.failed(e);
+            throw e;
+        } finally {
+            getTasks.finished(start);
+        }
+    }
+
+    @Override
+    public List<Epic> getEpics() {
+        long start = getEpics.start();
+        try {
+            return delegate.getEpics();
+        } catch (RuntimeException e) {
+            getEpics.failed(e);
+            throw e;
+        } finally {
+            getEpics.finished(start);
+        }
+    }
+
+    @Override
+    public List<Subtask> getSubtasks() {
+        long start = getSubtasks.start();
+        try {
+            return delegate.getSubtasks();
+        } catch (RuntimeException e) {
+            getSubtasks.failed(e);
+            throw e;
+        } finally {
+            getSubtasks.finished(start);
+        }
+    }
+
+    @Override
+    public List<Subtask> getEpicSubtasks(int id) {
+        long start = getEpicSubtasks.start();
+        try {
+            return delegate.getEpicSubtasks(id);
+        } catch (RuntimeException e) {
+            getEpicSubtasks.failed(e);
+            throw e;
+        } finally {
+            getEpicSubtasks.finished(start);
+        }
+    }
+
+    @Override
+    public void deleteTasks() {
+        long start = deleteTasks.start();
+        try {
+            delegate.deleteTasks();
+        } catch (RuntimeException e) {
+            deleteTasks.failed(e);
+            throw e;
+        } finally {
+            deleteTasks.finished(start);
+        }
+    }
+
+    @Override
+    public void deleteEpics() {
+        long start = deleteEpics.start();
+        try {
+            delegate.deleteEpics();
+        } catch (RuntimeException e) {
+            deleteEpics.failed(e);
+            throw e;
+        } finally {
+            deleteEpics.finished(start);
+        }
+    }
+
+    @Override
+    public void deleteSubtasks() {
+        long start = deleteSubtasks.start();
+        try {
+            delegate.deleteSubtasks();
+        } catch (RuntimeException e) {
+            deleteSubtasks.failed(e);
+            throw e;
+        } finally {
+            deleteSubtasks.finished(start);
+        }
+    }
+
+    @Override
+    public Object deleteTaskByID(int id) {
+        long start = deleteTaskByID.start();
+        try {
+            return delegate.deleteTaskByID(id);
+        } catch (RuntimeException e) {
+            deleteTaskByID.failed(e);
+            throw e;
+        } finally {
+            deleteTaskByID.finished(start);
+        }
+    }
+
+    @Override
+    public void deleteEpicByID(int id) {
+        long start = deleteEpicByID.start();
+        try {
+            delegate.deleteEpicByID(id);
+        } catch (RuntimeException e) {
+            deleteEpicByID.failed(e);
+            throw e;
+        } finally {
+            deleteEpicByID.finished(start);
+        }
+    }
+
+    @Override
+    public Object deleteSubtaskByID(int id) {
+        long start = deleteSubtaskByID.start();
+        try {
+            return delegate.deleteSubtaskByID(id);
+        } catch (RuntimeException e) {
+            deleteSubtaskByID.failed(e);
+            throw e;
+        } finally {
+            deleteSubtaskByID.finished(start);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        long start = getHistory.start();
+        try {
+            return delegate.getHistory();
+        } catch (RuntimeException e) {
+            getHistory.failed(e);
+            throw e;
+        } finally {
+            getHistory.finished(start);
+        }
+    }
+
+    @Override
+    public Task getTaskByID(int id, String userId) {
+        long start = getTaskByIDForUser.start();
+        try {
+            return delegate.getTaskByID(id, userId);
+        } catch (RuntimeException e) {
+            getTaskByIDForUser.failed(e);
+            throw e;
+        } finally {
+            getTaskByIDForUser.finished(start);
+        }
+    }
+
+    @Override
+    public Epic getEpicByID(int id, String userId) {
+        long start = getEpicByIDForUser.start();
+        try {
+            return delegate.getEpicByID(id, userId);
+        } catch (RuntimeException e) {
+            getEpicByIDForUser.failed(e);
+            throw e;
+        } finally {
+            getEpicByIDForUser.finished(start);
+        }
+    }
+
+    @Override
+    public Subtask getSubtaskByID(int id, String userId) {
+        long start = getSubtaskByIDForUser.start();
+        try {
+            return delegate.getSubtaskByID(id, userId);
+        } catch (RuntimeException e) {
+            getSubtaskByIDForUser.failed(e);
+            throw e;
+        } finally {
+            getSubtaskByIDForUser.finished(start);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory(String userId) {
+        long start = getHistoryForUser.start();
+        try {
+            return delegate.getHistory(userId);
+        } catch (RuntimeException e) {
+            getHistoryForUser.failed(e);
+            throw e;
+        } finally {
+            getHistoryForUser.finished(start);
+        }
+    }
+
+    @Override
+    public void removeUserHistory(String userId) {
+        long start = removeUserHistory.start();
+        try {
+            delegate.removeUserHistory(userId);
+        } catch (RuntimeException e) {
+            removeUserHistory.failed(e);
+            throw e;
+        } finally {
+            removeUserHistory.finished(start);
+        }
+    }
+
+    // Чтение счётчика не замеряется: оно дешевле самого замера
+    @Override
+    public long getVersion() {
+        return delegate.getVersion();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        long start = getPrioritizedTasks.start();
+        try {
+            return delegate.getPrioritizedTasks();
+        } catch (RuntimeException e) {
+            getPrioritizedTasks.failed(e);
+            throw e;
+        } finally {
+            getPrioritizedTasks.finished(start);
+        }
+    }
+
+    @Override
+    public Stream<Task> streamTasks() {
+        long start = streamTasks.start();
+        try {
+            return delegate.streamTasks();
+        } catch (RuntimeException e) {
+            streamTasks.failed(e);
+            throw e;
+        } finally {
+            streamTasks.finished(start);
+        }
+    }
+
+    @Override
+    public Stream<Epic> streamEpics() {
+        long start = streamEpics.start();
+        try {
+            return delegate.streamEpics();
+        } catch (RuntimeException e) {
+            streamEpics.failed(e);
+            throw e;
+        } finally {
+            streamEpics.finished(start);
+        }
+    }
+
+    @Override
+    public Stream<Subtask> streamSubtasks() {
+        long start = streamSubtasks.start();
+        try {
+            return delegate.streamSubtasks();
+        } catch (RuntimeException e) {
+            streamSubtasks.failed(e);
+            throw e;
+        } finally {
+            streamSubtasks.finished(start);
+        }
+    }
+
+    @Override
+    public Stream<Subtask> streamEpicSubtasks(int id) {
+        long start = streamEpicSubtasks.start();
+        try {
+            return delegate.streamEpicSubtasks(id);
+        } catch (RuntimeException e) {
+            streamEpicSubtasks.failed(e);
+            throw e;
+        } finally {
+            streamEpicSubtasks.finished(start);
+        }
+    }
+
+    @Override
+    public Stream<Task> streamPrioritizedTasks() {
+        long start = streamPrioritizedTasks.start();
+        try {
+            return delegate.streamPrioritizedTasks();
+        } catch (RuntimeException e) {
+            streamPrioritizedTasks.failed(e);
+            throw e;
+        } finally {
+            streamPrioritizedTasks.finished(start);
+        }
+    }
+
+    @Override
+    public Stream<Task> streamHistory() {
+        long start = streamHistory.start();
+        try {
+            return delegate.streamHistory();
+        } catch (RuntimeException e) {
+            streamHistory.failed(e);
+            throw e;
+        } finally {
+            streamHistory.finished(start);
+        }
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to) {
+        long start = getPrioritizedTasksBetween.start();
+        try {
+            return delegate.getPrioritizedTasksBetween(from, to);
+        } catch (RuntimeException e) {
+            getPrioritizedTasksBetween.failed(e);
+            throw e;
+        } finally {
+            getPrioritizedTasksBetween.finished(start);
+        }
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksPage(TaskCursor after, int limit) {
+        long start = getPrioritizedTasksPage.start();
+        try {
+            return delegate.getPrioritizedTasksPage(after, limit);
+        } catch (RuntimeException e) {
+            getPrioritizedTasksPage.failed(e);
+            throw e;
+        } finally {
+            getPrioritizedTasksPage.finished(start);
+        }
+    }
+
+    @Override
+    public LocalDateTime findFreeSlot(LocalDateTime after, Duration duration) {
+        long start = findFreeSlot.start();
+        try {
+            return delegate.findFreeSlot(after, duration);
+        } catch (RuntimeException e) {
+            findFreeSlot.failed(e);
+            throw e;
+        } finally {
+            findFreeSlot.finished(start);
+        }
+    }
+
+    @Override
+    public List<Task> autoSchedule(Collection<? extends Task> unscheduled, LocalDateTime after) {
+        long start = autoSchedule.start();
+        try {
+            return delegate.autoSchedule(unscheduled, after);
+        } catch (RuntimeException e) {
+            autoSchedule.failed(e);
+            throw e;
+        } finally {
+            autoSchedule.finished(start);
+        }
+    }
+
+    @Override
+    public int countByStatus(TaskType type, Status status) {
+        long start = countByStatus.start();
+        try {
+            return delegate.countByStatus(type, status);
+        } catch (RuntimeException e) {
+            countByStatus.failed(e);
+            throw e;
+        } finally {
+            countByStatus.finished(start);
+        }
+    }
+
+    @Override
+    public int countByType(TaskType type) {
+        long start = countByType.start();
+        try {
+            return delegate.countByType(type);
+        } catch (RuntimeException e) {
+            countByType.failed(e);
+            throw e;
+        } finally {
+            countByType.finished(start);
+        }
+    }
+
+    @Override
+    public List<Task> getByStatus(TaskType type, Status status) {
+        long start = getByStatus.start();
+        try {
+            return delegate.getByStatus(type, status);
+        } catch (RuntimeException e) {
+            getByStatus.failed(e);
+            throw e;
+        } finally {
+            getByStatus.finished(start);
+        }
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        long start = search.start();
+        try {
+            return delegate.search(query, limit);
+        } catch (RuntimeException e) {
+            search.failed(e);
+            throw e;
+        } finally {
+            search.finished(start);
+        }
+    }
+
+    @Override
+    public List<Task> searchPrefix(String prefix, int limit) {
+        long start = searchPrefix.start();
+        try {
+            return delegate.searchPrefix(prefix, limit);
+        } catch (RuntimeException e) {
+            searchPrefix.failed(e);
+            throw e;
+        } finally {
+            searchPrefix.finished(start);
+        }
+    }
+
+    @Override
+    public List<Task> addAll(Collection<? extends Task> items) {
+        long start = addAll.start();
+        try {
+            return delegate.addAll(items);
+        } catch (RuntimeException e) {
+            addAll.failed(e);
+            throw e;
+        } finally {
+            addAll.finished(start);
+        }
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<? extends Task> items) {
+        long start = updateAll.start();
+        try {
+            return delegate.updateAll(items);
+        } catch (RuntimeException e) {
+            updateAll.failed(e);
+            throw e;
+        } finally {
+            updateAll.finished(start);
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<Integer> ids) {
+        long start = deleteAll.start();
+        try {
+            delegate.deleteAll(ids);
+        } catch (RuntimeException e) {
+            deleteAll.failed(e);
+            throw e;
+        } finally {
+            deleteAll.finished(start);
+        }
+    }
+}
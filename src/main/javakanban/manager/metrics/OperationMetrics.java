@@ -0,0 +1,68 @@
+package main.javakanban.manager.metrics;
+
+import java.beans.ConstructorProperties;
+import java.util.Map;
+
+// Неизменяемый срез счётчиков операции; через JMX передаётся как CompositeData. Задержки - в наносекундах.
+public class OperationMetrics {
+
+    private final String name;
+    private final long calls;
+    private final long errors;
+    private final Map<String, Long> errorsByType;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+    private final double mean;
+
+    @ConstructorProperties({"name", "calls", "errors", "errorsByType", "p50", "p99", "p999", "max", "mean"})
+    public OperationMetrics(String name, long calls, long errors, Map<String, Long> errorsByType,
+                            long p50, long p99, long p999, long max, double mean) {
+        this.name = name;
+        this.calls = calls;
+        this.errors = errors;
+        this.errorsByType = Map.copyOf(errorsByType);
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+        this.mean = mean;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public Map<String, Long> getErrorsByType() {
+        return errorsByType;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+}
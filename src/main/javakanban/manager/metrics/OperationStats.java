@@ -0,0 +1,68 @@
+package main.javakanban.manager.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Счётчики одной операции: число вызовов, ошибки по типам исключений и гистограмма задержек.
+// Успешный вызов ничего не выделяет; словарь ошибок пополняется только на пути исключения.
+public class OperationStats {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+
+    public OperationStats(String name) {
+        this.name = name;
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void finished(long start) {
+        latency.record(System.nanoTime() - start);
+    }
+
+    public void failed(Throwable error) {
+        errors.increment();
+        errorsByType.computeIfAbsent(error.getClass().getSimpleName(), type -> new LongAdder()).increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return latency.getCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public Map<String, Long> getErrorsByType() {
+        Map<String, Long> result = new TreeMap<>();
+        errorsByType.forEach((type, counter) -> result.put(type, counter.sum()));
+        return result;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public OperationMetrics toMetrics() {
+        return new OperationMetrics(name, getCalls(), getErrors(), getErrorsByType(),
+                latency.getValueAtPercentile(50), latency.getValueAtPercentile(99),
+                latency.getValueAtPercentile(99.9), latency.getMax(), latency.getMean());
+    }
+
+    public void reset() {
+        latency.reset();
+        errors.reset();
+        errorsByType.clear();
+    }
+}
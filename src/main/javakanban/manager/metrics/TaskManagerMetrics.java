@@ -0,0 +1,100 @@
+package main.javakanban.manager.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Набор счётчиков операций менеджера; публикуется через JMX и выводится текстовой таблицей
+public class TaskManagerMetrics implements TaskManagerMetricsMXBean {
+
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private final Map<String, OperationStats> operations = new LinkedHashMap<>();
+    private ObjectName registeredName;
+
+    // Операции регистрируются при создании обёртки, до первых вызовов
+    public synchronized OperationStats register(String name) {
+        return operations.computeIfAbsent(name, OperationStats::new);
+    }
+
+    public synchronized void add(OperationStats stats) {
+        operations.put(stats.getName(), stats);
+    }
+
+    public synchronized OperationStats get(String name) {
+        return operations.get(name);
+    }
+
+    @Override
+    public List<OperationMetrics> getOperations() {
+        List<OperationMetrics> result = new ArrayList<>();
+        for (OperationStats stats : stats()) {
+            result.add(stats.toMetrics());
+        }
+        return result;
+    }
+
+    // Только операции, которые вызывались; задержки - в микросекундах
+    @Override
+    public String getTextDump() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-28s %10s %8s %10s %10s %10s %10s%n",
+                "operation", "calls", "errors", "p50,us", "p99,us", "p99.9,us", "max,us"));
+        for (OperationMetrics metrics : getOperations()) {
+            if (metrics.getCalls() == 0) {
+                continue;
+            }
+            out.append(String.format("%-28s %10d %8d %10.1f %10.1f %10.1f %10.1f",
+                    metrics.getName(), metrics.getCalls(), metrics.getErrors(),
+                    metrics.getP50() / NANOS_PER_MICRO, metrics.getP99() / NANOS_PER_MICRO,
+                    metrics.getP999() / NANOS_PER_MICRO, metrics.getMax() / NANOS_PER_MICRO));
+            if (!metrics.getErrorsByType().isEmpty()) {
+                out.append("  ").append(metrics.getErrorsByType());
+            }
+            out.append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (OperationStats stats : stats()) {
+            stats.reset();
+        }
+    }
+
+    // Публикует счётчики в платформенном MBean-сервере как main.javakanban:type=TaskManagerMetrics,name=<name>
+    public synchronized ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName("main.javakanban:type=TaskManagerMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            registeredName = objectName;
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось зарегистрировать MBean " + name, e);
+        }
+    }
+
+    public synchronized void unregisterMBean() {
+        if (registeredName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(registeredName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось снять регистрацию MBean " + registeredName, e);
+        }
+        registeredName = null;
+    }
+
+    private synchronized Collection<OperationStats> stats() {
+        return new ArrayList<>(operations.values());
+    }
+}
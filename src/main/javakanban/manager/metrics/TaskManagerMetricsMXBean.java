@@ -0,0 +1,12 @@
+package main.javakanban.manager.metrics;
+
+import java.util.List;
+
+public interface TaskManagerMetricsMXBean {
+
+    List<OperationMetrics> getOperations();
+
+    String getTextDump();
+
+    void reset();
+}
@@ -0,0 +1,958 @@
+package main.javakanban.manager.task;
+
+import main.javakanban.exception.TimeIntervalConflictException;
+import main.javakanban.manager.history.ConcurrentHistoryManager;
+import main.javakanban.manager.history.HistoryManager;
+import main.javakanban.manager.history.InMemoryHistoryManager;
+import main.javakanban.manager.history.UserHistories;
+import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+import main.javakanban.util.IntLinkedSet;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Потокобезопасный менеджер задач.
+// Чтение идёт без блокировок по конкурентным коллекциям. Запись блокирует только страйп,
+// которому принадлежит задача или эпик (вместе со всеми его подзадачами).
+// Проверка пересечений по времени и регистрация интервала выполняются атомарно под отдельной
+// блокировкой расписания, которую берут только задачи с заданным временем.
+public class ConcurrentTaskManager implements TaskManager {
+
+    private static final int STRIPES = 64;
+
+    private final ConcurrentMap<Integer, Task> tasks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Epic> epics = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Subtask> subtasks = new ConcurrentHashMap<>();
+    private final HistoryManager historyManager =
+            new ConcurrentHistoryManager(InMemoryHistoryManager.DEFAULT_CAPACITY, this::findTask);
+    private final UserHistories userHistories = new UserHistories(
+            () -> new ConcurrentHistoryManager(InMemoryHistoryManager.DEFAULT_CAPACITY, this::findTask));
+    private final NavigableSet<Task> prioritized = new ConcurrentSkipListSet<>(
+            Comparator
+                    .comparing(Task::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Task::getId)
+    );
+    private final TimeIntervalIndex timeIntervals = new TimeIntervalIndex();
+    // Снимки для частых чтений списков: копия строится заново только после изменения
+    private final SnapshotCache<Task> tasksSnapshot = new SnapshotCache<>(tasks::values);
+    private final SnapshotCache<Epic> epicsSnapshot = new SnapshotCache<>(epics::values);
+    private final SnapshotCache<Subtask> subtasksSnapshot = new SnapshotCache<>(subtasks::values);
+    private final SnapshotCache<Task> prioritizedSnapshot = new SnapshotCache<>(() -> prioritized, Spliterator.ORDERED);
+    private final EpicStatusTracker epicStatuses = new EpicStatusTracker(new ConcurrentHashMap<>(), subtasks::get);
+    private final EpicTimeTracker epicTimes =
+            new EpicTimeTracker(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), subtasks::get);
+    private final StatusIndex statusIndex = new StatusIndex(ConcurrentHashMap::new, ConcurrentHashMap::newKeySet);
+    // Текстовый индекс не потокобезопасен: поиск идёт под блокировкой чтения, изменения - под блокировкой записи
+    private final TextIndex textIndex = new TextIndex();
+    private final ReentrantReadWriteLock textLock = new ReentrantReadWriteLock();
+    private final Lock scheduleLock = new ReentrantLock();
+    private final ReentrantReadWriteLock[] stripes = new ReentrantReadWriteLock[STRIPES];
+    private final AtomicInteger id = new AtomicInteger(1);
+    // Версия данных увеличивается в finally, то есть после изменения и до снятия блокировки:
+    // читатель, увидевший новую версию, увидит и сброшенные снимки
+    private final AtomicLong version = new AtomicLong();
+
+    public ConcurrentTaskManager() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    private int getNextId() {
+        return id.getAndIncrement();
+    }
+
+    private void updateIdCounter(Integer providedId) {
+        if (providedId != null) {
+            id.accumulateAndGet(providedId + 1, Math::max);
+        }
+    }
+
+    //создаем тип "Задача"
+    @Override
+    public Task addTask(Task task) {
+        assignId(task);
+        Lock lock = writeLock(task.getId());
+        lock.lock();
+        try {
+            schedule(null, task);
+            insertTask(task);
+        } finally {
+            version.incrementAndGet();
+            lock.unlock();
+        }
+        return task;
+    }
+
+    //создаем тип "Эпик"
+    @Override
+    public Epic addEpic(Epic epic) {
+        assignId(epic);
+        Lock lock = writeLock(epic.getId());
+        lock.lock();
+        try {
+            insertEpic(epic);
+        } finally {
+            version.incrementAndGet();
+            lock.unlock();
+        }
+        return epic;
+    }
+
+    //создаем тип "Подзадача"
+    @Override
+    public Integer addSubtask(Subtask subtask) {
+        int epicId = subtask.getEpicId();
+        Lock lock = writeLock(epicId);
+        lock.lock();
+        try {
+            Epic epic = epics.get(epicId);
+            if (epic == null) {
+                System.out.println("Эпик не найден. Подзадача не добавлена.");
+                return null;
+            }
+
+            assignId(subtask);
+            schedule(null, subtask);
+            insertSubtask(subtask, epic);
+        } finally {
+            version.incrementAndGet();
+            lock.unlock();
+        }
+        return subtask.getId();
+    }
+
+    //обновляем тип "Задача"
+    @Override
+    public Task updateTask(Task task) {
+        Integer taskId = task.getId();
+        if (taskId == null) {
+            return null;
+        }
+        Lock lock = writeLock(taskId);
+        lock.lock();
+        try {
+            Task old = tasks.get(taskId);
+            if (old == null) {
+                return null;
+            }
+            schedule(old, task);
+            replaceTask(old, task);
+        } finally {
+            version.incrementAndGet();
+            lock.unlock();
+        }
+        return task;
+    }
+
+    //обновляем тип "Эпик"
+    @Override
+    public Epic updateEpic(Epic epic) {
+        if (epic == null || epic.getId() == null) {
+            return null;
+        }
+        Lock lock = writeLock(epic.getId());
+        lock.lock();
+        try {
+            Epic stored = epics.get(epic.getId());
+            if (stored == null) {
+                return null;
+            }
+            mergeEpic(stored, epic);
+            return stored;
+        } finally {
+            version.incrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    //обновляем тип "Подзадача"
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        if (subtask == null || subtask.getId() == null) {
+            return null;
+        }
+        // Блокируется страйп эпика, которому подзадача принадлежит сейчас, а не указанного в запросе
+        while (true) {
+            Subtask current = subtasks.get(subtask.getId());
+            if (current == null) {
+                return null;
+            }
+            Lock lock = writeLock(current.getEpicId());
+            lock.lock();
+            try {
+                Subtask old = subtasks.get(subtask.getId());
+                if (old == null) {
+                    return null;
+                }
+                if (old.getEpicId() != current.getEpicId()) {
+                    // Пока бралась блокировка, подзадачу пересоздали в другом эпике - повторяем под его страйпом
+                    continue;
+                }
+                InMemoryTaskManager.checkSameEpic(subtask, old);
+                schedule(old, subtask);
+                replaceSubtask(old, subtask);
+                return subtask;
+            } finally {
+                version.incrementAndGet();
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public Task getTaskByID(int id) {
+        return recordView(tasks.get(id));
+    }
+
+    @Override
+    public Epic getEpicByID(int id) {
+        return recordView(epics.get(id));
+    }
+
+    @Override
+    public Subtask getSubtaskByID(int id) {
+        return recordView(subtasks.get(id));
+    }
+
+    @Override
+    public Task getTaskByID(int id, String userId) {
+        return recordView(tasks.get(id), userId);
+    }
+
+    @Override
+    public Epic getEpicByID(int id, String userId) {
+        return recordView(epics.get(id), userId);
+    }
+
+    @Override
+    public Subtask getSubtaskByID(int id, String userId) {
+        return recordView(subtasks.get(id), userId);
+    }
+
+    @Override
+    public List<Task> getHistory(String userId) {
+        return userHistories.getHistory(userId);
+    }
+
+    @Override
+    public void removeUserHistory(String userId) {
+        userHistories.removeUser(userId);
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        return tasksSnapshot.get();
+    }
+
+    @Override
+    public List<Epic> getEpics() {
+        return epicsSnapshot.get();
+    }
+
+    @Override
+    public List<Subtask> getSubtasks() {
+        return subtasksSnapshot.get();
+    }
+
+    @Override
+    public List<Subtask> getEpicSubtasks(int id) {
+        Lock lock = stripe(id).readLock();
+        lock.lock();
+        try {
+            ArrayList<Subtask> result = new ArrayList<>();
+            for (Integer subtaskId : epics.get(id).getSubtaskId()) {
+                result.add(subtasks.get(subtaskId));
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Stream<Task> streamTasks() {
+        return tasksSnapshot.stream();
+    }
+
+    @Override
+    public Stream<Epic> streamEpics() {
+        return epicsSnapshot.stream();
+    }
+
+    @Override
+    public Stream<Subtask> streamSubtasks() {
+        return subtasksSnapshot.stream();
+    }
+
+    // ID копируются под блокировкой чтения эпика, подзадачи, удалённые позже, пропускаются
+    @Override
+    public Stream<Subtask> streamEpicSubtasks(int id) {
+        int[] ids;
+        Lock lock = stripe(id).readLock();
+        lock.lock();
+        try {
+            ids = epics.get(id).getSubtaskId().toIntArray();
+        } finally {
+            lock.unlock();
+        }
+        return StreamSupport.stream(new IdSpliterator<>(ids, subtasks::get), false);
+    }
+
+    @Override
+    public Stream<Task> streamPrioritizedTasks() {
+        return prioritizedSnapshot.stream();
+    }
+
+    // История ограничена по размеру, поэтому поток строится по её копии
+    @Override
+    public Stream<Task> streamHistory() {
+        return historyManager.getHistory().stream();
+    }
+
+    @Override
+    public void deleteTasks() {
+        lockAll();
+        try {
+            for (Task task : tasks.values()) {
+                unschedule(task);
+            }
+            tasks.clear();
+            tasksSnapshot.invalidate();
+            statusIndex.clear(TaskType.TASK);
+        } finally {
+            version.incrementAndGet();
+            unlockAll();
+        }
+    }
+
+    @Override
+    public void deleteEpics() {
+        lockAll();
+        try {
+            for (Subtask subtask : subtasks.values()) {
+                unschedule(subtask);
+            }
+            subtasks.clear();
+            subtasksSnapshot.invalidate();
+            epics.keySet().forEach(this::unindexText);
+            epics.clear();
+            epicsSnapshot.invalidate();
+            epicStatuses.clear();
+            epicTimes.clear();
+            statusIndex.clear(TaskType.EPIC);
+            statusIndex.clear(TaskType.SUBTASK);
+        } finally {
+            version.incrementAndGet();
+            unlockAll();
+        }
+    }
+
+    @Override
+    public void deleteSubtasks() {
+        lockAll();
+        try {
+            for (Subtask subtask : subtasks.values()) {
+                unschedule(subtask);
+            }
+            subtasks.clear();
+            subtasksSnapshot.invalidate();
+            statusIndex.clear(TaskType.SUBTASK);
+            epicStatuses.clear();
+            epicTimes.clear();
+            epics.values().forEach(epic -> {
+                epic.clearSubtasks();
+                epic.setStatus(Status.NEW);
+                epic.setStartTime(null);
+                epic.setEndTime(null);
+                epic.setDuration(null);
+                statusIndex.put(epic);
+            });
+        } finally {
+            version.incrementAndGet();
+            unlockAll();
+        }
+    }
+
+    @Override
+    public Object deleteTaskByID(int id) {
+        Lock lock = writeLock(id);
+        lock.lock();
+        try {
+            unschedule(tasks.remove(id));
+            tasksSnapshot.invalidate();
+            statusIndex.remove(TaskType.TASK, id);
+        } finally {
+            version.incrementAndGet();
+            lock.unlock();
+        }
+        return null;
+    }
+
+    @Override
+    public void deleteEpicByID(int id) {
+        Lock lock = writeLock(id);
+        lock.lock();
+        try {
+            Epic epic = epics.remove(id);
+            epicsSnapshot.invalidate();
+            if (epic == null) {
+                return;
+            }
+            historyManager.remove(id);
+            statusIndex.remove(TaskType.EPIC, id);
+            unindexText(id);
+            for (Integer subtaskId : epic.getSubtaskId()) {
+                unschedule(subtasks.remove(subtaskId));
+                subtasksSnapshot.invalidate();
+                epicStatuses.removed(null, subtaskId);
+                epicTimes.removed(null, subtaskId);
+                statusIndex.remove(TaskType.SUBTASK, subtaskId);
+            }
+        } finally {
+            version.incrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Object deleteSubtaskByID(int id) {
+        Subtask subtask = subtasks.get(id);
+        if (subtask == null) {
+            return null;
+        }
+        Lock lock = writeLock(subtask.getEpicId());
+        lock.lock();
+        try {
+            Subtask removed = subtasks.remove(id);
+            subtasksSnapshot.invalidate();
+            if (removed == null) {
+                return null;
+            }
+            unschedule(removed);
+            statusIndex.remove(TaskType.SUBTASK, id);
+            Epic epic = epics.get(removed.getEpicId());
+            if (epic != null) {
+                epic.removeEpicSubtask(id);
+            }
+            epicStatuses.removed(epic, id);
+            epicTimes.removed(epic, id);
+            if (epic != null) {
+                statusIndex.put(epic);
+            }
+        } finally {
+            version.incrementAndGet();
+            lock.unlock();
+        }
+        return null;
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return prioritizedSnapshot.get();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to) {
+        List<Task> result = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return result;
+        }
+        // Задача, начавшаяся раньше from, но ещё не закончившаяся
+        Integer running;
+        scheduleLock.lock();
+        try {
+            running = timeIntervals.runningAt(from);
+        } finally {
+            scheduleLock.unlock();
+        }
+        Task runningTask = running == null ? null : findTask(running);
+        if (runningTask != null) {
+            result.add(runningTask);
+        }
+        result.addAll(prioritized.subSet(TaskCursor.probe(from, Integer.MIN_VALUE), true,
+                TaskCursor.probe(to, Integer.MIN_VALUE), false));
+        return result;
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksPage(TaskCursor after, int limit) {
+        NavigableSet<Task> tail = after == null ? prioritized : prioritized.tailSet(after.probe(), false);
+        return InMemoryTaskManager.page(tail, limit);
+    }
+
+    @Override
+    public LocalDateTime findFreeSlot(LocalDateTime after, Duration duration) {
+        InMemoryTaskManager.requirePositive(duration);
+        scheduleLock.lock();
+        try {
+            return timeIntervals.findFreeSlot(after, duration);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> autoSchedule(Collection<? extends Task> unscheduled, LocalDateTime after) {
+        for (Task task : unscheduled) {
+            InMemoryTaskManager.checkUnscheduled(task, epics::containsKey);
+        }
+        List<Task> scheduled = new ArrayList<>(unscheduled.size());
+        LocalDateTime cursor = after;
+        for (Task task : unscheduled) {
+            while (true) {
+                task.setStartTime(findFreeSlot(cursor, task.getDuration()));
+                try {
+                    if (task instanceof Subtask subtask) {
+                        addSubtask(subtask);
+                    } else {
+                        addTask(task);
+                    }
+                    break;
+                } catch (TimeIntervalConflictException e) {
+                    // Промежуток успел занять другой поток - ищем следующий
+                    cursor = task.getStartTime();
+                }
+            }
+            scheduled.add(task);
+            cursor = task.getEndTime();
+        }
+        return scheduled;
+    }
+
+    @Override
+    public int countByStatus(TaskType type, Status status) {
+        return statusIndex.count(type, status);
+    }
+
+    @Override
+    public int countByType(TaskType type) {
+        return switch (type) {
+            case EPIC -> epics.size();
+            case SUBTASK -> subtasks.size();
+            default -> tasks.size();
+        };
+    }
+
+    @Override
+    public List<Task> getByStatus(TaskType type, Status status) {
+        List<Task> result = new ArrayList<>();
+        for (int taskId : statusIndex.ids(type, status)) {
+            // Задача могла быть удалена после обхода индекса
+            Task task = find(type, taskId);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        List<Integer> ids;
+        textLock.readLock().lock();
+        try {
+            ids = textIndex.search(query, limit);
+        } finally {
+            textLock.readLock().unlock();
+        }
+        return findAll(ids);
+    }
+
+    @Override
+    public List<Task> searchPrefix(String prefix, int limit) {
+        List<Integer> ids;
+        textLock.readLock().lock();
+        try {
+            ids = textIndex.searchPrefix(prefix, limit);
+        } finally {
+            textLock.readLock().unlock();
+        }
+        return findAll(ids);
+    }
+
+    private List<Task> findAll(List<Integer> ids) {
+        List<Task> result = new ArrayList<>(ids.size());
+        for (int taskId : ids) {
+            // Задача могла быть удалена после поиска
+            Task task = findTask(taskId);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    private void indexText(Task task) {
+        textLock.writeLock().lock();
+        try {
+            textIndex.put(task);
+        } finally {
+            textLock.writeLock().unlock();
+        }
+    }
+
+    private void unindexText(int id) {
+        textLock.writeLock().lock();
+        try {
+            textIndex.remove(id);
+        } finally {
+            textLock.writeLock().unlock();
+        }
+    }
+
+    // Пакет выполняется под всеми страйпами: проверка и применение атомарны относительно других записей
+    @Override
+    public List<Task> addAll(Collection<? extends Task> items) {
+        lockAll();
+        try {
+            IntLinkedSet ids = InMemoryTaskManager.batchIds(items);
+            InMemoryTaskManager.checkBatchEpics(items, epics::containsKey);
+            checkBatchConflicts(items, ids);
+
+            // Пакет уже проверен целиком - интервалы занимаются без повторной проверки пересечений.
+            // Эпики первыми, чтобы подзадачи пакета могли ссылаться на эпики из него же
+            for (Task item : items) {
+                if (item instanceof Epic epic) {
+                    assignId(epic);
+                    insertEpic(epic);
+                }
+            }
+            for (Task item : items) {
+                if (item instanceof Subtask subtask) {
+                    assignId(subtask);
+                    reschedule(null, subtask);
+                    insertSubtask(subtask, epics.get(subtask.getEpicId()));
+                } else if (item.getType() == TaskType.TASK) {
+                    assignId(item);
+                    reschedule(null, item);
+                    insertTask(item);
+                }
+            }
+            return new ArrayList<>(items);
+        } finally {
+            version.incrementAndGet();
+            unlockAll();
+        }
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<? extends Task> items) {
+        lockAll();
+        try {
+            IntLinkedSet ids = InMemoryTaskManager.batchIds(items);
+            for (Task item : items) {
+                InMemoryTaskManager.checkExists(item, stored(item));
+                InMemoryTaskManager.checkSameEpic(item, stored(item));
+            }
+            checkBatchConflicts(items, ids);
+
+            // Старые интервалы освобождаются заранее, чтобы задачи пакета могли поменяться местами
+            scheduleLock.lock();
+            try {
+                for (Task item : items) {
+                    Task old = stored(item);
+                    if (isTimed(old)) {
+                        timeIntervals.remove(old.getId(), old.getStartTime());
+                    }
+                }
+            } finally {
+                scheduleLock.unlock();
+            }
+            // Пакет уже проверен целиком - элементы заменяются без повторной проверки пересечений
+            for (Task item : items) {
+                Task old = stored(item);
+                switch (item.getType()) {
+                    case EPIC -> mergeEpic((Epic) old, (Epic) item);
+                    case SUBTASK -> {
+                        reschedule(old, item);
+                        replaceSubtask((Subtask) old, (Subtask) item);
+                    }
+                    default -> {
+                        reschedule(old, item);
+                        replaceTask(old, item);
+                    }
+                }
+            }
+            return new ArrayList<>(items);
+        } finally {
+            version.incrementAndGet();
+            unlockAll();
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<Integer> ids) {
+        lockAll();
+        try {
+            for (int id : ids) {
+                if (tasks.containsKey(id)) {
+                    deleteTaskByID(id);
+                } else if (epics.containsKey(id)) {
+                    deleteEpicByID(id);
+                } else if (subtasks.containsKey(id)) {
+                    deleteSubtaskByID(id);
+                }
+            }
+        } finally {
+            unlockAll();
+        }
+    }
+
+    private void checkBatchConflicts(Collection<? extends Task> items, IntLinkedSet ids) {
+        scheduleLock.lock();
+        try {
+            InMemoryTaskManager.checkBatchConflicts(items, timeIntervals, ids::contains);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    private Task stored(Task item) {
+        return item.getId() == null ? null : find(item.getType(), item.getId());
+    }
+
+    private Task find(TaskType type, int id) {
+        return switch (type) {
+            case EPIC -> epics.get(id);
+            case SUBTASK -> subtasks.get(id);
+            default -> tasks.get(id);
+        };
+    }
+
+    // Сколько чтений списков обслужено готовым снимком и сколько потребовало копирования
+    public long getSnapshotHits() {
+        return tasksSnapshot.getHits() + epicsSnapshot.getHits() + subtasksSnapshot.getHits()
+                + prioritizedSnapshot.getHits();
+    }
+
+    public long getSnapshotMisses() {
+        return tasksSnapshot.getMisses() + epicsSnapshot.getMisses() + subtasksSnapshot.getMisses()
+                + prioritizedSnapshot.getMisses();
+    }
+
+    // Режим проверки: инкрементальный статус эпика сверяется с полным пересчётом после каждого изменения
+    public void setEpicStatusVerification(boolean enabled) {
+        epicStatuses.setVerification(enabled);
+    }
+
+    private <T extends Task> T recordView(T task) {
+        if (task == null) {
+            return null;
+        }
+        historyManager.add(task);
+        return task;
+    }
+
+    // История пользователя создаётся только при просмотре существующей задачи
+    private <T extends Task> T recordView(T task, String userId) {
+        if (task == null) {
+            return null;
+        }
+        userHistories.forUser(userId).add(task);
+        return task;
+    }
+
+    private Task findTask(int id) {
+        Task task = tasks.get(id);
+        if (task == null) {
+            task = epics.get(id);
+        }
+        if (task == null) {
+            task = subtasks.get(id);
+        }
+        return task;
+    }
+
+    private void assignId(Task task) {
+        if (task.getId() == null) {
+            task.setId(getNextId());
+        } else {
+            updateIdCounter(task.getId());
+        }
+    }
+
+    // Атомарно проверяет новый интервал задачи и заменяет им старый
+    private void schedule(Task old, Task task) {
+        if (!isTimed(old) && !isTimed(task)) {
+            return;
+        }
+        scheduleLock.lock();
+        try {
+            if (isTimed(task) && hasConflict(task)) {
+                throw new TimeIntervalConflictException("Задача пересекается по времени с существующими задачами");
+            }
+            moveInterval(old, task);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    // Заменяет интервал без проверки - для пакета, уже проверенного checkBatchConflicts
+    private void reschedule(Task old, Task task) {
+        if (!isTimed(old) && !isTimed(task)) {
+            return;
+        }
+        scheduleLock.lock();
+        try {
+            moveInterval(old, task);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    // Вызывается под блокировкой расписания
+    private void moveInterval(Task old, Task task) {
+        if (isTimed(old)) {
+            timeIntervals.remove(old.getId(), old.getStartTime());
+        }
+        if (isTimed(task)) {
+            timeIntervals.add(task.getId(), task.getStartTime(), task.getEndTime());
+        }
+    }
+
+    // Запись в хранилища и индексы; вызывается под блокировкой страйпа после schedule или reschedule
+    private void insertTask(Task task) {
+        tasks.put(task.getId(), task);
+        tasksSnapshot.invalidate();
+        prioritized.add(task);
+        prioritizedSnapshot.invalidate();
+        statusIndex.put(task);
+        indexText(task);
+    }
+
+    private void replaceTask(Task old, Task task) {
+        prioritized.remove(old);
+        insertTask(task);
+    }
+
+    private void insertEpic(Epic epic) {
+        epics.put(epic.getId(), epic);
+        epicsSnapshot.invalidate();
+        statusIndex.put(epic);
+        indexText(epic);
+    }
+
+    // Эпик обновляется на месте: статус и время вычисляются по подзадачам
+    private void mergeEpic(Epic stored, Epic epic) {
+        stored.setName(epic.getName());
+        stored.setDescription(epic.getDescription());
+        indexText(stored);
+    }
+
+    private void insertSubtask(Subtask subtask, Epic epic) {
+        subtasks.put(subtask.getId(), subtask);
+        subtasksSnapshot.invalidate();
+        prioritized.add(subtask);
+        prioritizedSnapshot.invalidate();
+        epic.addSubtask(subtask.getId());
+        epicStatuses.added(epic, subtask);
+        epicTimes.added(epic, subtask);
+        statusIndex.put(subtask);
+        indexText(subtask);
+        statusIndex.put(epic);
+    }
+
+    private void replaceSubtask(Subtask old, Subtask subtask) {
+        prioritized.remove(old);
+        subtasks.put(subtask.getId(), subtask);
+        subtasksSnapshot.invalidate();
+        prioritized.add(subtask);
+        prioritizedSnapshot.invalidate();
+        statusIndex.put(subtask);
+        indexText(subtask);
+        Epic epic = epics.get(subtask.getEpicId());
+        if (epic != null) {
+            epicStatuses.updated(epic, subtask);
+            epicTimes.updated(epic, subtask);
+            statusIndex.put(epic);
+        }
+    }
+
+    // Вызывается под блокировкой расписания
+    private boolean hasConflict(Task task) {
+        ConflictCheckEvent event = new ConflictCheckEvent();
+        event.begin();
+        boolean conflict = timeIntervals.hasConflict(task.getId(), task.getStartTime(), task.getEndTime());
+        if (event.shouldCommit()) {
+            event.taskId = task.getId();
+            event.intervalsProbed = timeIntervals.getLastProbes();
+            event.conflict = conflict;
+            event.commit();
+        }
+        return conflict;
+    }
+
+    private void unschedule(Task task) {
+        if (task == null) {
+            return;
+        }
+        historyManager.remove(task.getId());
+        unindexText(task.getId());
+        prioritized.remove(task);
+        prioritizedSnapshot.invalidate();
+        if (isTimed(task)) {
+            scheduleLock.lock();
+            try {
+                timeIntervals.remove(task.getId(), task.getStartTime());
+            } finally {
+                scheduleLock.unlock();
+            }
+        }
+    }
+
+    private static boolean isTimed(Task task) {
+        return task != null && task.getType() != TaskType.EPIC
+                && task.getStartTime() != null && task.getEndTime() != null;
+    }
+
+    private ReentrantReadWriteLock stripe(int id) {
+        return stripes[Math.floorMod(id, STRIPES)];
+    }
+
+    private Lock writeLock(int id) {
+        return stripe(id).writeLock();
+    }
+
+    private void lockAll() {
+        for (ReentrantReadWriteLock stripe : stripes) {
+            stripe.writeLock().lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            stripes[i].writeLock().unlock();
+        }
+    }
+}
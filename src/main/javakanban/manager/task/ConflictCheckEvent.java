@@ -0,0 +1,29 @@
+package main.javakanban.manager.task;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Событие JFR: проверка пересечения интервала задачи с расписанием. По умолчанию выключено:
+// проверка выполняется на каждое добавление и обновление задачи со временем.
+@Name("main.javakanban.ConflictCheck")
+@Label("Conflict Check")
+@Category({"Java Kanban", "Scheduling"})
+@Description("Проверка пересечения интервала задачи с занятыми интервалами")
+@Enabled(false)
+@StackTrace(false)
+class ConflictCheckEvent extends Event {
+
+    @Label("Task Id")
+    int taskId;
+
+    @Label("Intervals Probed")
+    int intervalsProbed;
+
+    @Label("Conflict")
+    boolean conflict;
+}
@@ -0,0 +1,122 @@
+package main.javakanban.manager.task;
+
+import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
+import main.javakanban.model.Subtask;
+
+import java.util.Map;
+import java.util.function.IntFunction;
+
+// Статус эпика по счётчикам статусов его подзадач: каждое изменение подзадачи сдвигает счётчики,
+// поэтому статус пересчитывается за O(1), а не обходом всех подзадач.
+// counted помнит, с каким статусом подзадача учтена, - это нужно, когда подзадачу изменили
+// на месте и передали в update тот же объект.
+// Вызовы для одного эпика должны быть последовательными (в ConcurrentTaskManager - под его блокировкой).
+class EpicStatusTracker {
+
+    private final Map<Integer, Status> counted;
+    private final IntFunction<Subtask> subtasks;
+    private volatile boolean verification;
+
+    EpicStatusTracker(Map<Integer, Status> counted, IntFunction<Subtask> subtasks) {
+        this.counted = counted;
+        this.subtasks = subtasks;
+    }
+
+    // В режиме проверки каждый статус сверяется с полным пересчётом
+    void setVerification(boolean verification) {
+        this.verification = verification;
+    }
+
+    void added(Epic epic, Subtask subtask) {
+        Status status = statusOf(subtask);
+        Status previous = counted.put(subtask.getId(), status);
+        if (previous != null) {
+            epic.countSubtaskStatus(previous, -1);
+        }
+        epic.countSubtaskStatus(status, 1);
+        refresh(epic);
+    }
+
+    void updated(Epic epic, Subtask subtask) {
+        Status status = statusOf(subtask);
+        Status previous = counted.put(subtask.getId(), status);
+        if (previous != status) {
+            if (previous != null) {
+                epic.countSubtaskStatus(previous, -1);
+            }
+            epic.countSubtaskStatus(status, 1);
+        }
+        refresh(epic);
+    }
+
+    void removed(Epic epic, int subtaskId) {
+        Status previous = counted.remove(subtaskId);
+        if (epic == null) {
+            return;
+        }
+        if (previous != null) {
+            epic.countSubtaskStatus(previous, -1);
+        }
+        refresh(epic);
+    }
+
+    void clear() {
+        counted.clear();
+    }
+
+    // Полный пересчёт счётчиков эпика, например после загрузки из файла
+    void rebuild(Epic epic) {
+        epic.resetSubtaskStatusCounts();
+        for (Integer subtaskId : epic.getSubtaskId()) {
+            Subtask subtask = subtasks.apply(subtaskId);
+            if (subtask != null) {
+                Status status = statusOf(subtask);
+                counted.put(subtaskId, status);
+                epic.countSubtaskStatus(status, 1);
+            }
+        }
+        refresh(epic);
+    }
+
+    private void refresh(Epic epic) {
+        Status status = aggregate(epic);
+        if (verification) {
+            Status expected = recompute(epic);
+            if (status != expected) {
+                throw new IllegalStateException("Статус эпика id=" + epic.getId() + " по счётчикам " + status
+                        + " не совпадает с пересчётом " + expected);
+            }
+        }
+        epic.setStatus(status);
+    }
+
+    private static Status aggregate(Epic epic) {
+        int newCount = epic.getSubtaskStatusCount(Status.NEW);
+        int doneCount = epic.getSubtaskStatusCount(Status.DONE);
+        int total = newCount + doneCount + epic.getSubtaskStatusCount(Status.IN_PROGRESS);
+        if (total == newCount) {
+            return Status.NEW;
+        }
+        return total == doneCount ? Status.DONE : Status.IN_PROGRESS;
+    }
+
+    private Status recompute(Epic epic) {
+        boolean allDone = true;
+        boolean allNew = true;
+        for (Integer subtaskId : epic.getSubtaskId()) {
+            Status status = statusOf(subtasks.apply(subtaskId));
+            allDone &= status == Status.DONE;
+            allNew &= status == Status.NEW;
+        }
+        if (allNew) {
+            return Status.NEW;
+        }
+        return allDone ? Status.DONE : Status.IN_PROGRESS;
+    }
+
+    // Подзадача без статуса не считается ни новой, ни завершённой - как и при прежнем пересчёте
+    private static Status statusOf(Subtask subtask) {
+        return subtask.getStatus() == null ? Status.IN_PROGRESS : subtask.getStatus();
+    }
+}
@@ -0,0 +1,149 @@
+package main.javakanban.manager.task;
+
+import main.javakanban.model.Epic;
+import main.javakanban.model.Subtask;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+// Время эпика по его подзадачам: самый ранний старт, самое позднее окончание и суммарная длительность.
+// Для каждого эпика старты и окончания хранятся упорядоченными мультимножествами (значение -> количество),
+// поэтому удаление подзадачи стоит O(log k), а чтение времени эпика - O(1) через его поля.
+// counted помнит, с каким временем подзадача учтена, - как и в EpicStatusTracker.
+// Вызовы для одного эпика должны быть последовательными (в ConcurrentTaskManager - под его блокировкой).
+class EpicTimeTracker {
+
+    private final Map<Integer, Bounds> bounds;
+    private final Map<Integer, Timing> counted;
+    private final IntFunction<Subtask> subtasks;
+
+    EpicTimeTracker(Map<Integer, Bounds> bounds, Map<Integer, Timing> counted, IntFunction<Subtask> subtasks) {
+        this.bounds = bounds;
+        this.counted = counted;
+        this.subtasks = subtasks;
+    }
+
+    void added(Epic epic, Subtask subtask) {
+        updated(epic, subtask);
+    }
+
+    void updated(Epic epic, Subtask subtask) {
+        Timing timing = new Timing(epic.getId(), subtask);
+        Timing previous = counted.put(subtask.getId(), timing);
+        if (previous != null) {
+            subtract(previous);
+        }
+        bounds.computeIfAbsent(epic.getId(), key -> new Bounds()).add(timing);
+        apply(epic);
+    }
+
+    void removed(Epic epic, int subtaskId) {
+        Timing previous = counted.remove(subtaskId);
+        if (previous != null) {
+            subtract(previous);
+        }
+        if (epic != null) {
+            apply(epic);
+        }
+    }
+
+    void clear() {
+        bounds.clear();
+        counted.clear();
+    }
+
+    // Полный пересчёт времени эпика, например после загрузки из файла
+    void rebuild(Epic epic) {
+        Bounds rebuilt = new Bounds();
+        for (Integer subtaskId : epic.getSubtaskId()) {
+            Subtask subtask = subtasks.apply(subtaskId);
+            if (subtask != null) {
+                Timing timing = new Timing(epic.getId(), subtask);
+                counted.put(subtaskId, timing);
+                rebuilt.add(timing);
+            }
+        }
+        bounds.put(epic.getId(), rebuilt);
+        apply(epic);
+    }
+
+    private void subtract(Timing timing) {
+        Bounds epicBounds = bounds.get(timing.epicId);
+        if (epicBounds != null) {
+            epicBounds.remove(timing);
+            if (epicBounds.isEmpty()) {
+                bounds.remove(timing.epicId);
+            }
+        }
+    }
+
+    private void apply(Epic epic) {
+        Bounds epicBounds = bounds.get(epic.getId());
+        if (epicBounds == null) {
+            epic.setStartTime(null);
+            epic.setEndTime(null);
+            epic.setDuration(null);
+            return;
+        }
+        epic.setStartTime(epicBounds.starts.isEmpty() ? null : epicBounds.starts.firstKey());
+        epic.setEndTime(epicBounds.ends.isEmpty() ? null : epicBounds.ends.lastKey());
+        epic.setDuration(epicBounds.durations == 0 ? null : epicBounds.duration);
+    }
+
+    static class Bounds {
+        private final TreeMap<LocalDateTime, Integer> starts = new TreeMap<>();
+        private final TreeMap<LocalDateTime, Integer> ends = new TreeMap<>();
+        private Duration duration = Duration.ZERO;
+        private int durations;
+        private int size;
+
+        private void add(Timing timing) {
+            if (timing.start != null) {
+                starts.merge(timing.start, 1, Integer::sum);
+            }
+            if (timing.end != null) {
+                ends.merge(timing.end, 1, Integer::sum);
+            }
+            if (timing.duration != null) {
+                duration = duration.plus(timing.duration);
+                durations++;
+            }
+            size++;
+        }
+
+        private void remove(Timing timing) {
+            if (timing.start != null) {
+                starts.computeIfPresent(timing.start, (key, count) -> count == 1 ? null : count - 1);
+            }
+            if (timing.end != null) {
+                ends.computeIfPresent(timing.end, (key, count) -> count == 1 ? null : count - 1);
+            }
+            if (timing.duration != null) {
+                duration = duration.minus(timing.duration);
+                durations--;
+            }
+            size--;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    static class Timing {
+        private final int epicId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final Duration duration;
+
+        private Timing(int epicId, Subtask subtask) {
+            this.epicId = epicId;
+            this.start = subtask.getStartTime();
+            this.end = subtask.getEndTime();
+            this.duration = subtask.getDuration();
+        }
+    }
+}
@@ -1,187 +1,697 @@
 package main.javakanban.manager.task;
 
 import main.javakanban.exception.ManagerSaveException;
+import main.javakanban.manager.metrics.OperationStats;
 import main.javakanban.model.*;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import main.javakanban.converter.BinarySnapshotReader;
+import main.javakanban.converter.BinarySnapshotWriter;
 import main.javakanban.converter.CsvConverter;
+import main.javakanban.converter.CsvFormat;
+import main.javakanban.converter.CsvParseError;
+import main.javakanban.converter.CsvWriter;
+import main.javakanban.converter.MappedCsvReader;
+import main.javakanban.converter.SnapshotFormat;
 
 import static main.javakanban.model.TaskType.*;
 
-public class FileBackedTaskManager extends InMemoryTaskManager {
+public class FileBackedTaskManager extends InMemoryTaskManager implements AutoCloseable {
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
     private final File file;
+    private final File journal;
+    private final SnapshotFormat format;
+    private final int compactionThreshold;
+    private final FlushPolicy flushPolicy;
+    private final Object journalLock = new Object();
+    private final List<String> pendingRecords = new ArrayList<>();
+    private final ScheduledExecutorService flusher;
+    private final List<CsvParseError> loadErrors = new ArrayList<>();
+    private final OperationStats saveStats = new OperationStats("save");
+    private int journalRecords;
+    // Снапшот прочитан не полностью: перед первой свёрткой он сохраняется в копию (см. backupDamagedSnapshot)
+    private boolean snapshotDamaged;
+    // Замер перестроения индексов при загрузке - только когда включено событие JFR
+    private boolean timeIndexRebuild;
+    private long indexRebuildNanos;
+    // Вложенность пакетных операций: внутри пакета записи журнала только копятся
+    private int batchDepth;
+    private volatile long flushCount;
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+    private volatile long totalFlushNanos;
 
     public FileBackedTaskManager(File file) {
+        this(file, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public FileBackedTaskManager(File file, FlushPolicy flushPolicy) {
+        this(file, DEFAULT_COMPACTION_THRESHOLD, flushPolicy);
+    }
+
+    public FileBackedTaskManager(File file, int compactionThreshold) {
+        this(file, compactionThreshold, FlushPolicy.immediate());
+    }
+
+    // compactionThreshold - сколько записей журнала накапливается до свёртки в снапшот
+    public FileBackedTaskManager(File file, int compactionThreshold, FlushPolicy flushPolicy) {
         super();
+        if (compactionThreshold < 1) {
+            throw new IllegalArgumentException("Порог свёртки журнала должен быть положительным: " + compactionThreshold);
+        }
         this.file = file;
+        this.journal = new File(file.getPath() + ".journal");
+        this.format = SnapshotFormat.forFile(file);
+        this.compactionThreshold = compactionThreshold;
+        this.flushPolicy = flushPolicy;
         loadFromFile();
+        this.flusher = flushPolicy.getFlushIntervalMillis() > 0 ? startFlusher(flushPolicy.getFlushIntervalMillis()) : null;
     }
 
     @Override
     public Integer addSubtask(Subtask subtask) {
         Integer newSubtaskId = super.addSubtask(subtask);
-        save();
+        if (newSubtaskId != null) {
+            appendToJournal(JournalOperation.ADD, subtask);
+        }
         return newSubtaskId;
     }
 
     @Override
     public Epic addEpic(Epic epic) {
         super.addEpic(epic);
-        save();
+        appendToJournal(JournalOperation.ADD, epic);
         return epic;
     }
 
     @Override
     public Task addTask(Task task) {
         super.addTask(task);
-        save();
+        appendToJournal(JournalOperation.ADD, task);
         return task;
     }
 
     @Override
     public Task updateTask(Task task) {
-        super.updateTask(task);
-        save();
+        if (super.updateTask(task) != null) {
+            appendToJournal(JournalOperation.UPDATE, task);
+        }
         return task;
     }
 
     @Override
     public Epic updateEpic(Epic epic) {
-        super.updateEpic(epic);
-        save();
+        Epic updated = super.updateEpic(epic);
+        if (updated != null) {
+            appendToJournal(JournalOperation.UPDATE, updated);
+        }
         return epic;
     }
 
     @Override
     public Subtask updateSubtask(Subtask subtask) {
-        super.updateSubtask(subtask);
-        save();
+        if (super.updateSubtask(subtask) != null) {
+            appendToJournal(JournalOperation.UPDATE, subtask);
+        }
         return subtask;
     }
 
     @Override
     public Integer deleteSubtaskByID(int id) {
         super.deleteSubtaskByID(id);
-        save();
+        appendToJournal(JournalOperation.DELETE + "," + SUBTASK + "," + id);
         return null;
     }
 
     @Override
     public Integer deleteTaskByID(int id) {
+        boolean exists = getTasksMap().containsKey(id);
         super.deleteTaskByID(id);
-        save();
+        if (exists) {
+            appendToJournal(JournalOperation.DELETE + "," + TASK + "," + id);
+        }
         return null;
     }
 
     @Override
     public void deleteEpicByID(int id) {
         super.deleteEpicByID(id);
-        save();
+        appendToJournal(JournalOperation.DELETE + "," + EPIC + "," + id);
     }
 
-    private void save() {
-        try (FileWriter writer = new FileWriter(file)) {
-            writer.write("id,type,name,status,description,duration,startTime,epic\n");
-            for (Task task : getTasks()) {
-                writer.write(CsvConverter.toCsv(task) + "\n");
+    @Override
+    public void deleteTasks() {
+        super.deleteTasks();
+        appendToJournal(JournalOperation.CLEAR + "," + TASK);
+    }
+
+    @Override
+    public void deleteEpics() {
+        super.deleteEpics();
+        appendToJournal(JournalOperation.CLEAR + "," + EPIC);
+    }
+
+    @Override
+    public void deleteSubtasks() {
+        super.deleteSubtasks();
+        appendToJournal(JournalOperation.CLEAR + "," + SUBTASK);
+    }
+
+    // Пакет сохраняется одной записью на диск: накопленный журнал сбрасывается один раз,
+    // а большой пакет сразу сворачивается в снапшот.
+    // Пакетные методы базового класса не вызывают одиночные операции, поэтому записи журнала добавляются здесь
+    @Override
+    public List<Task> addAll(Collection<? extends Task> items) {
+        return inBatch(() -> {
+            List<Task> added = super.addAll(items);
+            for (Task item : added) {
+                appendToJournal(JournalOperation.ADD, item);
+            }
+            return added;
+        });
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<? extends Task> items) {
+        return inBatch(() -> {
+            List<Task> updated = super.updateAll(items);
+            for (Task item : updated) {
+                // Эпик обновляется на месте - в журнал идёт сохранённый эпик с его статусом и временем
+                appendToJournal(JournalOperation.UPDATE, item.getType() == EPIC ? getEpicsMap().get(item.getId()) : item);
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public void deleteAll(Collection<Integer> ids) {
+        inBatch(() -> {
+            super.deleteAll(ids);
+            return null;
+        });
+    }
+
+    private <T> T inBatch(Supplier<T> operation) {
+        batchDepth++;
+        try {
+            return operation.get();
+        } finally {
+            if (--batchDepth == 0) {
+                persistPending();
+            }
+        }
+    }
+
+    // Сворачивает журнал в снапшот и очищает журнал. Новый снапшот атомарно подменяет старый (см. writeSnapshot),
+    // а журнал удаляется только после этого: при сбое на диске остаётся либо старый снапшот с журналом,
+    // либо новый снапшот с журналом, который при загрузке повторно применится - его записи идемпотентны.
+    public void compact() {
+        synchronized (journalLock) {
+            save();
+            try {
+                Files.deleteIfExists(journal.toPath());
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка при очистке журнала", e);
+            }
+            // Снапшот уже содержит все накопленные изменения
+            pendingRecords.clear();
+            journalRecords = 0;
+        }
+    }
+
+    // Записывает накопленные в памяти записи журнала на диск
+    public void flush() {
+        flushJournal(false);
+    }
+
+    // Останавливает фоновый сброс и надёжно (с fsync) записывает все накопленные изменения
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushJournal(true);
+    }
+
+    public int getPendingWrites() {
+        synchronized (journalLock) {
+            return pendingRecords.size();
+        }
+    }
+
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    public long getLastFlushNanos() {
+        return lastFlushNanos;
+    }
+
+    public long getMaxFlushNanos() {
+        return maxFlushNanos;
+    }
+
+    public long getTotalFlushNanos() {
+        return totalFlushNanos;
+    }
+
+    // Время записи снапшота (при свёртке журнала и первой записи)
+    public OperationStats getSaveStats() {
+        return saveStats;
+    }
+
+    private void appendToJournal(JournalOperation operation, Task task) {
+        StringBuilder record = new StringBuilder(128).append(operation.name()).append(',');
+        appendToJournal(CsvConverter.appendCsv(task, record).toString());
+    }
+
+    private void appendToJournal(String record) {
+        if (!file.isFile() && batchDepth == 0) {
+            // Снапшота ещё нет - записываем полное состояние сразу в него
+            compact();
+            return;
+        }
+        synchronized (journalLock) {
+            pendingRecords.add(record);
+        }
+        if (batchDepth == 0) {
+            persistPending();
+        }
+    }
+
+    private void persistPending() {
+        int pending;
+        int total;
+        synchronized (journalLock) {
+            pending = pendingRecords.size();
+            total = journalRecords + pending;
+        }
+        if (pending == 0) {
+            return;
+        }
+        if (total >= compactionThreshold || !file.isFile()) {
+            compact();
+        } else if (pending >= flushPolicy.getMaxPendingWrites()) {
+            flush();
+        }
+    }
+
+    private void flushJournal(boolean sync) {
+        synchronized (journalLock) {
+            if (pendingRecords.isEmpty() && (!sync || !journal.isFile())) {
+                return;
+            }
+            JournalFlushEvent event = new JournalFlushEvent();
+            event.begin();
+            long start = System.nanoTime();
+            long bytes = 0;
+            try (FileOutputStream out = new FileOutputStream(journal, true);
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+                // В режиме дозаписи позиция канала - текущий размер журнала
+                long initialSize = event.isEnabled() ? out.getChannel().position() : 0;
+                for (String record : pendingRecords) {
+                    writer.write(record);
+                    writer.write('\n');
+                }
+                writer.flush();
+                if (sync) {
+                    out.getChannel().force(true);
+                }
+                if (event.isEnabled()) {
+                    bytes = out.getChannel().position() - initialSize;
+                }
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка при записи журнала", e);
+            }
+            if (event.shouldCommit()) {
+                event.path = journal.getPath();
+                event.records = pendingRecords.size();
+                event.bytes = bytes;
+                event.sync = sync;
+                event.commit();
+            }
+            journalRecords += pendingRecords.size();
+            pendingRecords.clear();
+
+            long elapsed = System.nanoTime() - start;
+            flushCount++;
+            lastFlushNanos = elapsed;
+            totalFlushNanos += elapsed;
+            if (elapsed > maxFlushNanos) {
+                maxFlushNanos = elapsed;
             }
-            for (Epic epic : getEpics()) {
-                writer.write(CsvConverter.toCsv(epic) + "\n");
+        }
+    }
+
+    private ScheduledExecutorService startFlusher(long intervalMillis) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (ManagerSaveException e) {
+                // Записи остаются в очереди и будут повторены при следующем сбросе
+                System.out.println("Ошибка фонового сброса журнала: " + e.getCause().getMessage());
             }
-            for (Subtask subtask : getSubtasks()) {
-                writer.write(CsvConverter.toCsv(subtask) + "\n");
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    private void save() {
+        long start = saveStats.start();
+        SnapshotSaveEvent event = new SnapshotSaveEvent();
+        event.begin();
+        try {
+            backupDamagedSnapshot();
+            int rows = writeSnapshot(file, format);
+            if (event.shouldCommit()) {
+                event.path = file.getPath();
+                event.format = format.name();
+                event.rows = rows;
+                event.bytes = file.length();
+                event.commit();
+            }
+        } catch (IOException e) {
+            ManagerSaveException error = new ManagerSaveException("Ошибка при сохранении данных", e);
+            saveStats.failed(error);
+            throw error;
+        } finally {
+            saveStats.finished(start);
+        }
+    }
+
+    // В памяти только записи до места повреждения - свёртка затёрла бы остальные.
+    // Поэтому исходный файл сначала копируется рядом, в <файл>.damaged, для ручного восстановления
+    private void backupDamagedSnapshot() throws IOException {
+        if (!snapshotDamaged) {
+            return;
+        }
+        if (file.isFile()) {
+            Files.copy(file.toPath(), getDamagedSnapshotFile().toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        snapshotDamaged = false;
+    }
+
+    // Копия снапшота, который не удалось прочитать полностью
+    public File getDamagedSnapshotFile() {
+        return new File(file.getPath() + ".damaged");
+    }
+
+    // Выгружает текущее состояние в файл; формат выбирается по расширению, поэтому так же
+    // делается импорт/экспорт между CSV и двоичным снапшотом
+    public void exportTo(File target) {
+        try {
+            writeSnapshot(target, SnapshotFormat.forFile(target));
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при экспорте данных", e);
+        }
+    }
+
+    // Снапшот пишется во временный файл рядом с целевым, сбрасывается на диск и только затем
+    // переименовывается поверх старого: оборванная запись не оставляет на месте снапшота обрезанный файл.
+    // Возвращает число записанных строк
+    private int writeSnapshot(File target, SnapshotFormat targetFormat) throws IOException {
+        File temp = new File(target.getPath() + ".tmp");
+        int rows;
+        try {
+            rows = writeRows(temp, targetFormat);
+            try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+                channel.force(true);
             }
         } catch (IOException e) {
-            throw new ManagerSaveException("Ошибка при сохранении данных", e);
+            Files.deleteIfExists(temp.toPath());
+            throw e;
         }
+        try {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return rows;
+    }
+
+    private int writeRows(File target, SnapshotFormat targetFormat) throws IOException {
+        List<Task> tasks = getTasks();
+        List<Epic> epics = getEpics();
+        List<Subtask> subtasks = getSubtasks();
+        if (targetFormat == SnapshotFormat.BINARY) {
+            try (BinarySnapshotWriter writer = new BinarySnapshotWriter(
+                    new BufferedOutputStream(new FileOutputStream(target)))) {
+                for (Task task : tasks) {
+                    writer.write(task);
+                }
+                for (Epic epic : epics) {
+                    writer.write(epic);
+                }
+                for (Subtask subtask : subtasks) {
+                    writer.write(subtask);
+                }
+            }
+            return tasks.size() + epics.size() + subtasks.size();
+        }
+
+        try (CsvWriter writer = new CsvWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(target), StandardCharsets.UTF_8), 1 << 16))) {
+            for (Task task : tasks) {
+                writer.write(task);
+            }
+            for (Epic epic : epics) {
+                writer.write(epic);
+            }
+            for (Subtask subtask : subtasks) {
+                writer.write(subtask);
+            }
+        }
+        return tasks.size() + epics.size() + subtasks.size();
     }
 
     public static FileBackedTaskManager loadFromFile(File file) {
         return new FileBackedTaskManager(file);
     }
 
+    // Строки снапшота и журнала, пропущенные при загрузке
+    public List<CsvParseError> getLoadErrors() {
+        return Collections.unmodifiableList(loadErrors);
+    }
+
     private void loadFromFile() {
+        SnapshotLoadEvent event = new SnapshotLoadEvent();
+        event.begin();
+        timeIndexRebuild = event.isEnabled();
+        List<Subtask> unlinked = new ArrayList<>();
         try {
-            if (!file.exists() || file.length() == 0) {
-                System.out.println("Файл не существует или пуст: " + file.getAbsolutePath());
-                return;
+            if (journal.isFile()) {
+                // Журнал может менять и удалять строки снапшота - сначала собираем итоговое состояние
+                Map<Integer, Task> rows = new LinkedHashMap<>();
+                readSnapshot(parsed -> rows.put(parsed.getId(), parsed));
+                replayJournal(rows);
+                rows.values().forEach(parsed -> loadTask(parsed, unlinked));
+            } else {
+                readSnapshot(parsed -> loadTask(parsed, unlinked));
             }
+        } catch (IOException e) {
+            snapshotDamaged = true;
+            System.out.println("Ошибка при загрузке данных: " + e.getMessage());
+        }
+        for (CsvParseError error : loadErrors) {
+            System.out.println("Пропущена некорректная строка. " + error);
+        }
 
-            List<String> lines = Files.readAllLines(Paths.get(file.getAbsolutePath()));
-            if (lines.size() < 2) {
-                System.out.println("Файл пуст или содержит только заголовок: " + file.getAbsolutePath());
-                return;
+        long linkStart = timeIndexRebuild ? System.nanoTime() : 0;
+        // Подзадачи, встретившиеся раньше своего эпика
+        for (Subtask subtask : unlinked) {
+            Epic epic = getEpicsMap().get(subtask.getEpicId());
+            if (epic != null) {
+                epic.addSubtask(subtask.getId());
+            } else {
+                System.out.println("Эпик с id=" + subtask.getEpicId() + " не найден для подзадачи id=" + subtask.getId());
             }
+        }
 
-            int maxId = 0;
-
-            for (String line : lines.subList(1, lines.size())) {
-                Task parsed = CsvConverter.fromCsv(line);
-                switch (parsed.getType()) {
-                    case TASK: {
-                        Task task = (Task) parsed;
-                        getTasksMap().put(task.getId(), task);
-                        registerTaskFromFile(task);
-                        if (task.getId() != null && task.getId() > maxId) {
-                            maxId = task.getId();
-                        }
-                        break;
-                    }
-                    case EPIC: {
-                        Epic epic = (Epic) parsed;
-                        getEpicsMap().put(epic.getId(), epic);
-                        if (epic.getId() != null && epic.getId() > maxId) {
-                            maxId = epic.getId();
-                        }
-                        break;
-                    }
-                    default:
-                        break;
+        for (Epic epic : getEpics()) {
+            if (epic.getId() != null) {
+                updateEpicStatus(epic.getId());
+            }
+        }
+
+        if (event.shouldCommit()) {
+            event.path = file.getPath();
+            event.rows = getTasksMap().size() + getEpicsMap().size() + getSubtasksMap().size();
+            event.journalRecords = journalRecords;
+            event.parseErrors = loadErrors.size();
+            event.indexRebuildTime = indexRebuildNanos + System.nanoTime() - linkStart;
+            event.commit();
+        }
+        timeIndexRebuild = false;
+    }
+
+    private void loadTask(Task parsed, List<Subtask> unlinked) {
+        switch (parsed.getType()) {
+            case TASK: {
+                getTasksMap().put(parsed.getId(), parsed);
+                registerTaskFromFile(parsed);
+                break;
+            }
+            case EPIC: {
+                Epic epic = (Epic) parsed;
+                getEpicsMap().put(epic.getId(), epic);
+                registerTaskFromFile(epic);
+                break;
+            }
+            case SUBTASK: {
+                Subtask subtask = (Subtask) parsed;
+                getSubtasksMap().put(subtask.getId(), subtask);
+                registerTaskFromFile(subtask);
+                Epic epic = getEpicsMap().get(subtask.getEpicId());
+                if (epic != null) {
+                    epic.addSubtask(subtask.getId());
+                } else {
+                    unlinked.add(subtask);
                 }
+                break;
             }
+            default:
+                break;
+        }
+        updateIdCounter(parsed.getId());
+    }
 
-            for (String line : lines.subList(1, lines.size())) {
-                Task parsed = CsvConverter.fromCsv(line);
-                if (parsed.getType() == SUBTASK) {
-                    Subtask subtask = (Subtask) parsed;
-                    getSubtasksMap().put(subtask.getId(), subtask);
-                    registerTaskFromFile(subtask);
-                    Epic epic = getEpicsMap().get(subtask.getEpicId());
-                    if (epic != null) {
-                        epic.addSubtask(subtask.getId());
-                    } else {
-                        System.out.println("Эпик с id=" + subtask.getEpicId() + " не найден для подзадачи id=" + subtask.getId());
-                    }
-                    if (subtask.getId() != null && subtask.getId() > maxId) {
-                        maxId = subtask.getId();
-                    }
+    private void readSnapshot(Consumer<Task> sink) throws IOException {
+        if (!file.exists() || file.length() == 0) {
+            System.out.println("Файл не существует или пуст: " + file.getAbsolutePath());
+            return;
+        }
+
+        if (format == SnapshotFormat.BINARY) {
+            try (BinarySnapshotReader reader = new BinarySnapshotReader(
+                    new BufferedInputStream(new FileInputStream(file)))) {
+                Task parsed;
+                while ((parsed = reader.read()) != null) {
+                    sink.accept(parsed);
                 }
             }
+            return;
+        }
 
-            updateIdCounter(maxId);
+        try (MappedCsvReader reader = new MappedCsvReader(file.toPath())) {
+            Task parsed = reader.read();
+            if (parsed == null && reader.getErrors().isEmpty()) {
+                System.out.println("Файл пуст или содержит только заголовок: " + file.getAbsolutePath());
+                return;
+            }
+            for (; parsed != null; parsed = reader.read()) {
+                sink.accept(parsed);
+            }
+            loadErrors.addAll(reader.getErrors());
+        }
+    }
+
+    private void replayJournal(Map<Integer, Task> rows) throws IOException {
+        if (!journal.isFile()) {
+            return;
+        }
+
+        List<String> lines = Files.readAllLines(journal.toPath(), StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            int lineNumber = i + 1;
+            String record = lines.get(i);
+            if (record.isEmpty()) {
+                continue;
+            }
+            // Поле в кавычках может содержать перевод строки
+            while (CsvConverter.hasOpenQuote(record) && i + 1 < lines.size()) {
+                record = record + "\n" + lines.get(++i);
+            }
+            try {
+                replayRecord(record, rows);
+            } catch (RuntimeException e) {
+                // Например, запись, оборванная на середине при аварийном завершении
+                loadErrors.add(new CsvParseError(lineNumber, record, String.valueOf(e.getMessage())));
+            }
+            journalRecords++;
+        }
+    }
 
-            for (Epic epic : getEpics()) {
-                if (epic.getId() != null) {
-                    updateEpicStatus(epic.getId());
+    private void replayRecord(String record, Map<Integer, Task> rows) {
+        int separator = record.indexOf(',');
+        JournalOperation operation = JournalOperation.valueOf(record.substring(0, separator));
+        String payload = record.substring(separator + 1);
+        switch (operation) {
+            case ADD:
+            case UPDATE: {
+                Task parsed = CsvFormat.CURRENT.parse(payload);
+                rows.put(parsed.getId(), parsed);
+                break;
+            }
+            case DELETE: {
+                String[] parts = payload.split(",");
+                int id = Integer.parseInt(parts[1]);
+                rows.remove(id);
+                if (TaskType.valueOf(parts[0]) == EPIC) {
+                    rows.values().removeIf(t -> t.getType() == SUBTASK && ((Subtask) t).getEpicId() == id);
                 }
+                break;
             }
-        } catch (IOException e) {
-            System.out.println("Ошибка при загрузке данных: " + e.getMessage());
+            case CLEAR: {
+                TaskType type = TaskType.valueOf(payload);
+                rows.values().removeIf(t -> t.getType() == type || (type == EPIC && t.getType() == SUBTASK));
+                break;
+            }
+            default:
+                break;
         }
     }
 
     private void registerTaskFromFile(Task task) {
         if (task == null) return;
-        if (task.getType() == TaskType.EPIC) return;
-        addPrioritizedTask(task);
+        if (!timeIndexRebuild) {
+            registerLoadedTask(task);
+            return;
+        }
+        long start = System.nanoTime();
+        registerLoadedTask(task);
+        indexRebuildNanos += System.nanoTime() - start;
+    }
+
+    private enum JournalOperation {
+        ADD, UPDATE, DELETE, CLEAR
     }
 
     public static void main(String[] args) {
@@ -190,6 +700,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         if (file.exists()) {
             file.delete();
         }
+        new File(file.getPath() + ".journal").delete();
 
         FileBackedTaskManager manager = new FileBackedTaskManager(file);
 
@@ -210,5 +721,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         System.out.println(manager.getTasks());
         System.out.println(manager.getEpics());
         System.out.println(manager.getSubtasks());
+
+        manager.compact();
     }
 }
@@ -0,0 +1,38 @@
+package main.javakanban.manager.task;
+
+// Политика сброса журнала FileBackedTaskManager на диск.
+// immediate() - каждая мутация записывается сразу (поведение по умолчанию),
+// writeBehind() - мутации копятся в памяти и сбрасываются пачкой раз в N записей или раз в T миллисекунд.
+public class FlushPolicy {
+
+    private final int maxPendingWrites;
+    private final long flushIntervalMillis;
+
+    private FlushPolicy(int maxPendingWrites, long flushIntervalMillis) {
+        this.maxPendingWrites = maxPendingWrites;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public static FlushPolicy immediate() {
+        return new FlushPolicy(1, 0);
+    }
+
+    // flushIntervalMillis = 0 отключает фоновый сброс по таймеру
+    public static FlushPolicy writeBehind(int maxPendingWrites, long flushIntervalMillis) {
+        if (maxPendingWrites < 1) {
+            throw new IllegalArgumentException("Размер пачки должен быть положительным: " + maxPendingWrites);
+        }
+        if (flushIntervalMillis < 0) {
+            throw new IllegalArgumentException("Интервал сброса не может быть отрицательным: " + flushIntervalMillis);
+        }
+        return new FlushPolicy(maxPendingWrites, flushIntervalMillis);
+    }
+
+    public int getMaxPendingWrites() {
+        return maxPendingWrites;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+}
@@ -0,0 +1,59 @@
+package main.javakanban.manager.task;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+// Обход по снимку ID: сами задачи ищутся лениво, а удалённые к моменту обхода пропускаются,
+// поэтому размер - только оценка. Делится пополам для параллельной обработки.
+class IdSpliterator<T> implements Spliterator<T> {
+
+    private final int[] ids;
+    private final IntFunction<? extends T> lookup;
+    private final int end;
+    private int index;
+
+    IdSpliterator(int[] ids, IntFunction<? extends T> lookup) {
+        this(ids, lookup, 0, ids.length);
+    }
+
+    private IdSpliterator(int[] ids, IntFunction<? extends T> lookup, int index, int end) {
+        this.ids = ids;
+        this.lookup = lookup;
+        this.index = index;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (index < end) {
+            T item = lookup.apply(ids[index++]);
+            if (item != null) {
+                action.accept(item);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int middle = (index + end) >>> 1;
+        if (middle <= index) {
+            return null;
+        }
+        Spliterator<T> prefix = new IdSpliterator<>(ids, lookup, index, middle);
+        index = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL;
+    }
+}
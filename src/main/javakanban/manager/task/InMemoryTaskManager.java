@@ -3,32 +3,54 @@ package main.javakanban.manager.task;
 import main.javakanban.exception.TimeIntervalConflictException;
 import main.javakanban.manager.history.HistoryManager;
 import main.javakanban.manager.history.InMemoryHistoryManager;
+import main.javakanban.manager.history.UserHistories;
 import main.javakanban.model.Epic;
 import main.javakanban.model.Status;
 import main.javakanban.model.Subtask;
 import main.javakanban.model.Task;
 import main.javakanban.model.TaskType;
 
+import main.javakanban.util.IntHashMap;
+import main.javakanban.util.IntLinkedSet;
+
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Spliterator;
+import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class InMemoryTaskManager implements TaskManager {
 
-    private final Map<Integer, Task> tasks = new HashMap<>();
-    private final Map<Integer, Epic> epics = new HashMap<>();
-    private final Map<Integer, Subtask> subtasks = new HashMap<>();
-    private final HistoryManager historyManager = new InMemoryHistoryManager();
-    private final Map<LocalDateTime, Integer> slots;
+    private final IntHashMap<Task> tasks = new IntHashMap<>();
+    private final IntHashMap<Epic> epics = new IntHashMap<>();
+    private final IntHashMap<Subtask> subtasks = new IntHashMap<>();
+    private final HistoryManager historyManager = newHistoryManager();
+    private final UserHistories userHistories = new UserHistories(this::newHistoryManager);
+    private final TimeIntervalIndex timeIntervals = new TimeIntervalIndex();
+    private final EpicStatusTracker epicStatuses = new EpicStatusTracker(new IntHashMap<>(), subtasks::get);
+    private final EpicTimeTracker epicTimes = new EpicTimeTracker(new IntHashMap<>(), new IntHashMap<>(), subtasks::get);
+    private final StatusIndex statusIndex = new StatusIndex(IntHashMap::new, IntLinkedSet::new);
+    private final TextIndex textIndex = new TextIndex();
     private final TreeSet<Task> prioritized = new TreeSet<>(
             Comparator
                     .comparing(Task::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()))
                     .thenComparing(Task::getId)
     );
+    // Снимки для частых чтений списков: копия строится заново только после изменения
+    private final SnapshotCache<Task> tasksSnapshot = new SnapshotCache<>(tasks::values);
+    private final SnapshotCache<Epic> epicsSnapshot = new SnapshotCache<>(epics::values);
+    private final SnapshotCache<Subtask> subtasksSnapshot = new SnapshotCache<>(subtasks::values);
+    private final SnapshotCache<Task> prioritizedSnapshot = new SnapshotCache<>(() -> prioritized, Spliterator.ORDERED);
+    // Версия данных: растёт после каждого изменения задач, эпиков и подзадач; просмотры её не меняют
+    private final AtomicLong version = new AtomicLong();
     private int id = 1;
 
     private int getNextId() {
@@ -42,33 +64,22 @@ public class InMemoryTaskManager implements TaskManager {
     }
 
     public InMemoryTaskManager() {
-        slots = new HashMap<>();
     }
 
     //создаем тип "Задача"
     @Override
     public Task addTask(Task task) {
-        if (task.getId() == null) {
-            task.setId(getNextId());
-        } else {
-            updateIdCounter(task.getId());
-        }
-
+        assignId(task);
         validateTask(task);
-        tasks.put(task.getId(), task);
-        registerTask(task);
+        insertTask(task);
         return task;
     }
 
     //создаем тип "Эпик"
     @Override
     public Epic addEpic(Epic epic) {
-        if (epic.getId() == null) {
-            epic.setId(getNextId());
-        } else {
-            updateIdCounter(epic.getId());
-        }
-        epics.put(epic.getId(), epic);
+        assignId(epic);
+        insertEpic(epic);
         return epic;
     }
 
@@ -82,17 +93,9 @@ public class InMemoryTaskManager implements TaskManager {
             return null;
         }
 
-        if (subtask.getId() == null) {
-            subtask.setId(getNextId());
-        } else {
-            updateIdCounter(subtask.getId());
-        }
-
+        assignId(subtask);
         validateTask(subtask);
-        subtasks.put(subtask.getId(), subtask);
-        epic.addSubtask(subtask.getId());
-        updateEpicStatus(epicId);
-        registerTask(subtask);
+        insertSubtask(subtask, epic);
         return subtask.getId();
     }
 
@@ -106,10 +109,7 @@ public class InMemoryTaskManager implements TaskManager {
         Task old = tasks.get(taskId);
 
         validateTask(task);
-        removeTaskFromAllStructures(old);
-        registerTask(task);
-
-        tasks.replace(taskId, task);
+        replaceTask(old, task);
         return task;
     }
 
@@ -123,8 +123,7 @@ public class InMemoryTaskManager implements TaskManager {
         if (epic1 == null) {
             return null;
         }
-        epic1.setName(epic.getName());
-        epic1.setDescription(epic.getDescription());
+        mergeEpic(epic1, epic);
         return epic1;
     }
 
@@ -135,14 +134,87 @@ public class InMemoryTaskManager implements TaskManager {
             return null;
         }
         Subtask old = subtasks.get(subtask.getId());
+        checkSameEpic(subtask, old);
 
         validateTask(subtask);
+        replaceSubtask(old, subtask);
+        return subtask;
+    }
+
+    private void assignId(Task task) {
+        if (task.getId() == null) {
+            task.setId(getNextId());
+        } else {
+            updateIdCounter(task.getId());
+        }
+    }
+
+    // Вставка и замена без проверки пересечений: их выполняет вызывающий - одиночная операция
+    // через validateTask, пакет через checkBatchConflicts
+    private void insertTask(Task task) {
+        tasks.put(task.getId(), task);
+        tasksSnapshot.invalidate();
+        registerTask(task);
+        statusIndex.put(task);
+        textIndex.put(task);
+        version.incrementAndGet();
+    }
+
+    private void insertEpic(Epic epic) {
+        epics.put(epic.getId(), epic);
+        epicsSnapshot.invalidate();
+        statusIndex.put(epic);
+        textIndex.put(epic);
+        version.incrementAndGet();
+    }
+
+    private void insertSubtask(Subtask subtask, Epic epic) {
+        subtasks.put(subtask.getId(), subtask);
+        subtasksSnapshot.invalidate();
+        epic.addSubtask(subtask.getId());
+        epicStatuses.added(epic, subtask);
+        epicTimes.added(epic, subtask);
+        registerTask(subtask);
+        statusIndex.put(subtask);
+        textIndex.put(subtask);
+        statusIndex.put(epic);
+        version.incrementAndGet();
+    }
+
+    private void replaceTask(Task old, Task task) {
+        removeTaskFromAllStructures(old);
+        registerTask(task);
+
+        tasks.replace(task.getId(), task);
+        tasksSnapshot.invalidate();
+        statusIndex.put(task);
+        textIndex.put(task);
+        version.incrementAndGet();
+    }
+
+    // Эпик обновляется на месте: статус и время вычисляются по подзадачам
+    private void mergeEpic(Epic stored, Epic epic) {
+        stored.setName(epic.getName());
+        stored.setDescription(epic.getDescription());
+        textIndex.put(stored);
+        version.incrementAndGet();
+    }
+
+    private void replaceSubtask(Subtask old, Subtask subtask) {
         removeTaskFromAllStructures(old);
         registerTask(subtask);
 
         subtasks.put(subtask.getId(), subtask);
-        updateEpicStatus(subtask.getEpicId());
-        return subtask;
+        subtasksSnapshot.invalidate();
+        statusIndex.put(subtask);
+        textIndex.put(subtask);
+        Epic epic = epics.get(subtask.getEpicId());
+        if (epic != null) {
+            epicStatuses.updated(epic, subtask);
+            epicTimes.updated(epic, subtask);
+            statusIndex.put(epic);
+        }
+        version.incrementAndGet();
     }
 
     @Override
@@ -176,81 +248,192 @@ public class InMemoryTaskManager implements TaskManager {
         return subtask;
     }
 
+    // Просмотр от имени пользователя попадает только в его личную историю
+    @Override
+    public Task getTaskByID(int id, String userId) {
+        return recordView(tasks.get(id), userId);
+    }
+
+    @Override
+    public Epic getEpicByID(int id, String userId) {
+        return recordView(epics.get(id), userId);
+    }
+
+    @Override
+    public Subtask getSubtaskByID(int id, String userId) {
+        return recordView(subtasks.get(id), userId);
+    }
+
+    @Override
+    public List<Task> getHistory(String userId) {
+        return userHistories.getHistory(userId);
+    }
+
+    @Override
+    public void removeUserHistory(String userId) {
+        userHistories.removeUser(userId);
+    }
+
     @Override
     public List<Task> getTasks() {
-        return new ArrayList<>(tasks.values());
+        return tasksSnapshot.get();
     }
 
     @Override
-    public ArrayList<Epic> getEpics() {
-        return new ArrayList<>(epics.values());
+    public List<Epic> getEpics() {
+        return epicsSnapshot.get();
     }
 
     @Override
     public List<Subtask> getSubtasks() {
-        return new ArrayList<>(subtasks.values());
+        return subtasksSnapshot.get();
+    }
+
+    @Override
+    public List<Subtask> getEpicSubtasks(int id) {
+        IntLinkedSet subtaskId = epics.get(id).getSubtaskId();
+        ArrayList<Subtask> result = new ArrayList<>(subtaskId.size());
+        subtaskId.forEachInt(subtask -> result.add(subtasks.get(subtask)));
+        return result;
     }
 
     @Override
-    public ArrayList<Subtask> getEpicSubtasks(int id) {
-        ArrayList<Integer> subtaskId = epics.get(id).getSubtaskId();
-        return subtaskId.stream()
-                .map(subtasks::get)
-                .collect(java.util.stream.Collectors.toCollection(ArrayList::new));
+    public Stream<Task> streamTasks() {
+        return tasksSnapshot.stream();
+    }
+
+    @Override
+    public Stream<Epic> streamEpics() {
+        return epicsSnapshot.stream();
+    }
+
+    @Override
+    public Stream<Subtask> streamSubtasks() {
+        return subtasksSnapshot.stream();
+    }
+
+    @Override
+    public Stream<Subtask> streamEpicSubtasks(int id) {
+        int[] ids = epics.get(id).getSubtaskId().toIntArray();
+        return StreamSupport.stream(new IdSpliterator<>(ids, subtasks::get), false);
+    }
+
+    @Override
+    public Stream<Task> streamPrioritizedTasks() {
+        return prioritizedSnapshot.stream();
+    }
+
+    // История ограничена по размеру, поэтому поток строится по её копии
+    @Override
+    public Stream<Task> streamHistory() {
+        return historyManager.getHistory().stream();
     }
 
     @Override
     public void deleteTasks() {
         for (Task t : tasks.values()) {
             removeTaskFromAllStructures(t);
+            historyManager.remove(t.getId());
+            textIndex.remove(t.getId());
         }
         tasks.clear();
+        tasksSnapshot.invalidate();
+        statusIndex.clear(TaskType.TASK);
+        version.incrementAndGet();
     }
 
     @Override
     public void deleteEpics() {
+        epics.keySet().forEach(historyManager::remove);
+        epics.keySet().forEach(textIndex::remove);
         epics.clear();
+        epicsSnapshot.invalidate();
+        epicStatuses.clear();
+        epicTimes.clear();
         for (Subtask s : subtasks.values()) {
             removePrioritizedTask(s);
+            historyManager.remove(s.getId());
+            textIndex.remove(s.getId());
         }
         subtasks.clear();
+        subtasksSnapshot.invalidate();
+        statusIndex.clear(TaskType.EPIC);
+        statusIndex.clear(TaskType.SUBTASK);
+        version.incrementAndGet();
     }
 
     @Override
     public void deleteSubtasks() {
         for (Subtask s : subtasks.values()) {
             removeTaskFromAllStructures(s);
+            historyManager.remove(s.getId());
+            textIndex.remove(s.getId());
         }
         subtasks.clear();
+        subtasksSnapshot.invalidate();
+        statusIndex.clear(TaskType.SUBTASK);
+        epicStatuses.clear();
+        epicTimes.clear();
         epics.values().forEach(epic -> {
             epic.clearSubtasks();
             epic.setStatus(Status.NEW);
+            epic.setStartTime(null);
+            epic.setEndTime(null);
+            epic.setDuration(null);
+            statusIndex.put(epic);
         });
+        version.incrementAndGet();
     }
 
     @Override
     public Object deleteTaskByID(int id) {
         Task removed = tasks.remove(id);
+        tasksSnapshot.invalidate();
         removeTaskFromAllStructures(removed);
+        if (removed != null) {
+            historyManager.remove(id);
+            statusIndex.remove(TaskType.TASK, id);
+            textIndex.remove(id);
+            version.incrementAndGet();
+        }
         return null;
     }
 
     @Override
     public void deleteEpicByID(int id) {
-        epics.get(id).getSubtaskId().forEach(subtaskId -> {
+        epics.get(id).getSubtaskId().forEachInt(subtaskId -> {
             Subtask removed = subtasks.remove(subtaskId);
+            subtasksSnapshot.invalidate();
             removePrioritizedTask(removed);
+            historyManager.remove(subtaskId);
+            epicStatuses.removed(null, subtaskId);
+            epicTimes.removed(null, subtaskId);
+            statusIndex.remove(TaskType.SUBTASK, subtaskId);
+            textIndex.remove(subtaskId);
         });
         epics.remove(id);
+        epicsSnapshot.invalidate();
+        historyManager.remove(id);
+        statusIndex.remove(TaskType.EPIC, id);
+        textIndex.remove(id);
+        version.incrementAndGet();
     }
 
     @Override
     public Object deleteSubtaskByID(int id) {
         int epicId = subtasks.get(id).getEpicId();
-        epics.get(epicId).removeEpicSubtask(id);
+        Epic epic = epics.get(epicId);
+        epic.removeEpicSubtask(id);
         Subtask removed = subtasks.remove(id);
+        subtasksSnapshot.invalidate();
         removeTaskFromAllStructures(removed);
-        updateEpicStatus(epicId);
+        historyManager.remove(id);
+        epicStatuses.removed(epic, id);
+        epicTimes.removed(epic, id);
+        statusIndex.remove(TaskType.SUBTASK, id);
+        textIndex.remove(id);
+        statusIndex.put(epic);
+        version.incrementAndGet();
         return null;
     }
 
@@ -259,41 +442,350 @@ public class InMemoryTaskManager implements TaskManager {
         return historyManager.getHistory();
     }
 
-    protected void updateEpicStatus(int epicId) {
-        ArrayList<Integer> subtaskIdArray = epics.get(epicId).getSubtaskId();
-        if (subtaskIdArray.isEmpty()) {
-            epics.get(epicId).setStatus(Status.NEW);
-            return;
-        }
-        List<Subtask> subtasksArray = subtaskIdArray.stream().map(subtasks::get).toList();
-        boolean allDone = subtasksArray.stream().allMatch(s -> s.getStatus() == Status.DONE);
-        boolean allNew = subtasksArray.stream().allMatch(s -> s.getStatus() == Status.NEW);
-        if (allDone) {
-            epics.get(epicId).setStatus(Status.DONE);
-        } else if (allNew) {
-            epics.get(epicId).setStatus(Status.NEW);
-        } else {
-            epics.get(epicId).setStatus(Status.IN_PROGRESS);
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    // История хранит только ID, актуальная задача берётся из хранилищ
+    private HistoryManager newHistoryManager() {
+        return new InMemoryHistoryManager(InMemoryHistoryManager.DEFAULT_CAPACITY, this::findTask);
+    }
+
+    private Task findTask(int id) {
+        Task task = tasks.get(id);
+        if (task == null) {
+            task = epics.get(id);
+        }
+        if (task == null) {
+            task = subtasks.get(id);
+        }
+        return task;
+    }
+
+    static void requirePositive(Duration duration) {
+        if (duration == null || duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("Длительность должна быть положительной: " + duration);
+        }
+    }
+
+    static void checkUnscheduled(Task task, IntPredicate epicExists) {
+        if (task.getType() == TaskType.EPIC) {
+            throw new IllegalArgumentException("Время эпика определяется подзадачами: " + task.getName());
+        }
+        if (task.getStartTime() != null) {
+            throw new IllegalArgumentException("У задачи уже есть время начала: " + task.getName());
+        }
+        requirePositive(task.getDuration());
+        if (task instanceof Subtask subtask && !epicExists.test(subtask.getEpicId())) {
+            throw new IllegalArgumentException("Эпик с id=" + subtask.getEpicId() + " не найден для подзадачи "
+                    + subtask.getName());
+        }
+    }
+
+    // Первые limit элементов хвоста упорядоченного множества: O(log n + limit) вместе с поиском хвоста
+    static List<Task> page(Iterable<Task> tail, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным: " + limit);
+        }
+        List<Task> page = new ArrayList<>(Math.min(limit, 256));
+        for (Task task : tail) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(task);
+        }
+        return page;
+    }
+
+    // История пользователя создаётся только при просмотре существующей задачи
+    private <T extends Task> T recordView(T task, String userId) {
+        if (task != null) {
+            userHistories.forUser(userId).add(task);
         }
+        return task;
+    }
+
+    // Полный пересчёт статуса и времени эпика; изменения подзадач обновляют их инкрементально
+    protected void updateEpicStatus(int epicId) {
+        epicStatuses.rebuild(epics.get(epicId));
+        epicTimes.rebuild(epics.get(epicId));
+        statusIndex.put(epics.get(epicId));
+    }
+
+    // Режим проверки: инкрементальный статус эпика сверяется с полным пересчётом после каждого изменения
+    public void setEpicStatusVerification(boolean enabled) {
+        epicStatuses.setVerification(enabled);
     }
 
-    protected Map<Integer, Task> getTasksMap() {
+    // Подклассы меняют хранилища напрямую, поэтому обращение к ним сбрасывает снимок
+    protected IntHashMap<Task> getTasksMap() {
+        tasksSnapshot.invalidate();
         return tasks;
     }
 
-    protected Map<Integer, Epic> getEpicsMap() {
+    protected IntHashMap<Epic> getEpicsMap() {
+        epicsSnapshot.invalidate();
         return epics;
     }
 
-    protected Map<Integer, Subtask> getSubtasksMap() {
+    protected IntHashMap<Subtask> getSubtasksMap() {
+        subtasksSnapshot.invalidate();
         return subtasks;
     }
 
     public List<Task> getPrioritizedTasks() {
-        return new ArrayList<>(prioritized);
+        return prioritizedSnapshot.get();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to) {
+        List<Task> result = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return result;
+        }
+        // Задача, начавшаяся раньше from, но ещё не закончившаяся
+        Integer running = timeIntervals.runningAt(from);
+        if (running != null) {
+            result.add(findTask(running));
+        }
+        result.addAll(prioritized.subSet(TaskCursor.probe(from, Integer.MIN_VALUE), true,
+                TaskCursor.probe(to, Integer.MIN_VALUE), false));
+        return result;
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksPage(TaskCursor after, int limit) {
+        return page(after == null ? prioritized : prioritized.tailSet(after.probe(), false), limit);
+    }
+
+    @Override
+    public LocalDateTime findFreeSlot(LocalDateTime after, Duration duration) {
+        requirePositive(duration);
+        return timeIntervals.findFreeSlot(after, duration);
+    }
+
+    // Курсор только движется вперёд, поэтому все промежутки просматриваются один раз:
+    // O((n + m) log n) для n занятых интервалов и m новых задач
+    @Override
+    public List<Task> autoSchedule(Collection<? extends Task> unscheduled, LocalDateTime after) {
+        for (Task task : unscheduled) {
+            checkUnscheduled(task, epics::containsKey);
+        }
+        List<Task> scheduled = new ArrayList<>(unscheduled.size());
+        LocalDateTime cursor = after;
+        for (Task task : unscheduled) {
+            task.setStartTime(timeIntervals.findFreeSlot(cursor, task.getDuration()));
+            if (task instanceof Subtask subtask) {
+                addSubtask(subtask);
+            } else {
+                addTask(task);
+            }
+            scheduled.add(task);
+            cursor = task.getEndTime();
+        }
+        return scheduled;
+    }
+
+    @Override
+    public int countByStatus(TaskType type, Status status) {
+        return statusIndex.count(type, status);
+    }
+
+    @Override
+    public int countByType(TaskType type) {
+        return switch (type) {
+            case EPIC -> epics.size();
+            case SUBTASK -> subtasks.size();
+            default -> tasks.size();
+        };
+    }
+
+    @Override
+    public List<Task> getByStatus(TaskType type, Status status) {
+        Set<Integer> ids = statusIndex.ids(type, status);
+        List<Task> result = new ArrayList<>(ids.size());
+        for (int taskId : ids) {
+            result.add(find(type, taskId));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        return findAll(textIndex.search(query, limit));
+    }
+
+    @Override
+    public List<Task> searchPrefix(String prefix, int limit) {
+        return findAll(textIndex.searchPrefix(prefix, limit));
+    }
+
+    private List<Task> findAll(List<Integer> ids) {
+        List<Task> result = new ArrayList<>(ids.size());
+        for (int taskId : ids) {
+            result.add(findTask(taskId));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> addAll(Collection<? extends Task> items) {
+        IntLinkedSet ids = batchIds(items);
+        checkBatchEpics(items, epics::containsKey);
+        checkBatchConflicts(items, timeIntervals, ids::contains);
+
+        // Пакет уже проверен целиком - элементы вставляются без повторной проверки пересечений.
+        // Эпики первыми, чтобы подзадачи пакета могли ссылаться на эпики из него же
+        for (Task item : items) {
+            if (item instanceof Epic epic) {
+                assignId(epic);
+                insertEpic(epic);
+            }
+        }
+        for (Task item : items) {
+            if (item instanceof Subtask subtask) {
+                assignId(subtask);
+                insertSubtask(subtask, epics.get(subtask.getEpicId()));
+            } else if (item.getType() == TaskType.TASK) {
+                assignId(item);
+                insertTask(item);
+            }
+        }
+        return new ArrayList<>(items);
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<? extends Task> items) {
+        IntLinkedSet ids = batchIds(items);
+        for (Task item : items) {
+            checkExists(item, stored(item));
+            checkSameEpic(item, stored(item));
+        }
+        checkBatchConflicts(items, timeIntervals, ids::contains);
+
+        // Старые интервалы освобождаются заранее, чтобы задачи пакета могли поменяться местами
+        for (Task item : items) {
+            removeTaskFromAllStructures(stored(item));
+        }
+        // Пакет уже проверен целиком - элементы заменяются без повторной проверки пересечений
+        for (Task item : items) {
+            Task old = stored(item);
+            switch (item.getType()) {
+                case EPIC -> mergeEpic((Epic) old, (Epic) item);
+                case SUBTASK -> replaceSubtask((Subtask) old, (Subtask) item);
+                default -> replaceTask(old, item);
+            }
+        }
+        return new ArrayList<>(items);
+    }
+
+    @Override
+    public void deleteAll(Collection<Integer> ids) {
+        for (int id : ids) {
+            if (tasks.containsKey(id)) {
+                deleteTaskByID(id);
+            } else if (epics.containsKey(id)) {
+                deleteEpicByID(id);
+            } else if (subtasks.containsKey(id)) {
+                deleteSubtaskByID(id);
+            }
+        }
+    }
+
+    private Task stored(Task item) {
+        return item.getId() == null ? null : find(item.getType(), item.getId());
+    }
+
+    private Task find(TaskType type, int id) {
+        return switch (type) {
+            case EPIC -> epics.get(id);
+            case SUBTASK -> subtasks.get(id);
+            default -> tasks.get(id);
+        };
+    }
+
+    // ID элементов пакета; повтор одного ID в пакете - ошибка
+    static IntLinkedSet batchIds(Collection<? extends Task> items) {
+        IntLinkedSet ids = new IntLinkedSet();
+        for (Task item : items) {
+            if (item.getId() != null && !ids.add(item.getId().intValue())) {
+                throw new IllegalArgumentException("ID " + item.getId() + " повторяется в пакете");
+            }
+        }
+        return ids;
+    }
+
+    // Подзадача пакета должна ссылаться на существующий эпик или на эпик из того же пакета
+    static void checkBatchEpics(Collection<? extends Task> items, IntPredicate epicExists) {
+        IntLinkedSet batchEpics = new IntLinkedSet();
+        for (Task item : items) {
+            if (item instanceof Epic && item.getId() != null) {
+                batchEpics.add(item.getId().intValue());
+            }
+        }
+        for (Task item : items) {
+            if (item instanceof Subtask subtask && !epicExists.test(subtask.getEpicId())
+                    && !batchEpics.contains(subtask.getEpicId())) {
+                throw new IllegalArgumentException("Эпик с id=" + subtask.getEpicId() + " не найден для подзадачи "
+                        + subtask.getName());
+            }
+        }
+    }
+
+    static void checkExists(Task item, Task stored) {
+        if (stored == null) {
+            throw new IllegalArgumentException("Элемент пакета с id=" + item.getId() + " не найден: "
+                    + item.getName());
+        }
+    }
+
+    // Обновление не переносит подзадачу в другой эпик: для этого её нужно удалить и добавить заново
+    static void checkSameEpic(Task item, Task stored) {
+        if (item instanceof Subtask subtask && stored instanceof Subtask old && subtask.getEpicId() != old.getEpicId()) {
+            throw new IllegalArgumentException("Подзадача id=" + item.getId() + " относится к эпику id="
+                    + old.getEpicId() + ", перенос в эпик id=" + subtask.getEpicId() + " не поддерживается");
+        }
+    }
+
+    // Пересечения внутри пакета ищутся сортировкой по началу и сравнением соседей, пересечения
+    // с занятыми интервалами - по индексу, без интервалов, которые пакет заменяет: O(m log m + m log n)
+    static void checkBatchConflicts(Collection<? extends Task> items, TimeIntervalIndex intervals,
+                                    IntPredicate replaced) {
+        List<Task> timed = new ArrayList<>();
+        for (Task item : items) {
+            if (item.getType() != TaskType.EPIC && item.getStartTime() != null && item.getEndTime() != null
+                    && item.getStartTime().isBefore(item.getEndTime())) {
+                timed.add(item);
+            }
+        }
+        timed.sort(Comparator.comparing(Task::getStartTime));
+        for (int i = 0; i < timed.size(); i++) {
+            Task task = timed.get(i);
+            if (i > 0 && timed.get(i - 1).getEndTime().isAfter(task.getStartTime())) {
+                throw new TimeIntervalConflictException("Задачи пакета пересекаются по времени: "
+                        + timed.get(i - 1).getName() + " и " + task.getName());
+            }
+            if (intervals.hasConflict(task.getStartTime(), task.getEndTime(), replaced)) {
+                throw new TimeIntervalConflictException("Задача пакета пересекается по времени с существующими задачами: "
+                        + task.getName());
+            }
+        }
+    }
+
+    // Сколько чтений списков обслужено готовым снимком и сколько потребовало копирования
+    public long getSnapshotHits() {
+        return tasksSnapshot.getHits() + epicsSnapshot.getHits() + subtasksSnapshot.getHits()
+                + prioritizedSnapshot.getHits();
+    }
+
+    public long getSnapshotMisses() {
+        return tasksSnapshot.getMisses() + epicsSnapshot.getMisses() + subtasksSnapshot.getMisses()
+                + prioritizedSnapshot.getMisses();
     }
 
     protected TreeSet<Task> getPrioritized() {
+        prioritizedSnapshot.invalidate();
         return prioritized;
     }
 
@@ -322,26 +814,35 @@ public class InMemoryTaskManager implements TaskManager {
         if (task.getType() == TaskType.EPIC) return;
         if (task.getStartTime() == null || task.getEndTime() == null) return;
 
-        LocalDateTime start = task.getStartTime();
-        LocalDateTime end = task.getEndTime();
-        LocalDateTime current = start;
-
-        while (current.isBefore(end)) {
-            Integer occupiedByTaskId = slots.get(current);
-            if (occupiedByTaskId != null && !occupiedByTaskId.equals(task.getId())) {
-                throw new TimeIntervalConflictException("Задача пересекается по времени с существующими задачами");
-            }
-            current = current.plusMinutes(15);
+        ConflictCheckEvent event = new ConflictCheckEvent();
+        event.begin();
+        boolean conflict = timeIntervals.hasConflict(task.getId(), task.getStartTime(), task.getEndTime());
+        if (event.shouldCommit()) {
+            event.taskId = task.getId();
+            event.intervalsProbed = timeIntervals.getLastProbes();
+            event.conflict = conflict;
+            event.commit();
+        }
+        if (conflict) {
+            throw new TimeIntervalConflictException("Задача пересекается по времени с существующими задачами");
         }
     }
 
+    // Регистрация задачи, эпика или подзадачи, загруженных подклассом напрямую в хранилище
+    protected void registerLoadedTask(Task task) {
+        addPrioritizedTask(task);
+        statusIndex.put(task);
+        textIndex.put(task);
+    }
+
     protected void addPrioritizedTask(Task task) {
         if (task == null) return;
         if (task.getType() == TaskType.EPIC) return;
 
         prioritized.add(task);
+        prioritizedSnapshot.invalidate();
         if (task.getStartTime() != null && task.getEndTime() != null) {
-            addTimeSlots(task.getId(), task.getStartTime(), task.getEndTime());
+            timeIntervals.add(task.getId(), task.getStartTime(), task.getEndTime());
         }
     }
 
@@ -350,28 +851,9 @@ public class InMemoryTaskManager implements TaskManager {
         if (task.getType() == TaskType.EPIC) return;
 
         prioritized.remove(task);
+        prioritizedSnapshot.invalidate();
         if (task.getStartTime() != null && task.getEndTime() != null) {
-            clearTimeSlots(task.getStartTime(), task.getEndTime());
-        }
-    }
-
-    private void addTimeSlots(Integer id, LocalDateTime startTime, LocalDateTime endTime) {
-        if (startTime == null || endTime == null) return;
-
-        LocalDateTime current = startTime;
-        while (current.isBefore(endTime)) {
-            slots.put(current, id);
-            current = current.plusMinutes(15);
-        }
-    }
-
-    private void clearTimeSlots(LocalDateTime startTime, LocalDateTime endTime) {
-        if (startTime == null || endTime == null) return;
-
-        LocalDateTime current = startTime;
-        while (current.isBefore(endTime)) {
-            slots.remove(current);
-            current = current.plusMinutes(15);
+            timeIntervals.remove(task.getId(), task.getStartTime());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package main.javakanban.manager.task;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Событие JFR: сброс накопленных записей журнала FileBackedTaskManager на диск. По умолчанию выключено.
+@Name("main.javakanban.JournalFlush")
+@Label("Journal Flush")
+@Category({"Java Kanban", "Persistence"})
+@Description("Дозапись накопленных изменений в журнал, при надёжном сбросе - с fsync")
+@Enabled(false)
+@StackTrace(false)
+class JournalFlushEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Records Written")
+    int records;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytes;
+
+    @Label("Synced")
+    boolean sync;
+}
@@ -0,0 +1,86 @@
+package main.javakanban.manager.task;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Неизменяемый снимок коллекции, общий для всех читателей.
+// Запись увеличивает версию (invalidate() вызывается после изменения), а снимок пересобирается
+// лениво первым читателем, увидевшим новую версию. Снимок, собранный по устаревшей версии,
+// никогда не выдаётся как актуальный: версия читается до копирования.
+class SnapshotCache<T> {
+
+    private final Supplier<Collection<? extends T>> source;
+    private final int characteristics;
+    private final AtomicLong version = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile Snapshot<T> snapshot;
+
+    SnapshotCache(Supplier<Collection<? extends T>> source) {
+        this(source, 0);
+    }
+
+    // characteristics - дополнительные свойства потока по снимку, например ORDERED для упорядоченного источника
+    SnapshotCache(Supplier<Collection<? extends T>> source, int characteristics) {
+        this.source = source;
+        this.characteristics = characteristics | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+    }
+
+    List<T> get() {
+        return current().items;
+    }
+
+    // Поток по массиву снимка: без копирования, пока данные не менялись, и делится пополам
+    // для параллельной обработки; изменения после создания потока на него не влияют
+    Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliterator(current().elements, characteristics);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    void invalidate() {
+        version.incrementAndGet();
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    private Snapshot<T> current() {
+        long current = version.get();
+        Snapshot<T> cached = snapshot;
+        if (cached != null && cached.version == current) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Snapshot<T> fresh = new Snapshot<>(current, source.get().toArray());
+        snapshot = fresh;
+        return fresh;
+    }
+
+    private static class Snapshot<T> {
+        private final long version;
+        private final Object[] elements;
+        private final List<T> items;
+
+        @SuppressWarnings("unchecked")
+        private Snapshot(long version, Object[] elements) {
+            this.version = version;
+            this.elements = elements;
+            this.items = (List<T>) Collections.unmodifiableList(Arrays.asList(elements));
+        }
+    }
+}
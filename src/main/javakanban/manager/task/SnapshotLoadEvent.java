@@ -0,0 +1,37 @@
+package main.javakanban.manager.task;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Событие JFR: загрузка FileBackedTaskManager из снапшота и журнала. По умолчанию выключено.
+@Name("main.javakanban.SnapshotLoad")
+@Label("Snapshot Load")
+@Category({"Java Kanban", "Persistence"})
+@Description("Чтение снапшота, применение журнала и перестроение индексов")
+@Enabled(false)
+@StackTrace(false)
+class SnapshotLoadEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Rows Loaded")
+    int rows;
+
+    @Label("Journal Records")
+    int journalRecords;
+
+    @Label("Parse Errors")
+    int parseErrors;
+
+    @Label("Index Rebuild Time")
+    @Description("Регистрация задач в индексах, связывание подзадач и пересчёт эпиков")
+    @Timespan(Timespan.NANOSECONDS)
+    long indexRebuildTime;
+}
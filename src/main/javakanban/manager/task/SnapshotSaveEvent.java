@@ -0,0 +1,33 @@
+package main.javakanban.manager.task;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Событие JFR: полная запись снапшота FileBackedTaskManager. По умолчанию выключено.
+@Name("main.javakanban.SnapshotSave")
+@Label("Snapshot Save")
+@Category({"Java Kanban", "Persistence"})
+@Description("Полная запись состояния менеджера в файл снапшота")
+@Enabled(false)
+@StackTrace(false)
+class SnapshotSaveEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Format")
+    String format;
+
+    @Label("Rows Written")
+    int rows;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytes;
+}
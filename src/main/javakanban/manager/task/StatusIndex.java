@@ -0,0 +1,67 @@
+package main.javakanban.manager.task;
+
+import main.javakanban.model.Status;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// Вторичный индекс: ID задач каждого типа, сгруппированные по статусу.
+// Запоминает статус, под которым задача проиндексирована, поэтому задачу, изменённую на месте
+// до вызова update, всё равно удаётся перенести из старой группы в новую.
+class StatusIndex {
+
+    private final Map<TaskType, Map<Integer, Status>> indexed = new EnumMap<>(TaskType.class);
+    private final Map<TaskType, Map<Status, Set<Integer>>> ids = new EnumMap<>(TaskType.class);
+
+    StatusIndex(Supplier<Map<Integer, Status>> maps, Supplier<Set<Integer>> sets) {
+        for (TaskType type : TaskType.values()) {
+            indexed.put(type, maps.get());
+            Map<Status, Set<Integer>> byStatus = new EnumMap<>(Status.class);
+            for (Status status : Status.values()) {
+                byStatus.put(status, sets.get());
+            }
+            ids.put(type, byStatus);
+        }
+    }
+
+    // Добавляет задачу или переносит её в группу текущего статуса; задача без статуса не индексируется
+    void put(Task task) {
+        TaskType type = task.getType();
+        Integer id = task.getId();
+        Status status = task.getStatus();
+        Status previous = status == null ? indexed.get(type).remove(id) : indexed.get(type).put(id, status);
+        if (previous == status) {
+            return;
+        }
+        if (previous != null) {
+            ids.get(type).get(previous).remove(id);
+        }
+        if (status != null) {
+            ids.get(type).get(status).add(id);
+        }
+    }
+
+    void remove(TaskType type, int id) {
+        Status previous = indexed.get(type).remove(id);
+        if (previous != null) {
+            ids.get(type).get(previous).remove(id);
+        }
+    }
+
+    void clear(TaskType type) {
+        indexed.get(type).clear();
+        ids.get(type).values().forEach(Set::clear);
+    }
+
+    int count(TaskType type, Status status) {
+        return ids.get(type).get(status).size();
+    }
+
+    Set<Integer> ids(TaskType type, Status status) {
+        return ids.get(type).get(status);
+    }
+}
@@ -0,0 +1,59 @@
+package main.javakanban.manager.task;
+
+import main.javakanban.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Позиция в списке задач по приоритету: время начала и ID последней выданной задачи.
+// Следующая страница начинается строго после неё, даже если задачи между запросами менялись.
+public final class TaskCursor {
+
+    private final LocalDateTime startTime;
+    private final int id;
+
+    public TaskCursor(LocalDateTime startTime, int id) {
+        this.startTime = startTime;
+        this.id = id;
+    }
+
+    public static TaskCursor after(Task task) {
+        return new TaskCursor(task.getStartTime(), task.getId());
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    // Задача-ключ для поиска в множестве, упорядоченном по времени начала и ID
+    static Task probe(LocalDateTime startTime, int id) {
+        Task probe = new Task(id, null, null, null);
+        probe.setStartTime(startTime);
+        return probe;
+    }
+
+    Task probe() {
+        return probe(startTime, id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskCursor cursor)) return false;
+        return id == cursor.id && Objects.equals(startTime, cursor.startTime);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(startTime, id);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskCursor{startTime=" + startTime + ", id=" + id + '}';
+    }
+}
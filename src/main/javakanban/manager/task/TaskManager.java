@@ -1,11 +1,16 @@
 package main.javakanban.manager.task;
 
 import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
 import main.javakanban.model.Subtask;
 import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
 
-import java.util.ArrayList;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TaskManager {
 
@@ -37,11 +42,11 @@ public interface TaskManager {
 
     List<Task> getTasks();
 
-    ArrayList<Epic> getEpics();
+    List<Epic> getEpics();
 
     List<Subtask> getSubtasks();
 
-    ArrayList<Subtask> getEpicSubtasks(int id);
+    List<Subtask> getEpicSubtasks(int id);
 
     void deleteTasks();
 
@@ -57,5 +62,74 @@ public interface TaskManager {
 
     List<Task> getHistory();
 
+    // Просмотр от имени пользователя попадает только в его личную историю, общая история не меняется.
+    // Число хранимых историй ограничено, давно неактивные пользователи вытесняются
+    Task getTaskByID(int id, String userId);
+
+    Epic getEpicByID(int id, String userId);
+
+    Subtask getSubtaskByID(int id, String userId);
+
+    // Для пользователя без просмотров - пустой список; история при этом не создаётся
+    List<Task> getHistory(String userId);
+
+    // Освобождает историю пользователя, например при завершении его сессии
+    void removeUserHistory(String userId);
+
+    // Версия данных: монотонно растёт после каждого изменения задач, эпиков или подзадач.
+    // Просмотры её не меняют, поэтому по совпадению версии видно, что списки остались прежними
+    long getVersion();
+
     List<Task> getPrioritizedTasks();
+
+    // Ленивые потоки для однократного обхода (выгрузки, отчёты) без копирования в новый список.
+    // Хранилища обходятся по неизменяемому снимку, подзадачи эпика - по снимку их ID;
+    // изменения после создания потока не приводят к ConcurrentModificationException
+    Stream<Task> streamTasks();
+
+    Stream<Epic> streamEpics();
+
+    Stream<Subtask> streamSubtasks();
+
+    Stream<Subtask> streamEpicSubtasks(int id);
+
+    Stream<Task> streamPrioritizedTasks();
+
+    Stream<Task> streamHistory();
+
+    // Задачи и подзадачи, пересекающиеся по времени с [from, to), в порядке приоритета
+    List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to);
+
+    // Не больше limit задач по приоритету, следующих за курсором; курсор null - с начала списка
+    List<Task> getPrioritizedTasksPage(TaskCursor after, int limit);
+
+    // Самое раннее начало свободного промежутка длиной не меньше duration, не раньше after
+    LocalDateTime findFreeSlot(LocalDateTime after, Duration duration);
+
+    // Расставляет задачи и подзадачи без времени начала по свободным промежуткам начиная с after
+    // и добавляет их; задачи размещаются в переданном порядке, каждая - после предыдущей
+    List<Task> autoSchedule(Collection<? extends Task> unscheduled, LocalDateTime after);
+
+    // Число задач данного типа с данным статусом за O(1) по вторичному индексу
+    int countByStatus(TaskType type, Status status);
+
+    int countByType(TaskType type);
+
+    // Задачи данного типа с данным статусом за O(k) без копирования всего хранилища
+    List<Task> getByStatus(TaskType type, Status status);
+
+    // Полнотекстовый поиск по имени и описанию: задачи с любым из слов запроса по убыванию релевантности
+    List<Task> search(String query, int limit);
+
+    // Поиск по началу слова, например для подсказок при вводе
+    List<Task> searchPrefix(String prefix, int limit);
+
+    // Пакетные операции: задачи, эпики и подзадачи проверяются все вместе до изменений,
+    // и при пересечении по времени или ошибке в любом элементе пакет целиком отклоняется
+    List<Task> addAll(Collection<? extends Task> items);
+
+    List<Task> updateAll(Collection<? extends Task> items);
+
+    // Удаляет задачи, эпики и подзадачи по ID; отсутствующие ID пропускаются
+    void deleteAll(Collection<Integer> ids);
 }
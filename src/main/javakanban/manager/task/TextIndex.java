@@ -0,0 +1,170 @@
+package main.javakanban.manager.task;
+
+import main.javakanban.model.Task;
+import main.javakanban.util.IntHashMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+// Инвертированный индекс по словам имени и описания задач.
+// Слово -> (ID задачи -> число вхождений); словарь упорядочен, поэтому поиск по префиксу -
+// это обход поддиапазона. Прямой индекс ID -> слова позволяет удалять задачу без повторного разбора текста.
+// Релевантность - сумма tf·idf по совпавшим словам, лучшие limit задач отбираются кучей за O(n log limit).
+class TextIndex {
+
+    private final NavigableMap<String, IntHashMap<Integer>> postings = new TreeMap<>();
+    private final IntHashMap<String[]> terms = new IntHashMap<>();
+
+    // Индексирует задачу заново: старые слова удаляются, новые добавляются
+    void put(Task task) {
+        int id = task.getId();
+        remove(id);
+        Map<String, Integer> frequencies = new TreeMap<>();
+        for (String term : tokenize(task.getName())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        for (String term : tokenize(task.getDescription())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        if (frequencies.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new IntHashMap<>()).put(id, entry.getValue());
+        }
+        terms.put(id, frequencies.keySet().toArray(new String[0]));
+    }
+
+    void remove(int id) {
+        String[] indexed = terms.remove(id);
+        if (indexed == null) {
+            return;
+        }
+        for (String term : indexed) {
+            IntHashMap<Integer> posting = postings.get(term);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    void clear() {
+        postings.clear();
+        terms.clear();
+    }
+
+    int size() {
+        return terms.size();
+    }
+
+    // ID задач, содержащих хотя бы одно слово запроса, по убыванию релевантности.
+    // Повтор слова в запросе не увеличивает его вес
+    List<Integer> search(String query, int limit) {
+        List<IntHashMap<Integer>> matched = new ArrayList<>();
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            IntHashMap<Integer> posting = postings.get(term);
+            if (posting != null) {
+                matched.add(posting);
+            }
+        }
+        return rank(matched, limit);
+    }
+
+    // ID задач со словами, начинающимися с prefix, по убыванию релевантности
+    List<Integer> searchPrefix(String prefix, int limit) {
+        List<String> tokens = tokenize(prefix);
+        if (tokens.size() != 1) {
+            return tokens.isEmpty() ? new ArrayList<>() : search(prefix, limit);
+        }
+        String from = tokens.getFirst();
+        return rank(postings.subMap(from, true, from + Character.MAX_VALUE, false).values(), limit);
+    }
+
+    private List<Integer> rank(Collection<IntHashMap<Integer>> matched, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Размер выдачи должен быть положительным: " + limit);
+        }
+        IntHashMap<double[]> scores = new IntHashMap<>();
+        int documents = terms.size();
+        for (IntHashMap<Integer> posting : matched) {
+            double idf = Math.log(1 + (double) documents / posting.size());
+            posting.forEachEntry((frequency, id) -> {
+                double[] score = scores.get(id);
+                if (score == null) {
+                    score = new double[1];
+                    scores.put(id, score);
+                }
+                score[0] += frequency * idf;
+            });
+        }
+
+        // Минимальная куча из лучших limit; при равной релевантности выше задача с меньшим ID
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, 1024));
+        scores.forEachEntry((score, id) -> {
+            if (best.size() < limit) {
+                best.add(new Hit(id, score[0]));
+            } else if (best.peek().isWorseThan(id, score[0])) {
+                best.poll();
+                best.add(new Hit(id, score[0]));
+            }
+        });
+        List<Integer> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll().id);
+        }
+        return result.reversed();
+    }
+
+    // Слова - последовательности букв и цифр (в том числе кириллицы) в нижнем регистре; ё приравнивается к е
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                c = Character.toLowerCase(c);
+                token.append(c == 'ё' ? 'е' : c);
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static class Hit implements Comparable<Hit> {
+        final int id;
+        final double score;
+
+        Hit(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        boolean isWorseThan(int otherId, double otherScore) {
+            return score < otherScore || (score == otherScore && id > otherId);
+        }
+
+        // Худший результат - в вершине кучи
+        @Override
+        public int compareTo(Hit other) {
+            if (score != other.score) {
+                return Double.compare(score, other.score);
+            }
+            return Integer.compare(other.id, id);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package main.javakanban.manager.task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+// Индекс занятых интервалов [start, end), упорядоченный по времени начала.
+// Зарегистрированные интервалы не пересекаются, поэтому для проверки нового интервала
+// достаточно посмотреть на соседей: O(log n) независимо от длительности задачи.
+class TimeIntervalIndex {
+
+    private final NavigableMap<LocalDateTime, Interval> intervals = new TreeMap<>();
+    private int lastProbes;
+
+    boolean hasConflict(int taskId, LocalDateTime start, LocalDateTime end) {
+        return hasConflict(start, end, id -> id == taskId);
+    }
+
+    // ignored - интервалы, которые не учитываются: собственный интервал задачи или интервалы,
+    // которые заменяются в той же пакетной операции
+    boolean hasConflict(LocalDateTime start, LocalDateTime end, IntPredicate ignored) {
+        lastProbes = 0;
+        if (!start.isBefore(end)) {
+            return false;
+        }
+
+        Map.Entry<LocalDateTime, Interval> floor = intervals.floorEntry(start);
+        if (floor != null) {
+            lastProbes++;
+            if (!ignored.test(floor.getValue().taskId) && floor.getValue().end.isAfter(start)) {
+                return true;
+            }
+        }
+
+        // Интервалы, начинающиеся внутри [start, end)
+        for (Interval interval : intervals.subMap(start, false, end, false).values()) {
+            lastProbes++;
+            if (!ignored.test(interval.taskId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Сколько интервалов просмотрела последняя проверка hasConflict (для событий JFR)
+    int getLastProbes() {
+        return lastProbes;
+    }
+
+    // ID задачи, которая началась раньше moment и ещё идёт в этот момент, или null.
+    // Интервалы не пересекаются, поэтому такой может быть только ближайший слева.
+    Integer runningAt(LocalDateTime moment) {
+        Map.Entry<LocalDateTime, Interval> lower = intervals.lowerEntry(moment);
+        if (lower != null && lower.getValue().end.isAfter(moment)) {
+            return lower.getValue().taskId;
+        }
+        return null;
+    }
+
+    // Самое раннее начало промежутка длиной не меньше duration, не раньше after.
+    // Интервалы обходятся по порядку начиная с after, поэтому цена - O(log n) плюс число пропущенных интервалов.
+    LocalDateTime findFreeSlot(LocalDateTime after, Duration duration) {
+        LocalDateTime candidate = after;
+        Map.Entry<LocalDateTime, Interval> lower = intervals.lowerEntry(after);
+        if (lower != null && lower.getValue().end.isAfter(candidate)) {
+            candidate = lower.getValue().end;
+        }
+        for (Map.Entry<LocalDateTime, Interval> next : intervals.tailMap(candidate, true).entrySet()) {
+            if (!candidate.plus(duration).isAfter(next.getKey())) {
+                return candidate;
+            }
+            if (next.getValue().end.isAfter(candidate)) {
+                candidate = next.getValue().end;
+            }
+        }
+        return candidate;
+    }
+
+    void add(int taskId, LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            return;
+        }
+        intervals.put(start, new Interval(taskId, end));
+    }
+
+    void remove(int taskId, LocalDateTime start) {
+        Interval interval = intervals.get(start);
+        if (interval != null && interval.taskId == taskId) {
+            intervals.remove(start);
+        }
+    }
+
+    void clear() {
+        intervals.clear();
+    }
+
+    int size() {
+        return intervals.size();
+    }
+
+    private static class Interval {
+        final int taskId;
+        final LocalDateTime end;
+
+        Interval(int taskId, LocalDateTime end) {
+            this.taskId = taskId;
+            this.end = end;
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package main.javakanban.model;
 
+import main.javakanban.util.IntLinkedSet;
+
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 
 public class Epic extends Task {
     private LocalDateTime endTime;
-    private ArrayList<Integer> subtasksId = new ArrayList<>();
+    private final IntLinkedSet subtasksId = new IntLinkedSet();
+    // Число подзадач в каждом статусе, индекс - Status.ordinal()
+    private final int[] subtaskStatusCounts = new int[Status.values().length];
 
     public Epic(String name, String description) {
         super(name, description);
@@ -24,25 +29,46 @@ public class Epic extends Task {
         return endTime;
     }
 
-    public void addSubtask(int subtask) {
+    // Множество ID меняется под монитором эпика, чтобы getSubtaskIdsSnapshot можно было вызывать
+    // без блокировок менеджера; обход getSubtaskId() остаётся под блокировками менеджера
+    public synchronized void addSubtask(int subtask) {
         if (subtask != getId()) {
             subtasksId.add(subtask);
         }
     }
 
-    public void clearSubtasks() {
+    public synchronized void clearSubtasks() {
         subtasksId.clear();
+        resetSubtaskStatusCounts();
+    }
+
+    public void countSubtaskStatus(Status status, int delta) {
+        subtaskStatusCounts[status.ordinal()] += delta;
+    }
+
+    public int getSubtaskStatusCount(Status status) {
+        return subtaskStatusCounts[status.ordinal()];
     }
 
-    public ArrayList<Integer> getSubtaskId() {
+    public void resetSubtaskStatusCounts() {
+        Arrays.fill(subtaskStatusCounts, 0);
+    }
+
+    public IntLinkedSet getSubtaskId() {
         return subtasksId;
     }
 
-    public void setSubtaskList(ArrayList<Integer> subtaskId) {
-        this.subtasksId = subtaskId;
+    // Согласованная копия ID подзадач для читателей без блокировок менеджера, например записи JSON
+    public synchronized int[] getSubtaskIdsSnapshot() {
+        return subtasksId.toIntArray();
+    }
+
+    public synchronized void setSubtaskList(Collection<Integer> subtaskId) {
+        subtasksId.clear();
+        subtasksId.addAll(subtaskId);
     }
 
-    public void removeEpicSubtask(Integer idSubtask) {
+    public synchronized void removeEpicSubtask(int idSubtask) {
         subtasksId.remove(idSubtask);
     }
 
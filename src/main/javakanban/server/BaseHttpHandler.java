@@ -0,0 +1,203 @@
+package main.javakanban.server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import main.javakanban.converter.JsonConverter;
+import main.javakanban.converter.JsonParser;
+import main.javakanban.converter.JsonWriter;
+import main.javakanban.exception.NotFoundException;
+import main.javakanban.exception.TimeIntervalConflictException;
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Общая часть обработчиков: разбор пути, чтение тела, потоковая запись JSON и коды ошибок.
+// NotFoundException - 404, пересечение по времени - 406, некорректный запрос - 400, остальное - 500.
+abstract class BaseHttpHandler implements HttpHandler {
+
+    private static final int MAX_BODY_SIZE = 1024 * 1024;
+    private static final int BUFFER_SIZE = 8 * 1024;
+    // Кодировка с q=0 клиентом явно запрещена
+    private static final Pattern ZERO_QUALITY = Pattern.compile("q\\s*=\\s*0(\\.0{0,3})?");
+
+    protected final TaskManager manager;
+
+    protected BaseHttpHandler(TaskManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                String[] path = exchange.getRequestURI().getPath().split("/");
+                handle(exchange, exchange.getRequestMethod(), path);
+            } catch (NotFoundException e) {
+                sendError(exchange, 404, e.getMessage());
+            } catch (TimeIntervalConflictException e) {
+                sendError(exchange, 406, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                sendError(exchange, 500, "Внутренняя ошибка сервера: " + e.getMessage());
+            }
+        }
+    }
+
+    // path - сегменты пути: path[1] - ресурс, path[2] - ID, если есть
+    protected abstract void handle(HttpExchange exchange, String method, String[] path) throws IOException;
+
+    protected static int parseId(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный ID: " + segment);
+        }
+    }
+
+    protected static Task readTask(HttpExchange exchange, TaskType type) throws IOException {
+        return JsonConverter.fromJson(readJson(exchange), type);
+    }
+
+    protected static Map<String, Object> readJson(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readNBytes(MAX_BODY_SIZE + 1);
+            if (bytes.length > MAX_BODY_SIZE) {
+                throw new IllegalArgumentException("Тело запроса больше " + MAX_BODY_SIZE + " байт");
+            }
+            return JsonParser.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    protected static void sendTask(HttpExchange exchange, int code, Task task) throws IOException {
+        sendJson(exchange, code, out -> JsonConverter.writeTask(task, out));
+    }
+
+    // Список пишется по мере обхода потока, без промежуточного списка и строки
+    protected static void sendTasks(HttpExchange exchange, Stream<? extends Task> tasks) throws IOException {
+        try (tasks) {
+            sendJson(exchange, 200, out -> JsonConverter.writeTasks(tasks.iterator(), out));
+        }
+    }
+
+    // Список из кеша ответов: ETag по версии менеджера, 304 при совпадении с If-None-Match,
+    // сжатое тело, если клиент принимает gzip. Версия читается до обхода задач - см. ResponseCache.get
+    protected void sendCachedTasks(HttpExchange exchange, ResponseCache cache, String key,
+                                   Supplier<Stream<? extends Task>> tasks) throws IOException {
+        Headers request = exchange.getRequestHeaders();
+        Headers response = exchange.getResponseHeaders();
+        response.set("Cache-Control", "no-cache");
+        response.set("Vary", "Accept-Encoding");
+        List<String> ifNoneMatch = request.get("If-None-Match");
+        long version = manager.getVersion();
+        if (matches(ifNoneMatch, cache.etag(version))) {
+            // Содержимое не менялось - ничего не сериализуется
+            response.set("ETag", cache.etag(version));
+            sendEmpty(exchange, 304);
+            return;
+        }
+        ResponseCache.Body body = cache.get(key, version, tasks);
+        response.set("ETag", body.getEtag());
+        if (matches(ifNoneMatch, body.getEtag())) {
+            sendEmpty(exchange, 304);
+            return;
+        }
+        byte[] bytes = body.getJson();
+        if (body.getGzip() != null && acceptsGzip(request.get("Accept-Encoding"))) {
+            response.set("Content-Encoding", "gzip");
+            bytes = body.getGzip();
+        }
+        response.set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // If-None-Match: список тегов через запятую или "*"; слабые теги (W/) сравниваются по значению
+    static boolean matches(List<String> ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String header : ifNoneMatch) {
+            for (String tag : header.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Accept-Encoding: gzip или "*" без q=0
+    static boolean acceptsGzip(List<String> acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String header : acceptEncoding) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                    continue;
+                }
+                boolean rejected = false;
+                for (int i = 1; i < parts.length; i++) {
+                    rejected |= ZERO_QUALITY.matcher(parts[i].trim()).matches();
+                }
+                if (!rejected) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    protected static void sendEmpty(HttpExchange exchange, int code) throws IOException {
+        exchange.sendResponseHeaders(code, -1);
+    }
+
+    protected static void sendError(HttpExchange exchange, int code, String message) throws IOException {
+        if (exchange.getResponseCode() != -1) {
+            // Заголовки уже отправлены - ответ обрывается закрытием соединения
+            return;
+        }
+        sendJson(exchange, code, out -> out.beginObject().name("error").value(message).endObject());
+    }
+
+    protected static void sendMethodNotAllowed(HttpExchange exchange) throws IOException {
+        sendError(exchange, 405, "Метод " + exchange.getRequestMethod() + " не поддерживается");
+    }
+
+    // Тело отправляется частями (chunked): длина заранее неизвестна
+    protected static void sendJson(HttpExchange exchange, int code, JsonBody body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(code, 0);
+        JsonWriter out = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), BUFFER_SIZE));
+        body.write(out);
+        out.flush();
+    }
+
+    @FunctionalInterface
+    protected interface JsonBody {
+        void write(JsonWriter out) throws IOException;
+    }
+}
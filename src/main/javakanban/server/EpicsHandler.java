@@ -0,0 +1,63 @@
+package main.javakanban.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Epic;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+// /epics и /epics/{id}/subtasks
+class EpicsHandler extends ResourceHandler {
+
+    EpicsHandler(TaskManager manager, ResponseCache cache) {
+        super(manager, TaskType.EPIC, cache);
+    }
+
+    @Override
+    protected void handleNested(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length != 4 || !"subtasks".equals(path[3])) {
+            super.handleNested(exchange, method, path);
+            return;
+        }
+        if (!"GET".equals(method)) {
+            sendMethodNotAllowed(exchange);
+            return;
+        }
+        int id = parseId(path[2]);
+        found(manager.getEpicByID(id), id);
+        sendTasks(exchange, manager.streamEpicSubtasks(id));
+    }
+
+    @Override
+    protected Stream<Epic> list() {
+        return manager.streamEpics();
+    }
+
+    @Override
+    protected Task get(int id) {
+        return manager.getEpicByID(id);
+    }
+
+    @Override
+    protected Task create(Task task) {
+        return manager.addEpic((Epic) task);
+    }
+
+    @Override
+    protected Task update(Task task) {
+        return manager.updateEpic((Epic) task);
+    }
+
+    @Override
+    protected void delete(int id) {
+        manager.deleteEpicByID(id);
+    }
+
+    @Override
+    protected void deleteAll() {
+        manager.deleteEpics();
+    }
+}
@@ -0,0 +1,27 @@
+package main.javakanban.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import main.javakanban.exception.NotFoundException;
+import main.javakanban.manager.task.TaskManager;
+
+import java.io.IOException;
+
+// GET /history
+class HistoryHandler extends BaseHttpHandler {
+
+    HistoryHandler(TaskManager manager) {
+        super(manager);
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length != 2) {
+            throw new NotFoundException("Путь " + exchange.getRequestURI().getPath() + " не найден");
+        }
+        if (!"GET".equals(method)) {
+            sendMethodNotAllowed(exchange);
+            return;
+        }
+        sendTasks(exchange, manager.streamHistory());
+    }
+}
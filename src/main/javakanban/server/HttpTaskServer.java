@@ -0,0 +1,84 @@
+package main.javakanban.server;
+
+import com.sun.net.httpserver.HttpServer;
+import main.javakanban.manager.Managers;
+import main.javakanban.manager.task.TaskManager;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// HTTP/JSON API над TaskManager: /tasks, /subtasks, /epics, /history, /prioritized.
+// Каждый запрос обрабатывается в своём виртуальном потоке, поэтому тысячи одновременных клиентов
+// не занимают платформенных потоков. Запросы выполняются параллельно - менеджер должен быть потокобезопасным.
+// Списки /tasks, /subtasks, /epics и /prioritized кешируются до изменения версии менеджера и отдаются с ETag.
+public class HttpTaskServer {
+
+    public static final int DEFAULT_PORT = 8080;
+    // Очередь входящих соединений; значение по умолчанию (50) мало для всплесков подключений
+    private static final int BACKLOG = 1024;
+    // Сколько простаивающих keep-alive соединений держит сервер JDK (по умолчанию 200). Лишние закрываются,
+    // и клиент, успевший отправить запрос по такому соединению, получает обрыв. Настройка общая для всей JVM
+    // и читается при создании первого HttpServer, поэтому задаётся только при запуске через main
+    private static final String MAX_IDLE_CONNECTIONS_PROPERTY = "sun.net.httpserver.maxIdleConnections";
+    private static final int MAX_IDLE_CONNECTIONS = BACKLOG;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ResponseCache cache = new ResponseCache();
+
+    public HttpTaskServer(TaskManager manager) throws IOException {
+        this(manager, DEFAULT_PORT);
+    }
+
+    // port = 0 - любой свободный порт, узнать его можно через getPort()
+    public HttpTaskServer(TaskManager manager, int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/tasks", new TasksHandler(manager, cache));
+        server.createContext("/subtasks", new SubtasksHandler(manager, cache));
+        server.createContext("/epics", new EpicsHandler(manager, cache));
+        server.createContext("/history", new HistoryHandler(manager));
+        server.createContext("/prioritized", new PrioritizedHandler(manager, cache));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // Перестаёт принимать соединения и ждёт завершения начатых запросов не дольше delaySeconds
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public void stop() {
+        stop(0);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Ответы со списками, отданные из кеша без сериализации, и пересобранные после изменений
+    public long getResponseCacheHits() {
+        return cache.getHits();
+    }
+
+    public long getResponseCacheMisses() {
+        return cache.getMisses();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        // Значение, заданное флагом -D при запуске, не трогаем
+        if (System.getProperty(MAX_IDLE_CONNECTIONS_PROPERTY) == null) {
+            System.setProperty(MAX_IDLE_CONNECTIONS_PROPERTY, String.valueOf(MAX_IDLE_CONNECTIONS));
+        }
+        HttpTaskServer server = new HttpTaskServer(Managers.getConcurrent(), port);
+        server.start();
+        System.out.println("HTTP-сервер запущен на порту " + server.getPort());
+    }
+}
@@ -0,0 +1,30 @@
+package main.javakanban.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import main.javakanban.exception.NotFoundException;
+import main.javakanban.manager.task.TaskManager;
+
+import java.io.IOException;
+
+// GET /prioritized
+class PrioritizedHandler extends BaseHttpHandler {
+
+    private final ResponseCache cache;
+
+    PrioritizedHandler(TaskManager manager, ResponseCache cache) {
+        super(manager);
+        this.cache = cache;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length != 2) {
+            throw new NotFoundException("Путь " + exchange.getRequestURI().getPath() + " не найден");
+        }
+        if (!"GET".equals(method)) {
+            sendMethodNotAllowed(exchange);
+            return;
+        }
+        sendCachedTasks(exchange, cache, "PRIORITIZED", manager::streamPrioritizedTasks);
+    }
+}
@@ -0,0 +1,88 @@
+package main.javakanban.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import main.javakanban.exception.NotFoundException;
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+// Набор задач одного типа:
+// GET /ресурс - список (из кеша ответов, с ETag), GET /ресурс/{id} - одна задача, POST /ресурс - создание (без id) или обновление (с id),
+// DELETE /ресурс/{id} - удаление одной задачи, DELETE /ресурс - удаление всех.
+abstract class ResourceHandler extends BaseHttpHandler {
+
+    private final TaskType type;
+    private final ResponseCache cache;
+
+    protected ResourceHandler(TaskManager manager, TaskType type, ResponseCache cache) {
+        super(manager);
+        this.type = type;
+        this.cache = cache;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length > 3) {
+            handleNested(exchange, method, path);
+            return;
+        }
+        Integer id = path.length == 3 ? parseId(path[2]) : null;
+        switch (method) {
+            case "GET" -> {
+                if (id == null) {
+                    sendCachedTasks(exchange, cache, type.name(), this::list);
+                } else {
+                    sendTask(exchange, 200, found(get(id), id));
+                }
+            }
+            case "POST" -> {
+                if (id != null) {
+                    throw new NotFoundException("Путь " + exchange.getRequestURI().getPath() + " не найден");
+                }
+                Task task = readTask(exchange, type);
+                if (task.getId() == null) {
+                    sendTask(exchange, 201, create(task));
+                } else {
+                    sendTask(exchange, 201, found(update(task), task.getId()));
+                }
+            }
+            case "DELETE" -> {
+                if (id == null) {
+                    deleteAll();
+                } else {
+                    delete(id);
+                }
+                sendEmpty(exchange, 200);
+            }
+            default -> sendMethodNotAllowed(exchange);
+        }
+    }
+
+    // Вложенные пути вроде /epics/{id}/subtasks; по умолчанию их нет
+    protected void handleNested(HttpExchange exchange, String method, String[] path) throws IOException {
+        throw new NotFoundException("Путь " + exchange.getRequestURI().getPath() + " не найден");
+    }
+
+    protected <T extends Task> T found(T task, int id) {
+        if (task == null) {
+            throw new NotFoundException(type + " с id=" + id + " не найдена");
+        }
+        return task;
+    }
+
+    protected abstract Stream<? extends Task> list();
+
+    protected abstract Task get(int id);
+
+    protected abstract Task create(Task task);
+
+    // null, если задачи с таким ID нет
+    protected abstract Task update(Task task);
+
+    protected abstract void delete(int id);
+
+    protected abstract void deleteAll();
+}
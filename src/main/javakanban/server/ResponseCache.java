@@ -0,0 +1,108 @@
+package main.javakanban.server;
+
+import main.javakanban.converter.JsonConverter;
+import main.javakanban.converter.JsonWriter;
+import main.javakanban.model.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Сериализованные списки задач, привязанные к версии менеджера: пока версия не изменилась,
+// ответ отдаётся готовыми байтами, без обхода задач и записи JSON. Большие тела хранятся ещё и сжатыми.
+final class ResponseCache {
+
+    // Меньшие тела не сжимаются: выигрыш не окупает заголовок gzip и время на сжатие
+    static final int GZIP_THRESHOLD = 1024;
+
+    // Метка запуска в ETag: после перезапуска версия снова начинается с нуля,
+    // и без неё старый ETag клиента совпал бы с тегом другого содержимого
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final ConcurrentMap<String, Body> bodies = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    String etag(long version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    // version нужно прочитать до обхода задач: тогда данные в теле не старше версии в его ETag.
+    // Тело более новой версии тоже подходит - его ETag соответствует его собственному содержимому
+    Body get(String key, long version, Supplier<Stream<? extends Task>> tasks) throws IOException {
+        Body cached = bodies.get(key);
+        if (cached != null && cached.getVersion() >= version) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Body body = serialize(version, tasks);
+        return bodies.merge(key, body, (old, fresh) -> old.getVersion() >= fresh.getVersion() ? old : fresh);
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    private Body serialize(long version, Supplier<Stream<? extends Task>> tasks) throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        try (Stream<? extends Task> stream = tasks.get()) {
+            JsonWriter out = new JsonWriter(new OutputStreamWriter(json, StandardCharsets.UTF_8));
+            JsonConverter.writeTasks(stream.iterator(), out);
+            out.flush();
+        }
+        byte[] bytes = json.toByteArray();
+        byte[] gzip = null;
+        if (bytes.length >= GZIP_THRESHOLD) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+            gzip = compressed.toByteArray();
+        }
+        return new Body(version, etag(version), bytes, gzip);
+    }
+
+    static final class Body {
+
+        private final long version;
+        private final String etag;
+        private final byte[] json;
+        // null, если тело меньше порога
+        private final byte[] gzip;
+
+        Body(long version, String etag, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.etag = etag;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        String getEtag() {
+            return etag;
+        }
+
+        byte[] getJson() {
+            return json;
+        }
+
+        byte[] getGzip() {
+            return gzip;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package main.javakanban.server;
+
+import main.javakanban.exception.NotFoundException;
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+
+import java.util.stream.Stream;
+
+// /subtasks
+class SubtasksHandler extends ResourceHandler {
+
+    SubtasksHandler(TaskManager manager, ResponseCache cache) {
+        super(manager, TaskType.SUBTASK, cache);
+    }
+
+    @Override
+    protected Stream<Subtask> list() {
+        return manager.streamSubtasks();
+    }
+
+    @Override
+    protected Task get(int id) {
+        return manager.getSubtaskByID(id);
+    }
+
+    @Override
+    protected Task create(Task task) {
+        Subtask subtask = (Subtask) task;
+        if (manager.addSubtask(subtask) == null) {
+            throw new NotFoundException("Эпик с id=" + subtask.getEpicId() + " не найден");
+        }
+        return subtask;
+    }
+
+    @Override
+    protected Task update(Task task) {
+        return manager.updateSubtask((Subtask) task);
+    }
+
+    @Override
+    protected void delete(int id) {
+        manager.deleteSubtaskByID(id);
+    }
+
+    @Override
+    protected void deleteAll() {
+        manager.deleteSubtasks();
+    }
+}
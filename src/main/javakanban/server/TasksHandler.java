@@ -0,0 +1,45 @@
+package main.javakanban.server;
+
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+
+import java.util.stream.Stream;
+
+// /tasks
+class TasksHandler extends ResourceHandler {
+
+    TasksHandler(TaskManager manager, ResponseCache cache) {
+        super(manager, TaskType.TASK, cache);
+    }
+
+    @Override
+    protected Stream<Task> list() {
+        return manager.streamTasks();
+    }
+
+    @Override
+    protected Task get(int id) {
+        return manager.getTaskByID(id);
+    }
+
+    @Override
+    protected Task create(Task task) {
+        return manager.addTask(task);
+    }
+
+    @Override
+    protected Task update(Task task) {
+        return manager.updateTask(task);
+    }
+
+    @Override
+    protected void delete(int id) {
+        manager.deleteTaskByID(id);
+    }
+
+    @Override
+    protected void deleteAll() {
+        manager.deleteTasks();
+    }
+}
@@ -0,0 +1,348 @@
+package main.javakanban.util;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+// Отображение int -> V с открытой адресацией без упаковки ключей: ключи лежат в int[], значения - в Object[].
+// Линейное пробирование, удаление через метки REMOVED; null в качестве значения не допускается.
+// Хеш совпадает с HashMap для Integer, поэтому порядок обхода небольших ID тот же, что и у HashMap.
+// Методы Map<Integer, V> поддерживаются для совместимости, но упаковывают ключи - в горячем коде
+// нужны get(int), put(int, V), remove(int) и containsKey(int).
+public class IntHashMap<V> extends AbstractMap<Integer, V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final Object REMOVED = new Object();
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    // Занятые слоты вместе с метками удаления
+    private int used;
+    private int modCount;
+    private Set<Entry<Integer, V>> entrySet;
+    private Collection<V> valuesView;
+
+    public IntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize * 4 / 3, DEFAULT_CAPACITY - 1)) << 1;
+        keys = new int[capacity];
+        values = new Object[capacity];
+    }
+
+    public V get(int key) {
+        int index = indexOf(key);
+        return index < 0 ? null : value(index);
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    public V put(int key, V value) {
+        Objects.requireNonNull(value, "Значение не может быть null");
+        int mask = keys.length - 1;
+        int free = -1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            Object current = values[i];
+            if (current == null) {
+                if (free < 0) {
+                    free = i;
+                    used++;
+                }
+                keys[free] = key;
+                values[free] = value;
+                size++;
+                modCount++;
+                if (used > keys.length / 4 * 3) {
+                    rehash();
+                }
+                return null;
+            }
+            if (current == REMOVED) {
+                if (free < 0) {
+                    free = i;
+                }
+            } else if (keys[i] == key) {
+                V previous = value(i);
+                values[i] = value;
+                return previous;
+            }
+        }
+    }
+
+    public V remove(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        V removed = value(index);
+        removeAt(index);
+        return removed;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer ? get(((Integer) key).intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey(((Integer) key).intValue());
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Integer ? remove(((Integer) key).intValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        used = 0;
+        modCount++;
+    }
+
+    // Обход пар ключ-значение без упаковки ключей
+    public void forEachEntry(ObjIntConsumer<? super V> action) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < keys.length; i++) {
+            Object value = values[i];
+            if (value != null && value != REMOVED) {
+                action.accept(value(i), keys[i]);
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        }
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new AbstractCollection<>() {
+                @Override
+                public Iterator<V> iterator() {
+                    return new SlotIterator<>() {
+                        @Override
+                        V element(int index) {
+                            return value(index);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public void clear() {
+                    IntHashMap.this.clear();
+                }
+            };
+        }
+        return valuesView;
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Integer, V>> iterator() {
+                    return new SlotIterator<>() {
+                        @Override
+                        Entry<Integer, V> element(int index) {
+                            return new SlotEntry(index);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public void clear() {
+                    IntHashMap.this.clear();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            Object current = values[i];
+            if (current == null) {
+                return -1;
+            }
+            if (current != REMOVED && keys[i] == key) {
+                return i;
+            }
+        }
+    }
+
+    private void removeAt(int index) {
+        int mask = keys.length - 1;
+        values[index] = REMOVED;
+        size--;
+        modCount++;
+        // Если за удалённым слотом пусто, метки в конце цепочки больше не нужны
+        if (values[(index + 1) & mask] == null) {
+            for (int i = index; values[i] == REMOVED; i = (i - 1) & mask) {
+                values[i] = null;
+                used--;
+            }
+        }
+    }
+
+    // Растёт, только если таблица действительно заполнена; иначе лишь вычищает метки удаления
+    private void rehash() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int capacity = size >= oldKeys.length / 2 ? oldKeys.length * 2 : oldKeys.length;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = size;
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object value = oldValues[j];
+            if (value != null && value != REMOVED) {
+                int i = hash(oldKeys[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = value;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int index) {
+        return (V) values[index];
+    }
+
+    private static int hash(int key) {
+        return key ^ (key >>> 16);
+    }
+
+    private abstract class SlotIterator<E> implements Iterator<E> {
+        private int next = advance(0);
+        private int current = -1;
+        private int expectedModCount = modCount;
+
+        abstract E element(int index);
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = advance(next + 1);
+            return element(current);
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            // Метка удаления не сдвигает другие элементы, поэтому обход продолжается корректно
+            values[current] = REMOVED;
+            size--;
+            modCount++;
+            expectedModCount = modCount;
+            current = -1;
+        }
+
+        private int advance(int from) {
+            int i = from;
+            while (i < values.length && (values[i] == null || values[i] == REMOVED)) {
+                i++;
+            }
+            return i;
+        }
+    }
+
+    private class SlotEntry implements Entry<Integer, V> {
+        private final int index;
+
+        SlotEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public Integer getKey() {
+            return keys[index];
+        }
+
+        @Override
+        public V getValue() {
+            return value(index);
+        }
+
+        @Override
+        public V setValue(V value) {
+            V previous = value(index);
+            values[index] = Objects.requireNonNull(value, "Значение не может быть null");
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry<?, ?> entry)) {
+                return false;
+            }
+            return Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return keys[index] ^ Objects.hashCode(value(index));
+        }
+    }
+}
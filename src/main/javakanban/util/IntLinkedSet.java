@@ -0,0 +1,246 @@
+package main.javakanban.util;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+// Множество int с порядком добавления, без упаковки: открытая адресация по ключу
+// плюс двусвязный список слотов в массивах next/prev, как в LinkedHashSet.
+// Добавление, удаление и проверка - O(1); повторное добавление элемента не меняет его позицию.
+public class IntLinkedSet extends AbstractSet<Integer> {
+
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final byte FREE = 0;
+    private static final byte FULL = 1;
+    private static final byte REMOVED = 2;
+
+    private int[] keys;
+    private int[] next;
+    private int[] prev;
+    private byte[] states;
+    private int head = -1;
+    private int tail = -1;
+    private int size;
+    // Занятые слоты вместе с метками удаления
+    private int used;
+    private int modCount;
+
+    public IntLinkedSet() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    public boolean add(int value) {
+        int mask = keys.length - 1;
+        int free = -1;
+        for (int i = hash(value) & mask; ; i = (i + 1) & mask) {
+            byte state = states[i];
+            if (state == FREE) {
+                if (free < 0) {
+                    free = i;
+                    used++;
+                }
+                break;
+            }
+            if (state == REMOVED) {
+                if (free < 0) {
+                    free = i;
+                }
+            } else if (keys[i] == value) {
+                return false;
+            }
+        }
+        keys[free] = value;
+        states[free] = FULL;
+        link(free);
+        size++;
+        modCount++;
+        if (used > keys.length / 4 * 3) {
+            rehash(size >= keys.length / 2 ? keys.length * 2 : keys.length);
+        }
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int index = indexOf(value);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    // Обход в порядке добавления без упаковки
+    public void forEachInt(IntConsumer action) {
+        int expectedModCount = modCount;
+        for (int i = head; i >= 0; i = next[i]) {
+            action.accept(keys[i]);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    public int[] toIntArray() {
+        int[] result = new int[size];
+        int position = 0;
+        for (int i = head; i >= 0; i = next[i]) {
+            result[position++] = keys[i];
+        }
+        return result;
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        return add(value.intValue());
+    }
+
+    @Override
+    public boolean remove(Object value) {
+        return value instanceof Integer && remove(((Integer) value).intValue());
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return value instanceof Integer && contains(((Integer) value).intValue());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        allocate(DEFAULT_CAPACITY);
+        modCount++;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int cursor = head;
+            private int current = -1;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return cursor >= 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (cursor < 0) {
+                    throw new NoSuchElementException();
+                }
+                current = cursor;
+                cursor = next[cursor];
+                return keys[current];
+            }
+
+            @Override
+            public void remove() {
+                if (current < 0) {
+                    throw new IllegalStateException();
+                }
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                removeAt(current);
+                expectedModCount = modCount;
+                current = -1;
+            }
+        };
+    }
+
+    private int indexOf(int value) {
+        int mask = keys.length - 1;
+        for (int i = hash(value) & mask; ; i = (i + 1) & mask) {
+            byte state = states[i];
+            if (state == FREE) {
+                return -1;
+            }
+            if (state == FULL && keys[i] == value) {
+                return i;
+            }
+        }
+    }
+
+    // Слот помечается удалённым, а не освобождается: так не рвутся цепочки пробирования
+    // и не сдвигаются слоты, на которые ссылаются next/prev
+    private void removeAt(int index) {
+        int before = prev[index];
+        int after = next[index];
+        if (before >= 0) {
+            next[before] = after;
+        } else {
+            head = after;
+        }
+        if (after >= 0) {
+            prev[after] = before;
+        } else {
+            tail = before;
+        }
+        states[index] = REMOVED;
+        size--;
+        modCount++;
+    }
+
+    private void link(int index) {
+        prev[index] = tail;
+        next[index] = -1;
+        if (tail >= 0) {
+            next[tail] = index;
+        } else {
+            head = index;
+        }
+        tail = index;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldNext = next;
+        int oldHead = head;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int j = oldHead; j >= 0; j = oldNext[j]) {
+            int i = hash(oldKeys[j]) & mask;
+            while (states[i] != FREE) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = oldKeys[j];
+            states[i] = FULL;
+            link(i);
+            size++;
+            used++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        states = new byte[capacity];
+        head = -1;
+        tail = -1;
+        size = 0;
+        used = 0;
+    }
+
+    private static int hash(int value) {
+        return value ^ (value >>> 16);
+    }
+}
@@ -0,0 +1,76 @@
+package converter;
+
+import main.javakanban.converter.CsvConverter;
+import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvConverterTest {
+
+    @Test
+    public void toCsv_plainTask_sameAsPreviousFormat() {
+        Task task = new Task(1, "Задача", "Описание", Status.NEW);
+        task.setDuration(Duration.ofMinutes(90));
+        task.setStartTime(LocalDateTime.of(2025, 9, 25, 10, 0));
+
+        assertEquals("1,TASK,Задача,NEW,Описание,90,2025-09-25T10:00,", CsvConverter.toCsv(task));
+        assertEquals("2,EPIC,Эпик,DONE,null,,,", CsvConverter.toCsv(new Epic(2, "Эпик", null, Status.DONE)));
+    }
+
+    @Test
+    public void toCsv_startTime_sameAsLocalDateTimeToString() {
+        LocalDateTime[] times = {
+                LocalDateTime.of(2025, 1, 2, 3, 4),
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5),
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5, 120_000_000),
+                LocalDateTime.of(2025, 1, 2, 3, 4, 0, 120_000),
+                LocalDateTime.of(2025, 1, 2, 3, 4, 0, 7),
+                LocalDateTime.of(-5, 1, 2, 3, 4),
+                LocalDateTime.of(12345, 1, 2, 3, 4)
+        };
+        for (LocalDateTime time : times) {
+            Task task = new Task(1, "Задача", "Описание", Status.NEW);
+            task.setStartTime(time);
+
+            assertEquals("1,TASK,Задача,NEW,Описание,," + time + ",", CsvConverter.toCsv(task));
+            assertEquals(time, CsvConverter.fromCsv(CsvConverter.toCsv(task)).getStartTime());
+        }
+    }
+
+    @Test
+    public void toCsv_specialCharacters_quotedAndRestored() {
+        Subtask subtask = new Subtask("Купить: хлеб, молоко", "Сказали \"срочно\"\nвторая строка", Status.NEW, 5);
+        subtask.setId(3);
+
+        String csv = CsvConverter.toCsv(subtask);
+        assertEquals("3,SUBTASK,\"Купить: хлеб, молоко\",NEW,\"Сказали \"\"срочно\"\"\nвторая строка\",,,5", csv);
+
+        Subtask restored = (Subtask) CsvConverter.fromCsv(csv);
+        assertEquals(subtask.getName(), restored.getName());
+        assertEquals(subtask.getDescription(), restored.getDescription());
+        assertEquals(5, restored.getEpicId());
+    }
+
+    @Test
+    public void appendCsv_reusedBuilder_appendsRow() {
+        StringBuilder out = new StringBuilder("ADD,");
+
+        CsvConverter.appendCsv(new Task(7, "Задача", "Описание", Status.IN_PROGRESS), out);
+
+        assertEquals("ADD,7,TASK,Задача,IN_PROGRESS,Описание,,,", out.toString());
+    }
+
+    @Test
+    public void split_unclosedQuote_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> CsvConverter.split("1,TASK,\"Имя,NEW"));
+        assertTrue(CsvConverter.hasOpenQuote("1,TASK,\"Имя,NEW"));
+        assertFalse(CsvConverter.hasOpenQuote("1,TASK,\"Имя \"\"в кавычках\"\"\",NEW"));
+    }
+}
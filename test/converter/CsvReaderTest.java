@@ -0,0 +1,85 @@
+package converter;
+
+import main.javakanban.converter.CsvReader;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvReaderTest {
+
+    @Test
+    public void next_currentHeader_readsAllRows() throws IOException {
+        List<Task> tasks = readAll("id,type,name,status,description,duration,startTime,epic\n"
+                + "1,TASK,Задача,NEW,Описание,90,2025-09-25T10:00,\n"
+                + "3,SUBTASK,Подзадача,DONE,Описание,30,2025-09-26T11:00,2\n"
+                + "2,EPIC,Эпик,NEW,Описание,null,null,\n", new ArrayList<>());
+
+        assertEquals(3, tasks.size());
+        assertEquals(TaskType.SUBTASK, tasks.get(1).getType(), "Подзадача читается до своего эпика");
+        assertEquals(2, ((Subtask) tasks.get(1)).getEpicId());
+    }
+
+    @Test
+    public void next_corruptRows_skippedWithLineNumbers() throws IOException {
+        List<Integer> errorLines = new ArrayList<>();
+        List<Task> tasks = readAll("id,type,name,status,description,duration,startTime,epic\n"
+                + "1,TASK,Задача,NEW,Описание,,,\n"
+                + "2,UNKNOWN,Задача,NEW,Описание,,,\n"
+                + "\n"
+                + "4,TASK,Задача,NEW,Описание,abc,,\n"
+                + "5,SUBTASK,Подзадача,NEW,Описание,,,\n"
+                + "6,TASK,Задача,DONE,Описание,,,\n", errorLines);
+
+        assertEquals(List.of(1, 6), tasks.stream().map(Task::getId).toList());
+        assertEquals(List.of(3, 5, 6), errorLines, "Ошибки должны указывать номера строк файла");
+    }
+
+    @Test
+    public void next_bareQuoteInsideField_notTreatedAsOpenQuote() throws IOException {
+        List<Integer> errorLines = new ArrayList<>();
+        List<Task> tasks = readAll("id,type,name,status,description,duration,startTime,epic\n"
+                + "1,TASK,Купить 2\" трубу,NEW,Описание,,,\n"
+                + "2,TASK,\"Многострочное\nимя, с \"\"кавычками\"\"\",NEW,Описание,,,\n"
+                + "3,TASK,Задача,NEW,Описание,,,\n", errorLines);
+
+        assertTrue(errorLines.isEmpty(), errorLines.toString());
+        assertEquals(List.of(1, 2, 3), tasks.stream().map(Task::getId).toList());
+        assertEquals("Купить 2\" трубу", tasks.get(0).getName());
+        assertEquals("Многострочное\nимя, с \"кавычками\"", tasks.get(1).getName());
+    }
+
+    @Test
+    public void next_withoutHeader_firstLineIsData() throws IOException {
+        List<Task> tasks = readAll("1,TASK,Задача,NEW,Описание,15,2025-01-01T00:00,\n"
+                + "2,SUBTASK,Старый формат,NEW,Описание,7\n", new ArrayList<>());
+
+        assertEquals(2, tasks.size());
+        assertEquals(7, ((Subtask) tasks.get(1)).getEpicId());
+    }
+
+    @Test
+    public void next_exhausted_throwsNoSuchElement() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("id,type,name,status\n"))) {
+            assertFalse(reader.hasNext());
+            assertThrows(NoSuchElementException.class, reader::next);
+        }
+    }
+
+    private static List<Task> readAll(String csv, List<Integer> errorLines) throws IOException {
+        List<Task> result = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            reader.forEachRemaining(result::add);
+            reader.getErrors().forEach(error -> errorLines.add(error.getLineNumber()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package converter;
+
+import main.javakanban.converter.JsonConverter;
+import main.javakanban.converter.JsonParser;
+import main.javakanban.converter.JsonWriter;
+import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonConverterTest {
+
+    @Test
+    public void writer_specialCharacters_escapedAndParsedBack() throws IOException {
+        String text = "Кавычки \" и \\ слэш\nперевод\tтаб \u0001";
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject()
+                .name("text").value(text)
+                .name("list").beginArray().value(1).value(true).nullValue().beginObject().endObject().endArray()
+                .endObject();
+        json.flush();
+
+        assertEquals("{\"text\":\"Кавычки \\\" и \\\\ слэш\\nперевод\\tтаб \\u0001\",\"list\":[1,true,null,{}]}",
+                out.toString());
+        Map<String, Object> parsed = JsonParser.parseObject(out.toString());
+        assertEquals(text, parsed.get("text"), "Строка восстанавливается без потерь");
+        assertEquals(4, ((List<?>) parsed.get("list")).size());
+    }
+
+    @Test
+    public void parse_numbersAndUnicodeEscapes_typedValues() {
+        Object parsed = JsonParser.parse(" [ -12 , 3.5e2, \"\\u0436\\/\" , false ] ");
+
+        assertEquals(List.of(-12L, 350.0, "ж/", false), parsed);
+    }
+
+    @Test
+    public void parse_malformed_throwsWithPosition() {
+        for (String malformed : new String[]{"", "{", "{\"a\" 1}", "[1,]", "{\"a\":tru}", "\"без конца", "1 2", "-"}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> JsonParser.parse(malformed),
+                    "Некорректный JSON отклоняется: " + malformed);
+            assertTrue(e.getMessage().contains("позиция"), e.getMessage());
+        }
+        assertThrows(IllegalArgumentException.class, () -> JsonParser.parse("[".repeat(100) + "]".repeat(100)),
+                "Слишком глубокая вложенность отклоняется");
+    }
+
+    @Test
+    public void fromJson_writtenTask_roundTrips() throws IOException {
+        Subtask subtask = new Subtask("Подзадача", "Описание, с запятой", Status.IN_PROGRESS, 7);
+        subtask.setId(12);
+        subtask.setDuration(Duration.ofMinutes(90));
+        subtask.setStartTime(LocalDateTime.of(2025, 3, 1, 10, 15));
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        JsonConverter.writeTask(subtask, json);
+        json.flush();
+
+        Map<String, Object> parsed = JsonParser.parseObject(out.toString());
+        assertEquals("2025-03-01T11:45", parsed.get("endTime"));
+        Subtask restored = (Subtask) JsonConverter.fromJson(parsed, TaskType.SUBTASK);
+        assertEquals(subtask, restored);
+        assertEquals(7, restored.getEpicId());
+        assertEquals(Status.IN_PROGRESS, restored.getStatus());
+        assertEquals(subtask.getStartTime(), restored.getStartTime());
+        assertEquals(subtask.getDuration(), restored.getDuration());
+    }
+
+    @Test
+    public void writeTask_epic_listsSubtaskIds() throws IOException {
+        Epic epic = new Epic(3, "Эпик", "Описание", Status.NEW);
+        epic.addSubtask(4);
+        epic.addSubtask(5);
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        JsonConverter.writeTasks(List.<Task>of(epic).iterator(), json);
+        json.flush();
+
+        List<?> parsed = (List<?>) JsonParser.parse(out.toString());
+        assertEquals(List.of(4L, 5L), ((Map<?, ?>) parsed.getFirst()).get("subtasks"));
+    }
+
+    @Test
+    public void fromJson_invalidFields_rejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonConverter.fromJson(JsonParser.parseObject("{\"name\":\"Подзадача\"}"), TaskType.SUBTASK),
+                "Подзадача без эпика отклоняется");
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonConverter.fromJson(JsonParser.parseObject("{\"status\":\"LATER\"}"), TaskType.TASK));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonConverter.fromJson(JsonParser.parseObject("{\"duration\":\"час\"}"), TaskType.TASK));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonConverter.fromJson(JsonParser.parseObject("{\"startTime\":\"вчера\"}"), TaskType.TASK));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonConverter.fromJson(JsonParser.parseObject("{\"type\":\"EPIC\"}"), TaskType.TASK),
+                "Тип в теле должен совпадать с ресурсом");
+    }
+}
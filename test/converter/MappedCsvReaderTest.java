@@ -0,0 +1,154 @@
+package converter;
+
+import main.javakanban.converter.CsvConverter;
+import main.javakanban.converter.MappedCsvReader;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedCsvReaderTest {
+
+    private static final List<String> ROWS = List.of(
+            "1,TASK,Первое задание,NEW,Описание первого задания,90,2025-09-25T10:00,",
+            "2,EPIC,Первый эпик,IN_PROGRESS,Описание эпика,null,null,",
+            "3,SUBTASK,Первая подзадача,DONE,Описание подзадачи,30,2025-09-26T11:00:15.123,2",
+            "4,SUBTASK,Старый формат,NEW,Описание,2",
+            "5,TASK,С секундами,NEW,,15,2025-01-01T00:00:59,"
+    );
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("mapped", ".csv");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void read_allFormats_sameAsCsvConverter() throws IOException {
+        Files.writeString(file, "id,type,name,status,description,duration,startTime,epic\n"
+                + String.join("\r\n", ROWS), StandardCharsets.UTF_8);
+
+        assertRowsMatch(readAll(new MappedCsvReader(file)));
+    }
+
+    @Test
+    public void read_smallWindow_linesAcrossWindowBoundaries() throws IOException {
+        Files.writeString(file, "id,type,name,status,description,duration,startTime,epic\n"
+                + String.join("\n", ROWS) + "\n", StandardCharsets.UTF_8);
+
+        assertRowsMatch(readAll(new MappedCsvReader(file, 128)));
+    }
+
+    @Test
+    public void read_heapWindows_sameAsMapped() throws IOException {
+        Files.writeString(file, "id,type,name,status,description,duration,startTime,epic\n"
+                + String.join("\n", ROWS) + "\n", StandardCharsets.UTF_8);
+
+        assertRowsMatch(readAll(new MappedCsvReader(file, 128, false)));
+    }
+
+    @Test
+    public void read_recordsLongerThanWindow_windowGrows() throws IOException {
+        Files.writeString(file, "id,type,name,status,description,duration,startTime,epic\n"
+                + String.join("\n", ROWS) + "\n", StandardCharsets.UTF_8);
+
+        // Заголовок и каждая строка длиннее окна
+        assertRowsMatch(readAll(new MappedCsvReader(file, 16, true)));
+        assertRowsMatch(readAll(new MappedCsvReader(file, 16, false)));
+    }
+
+    @Test
+    public void read_onlyHeader_returnsNull() throws IOException {
+        Files.writeString(file, "id,type,name,status,description,duration,startTime,epic\n");
+
+        try (MappedCsvReader reader = new MappedCsvReader(file)) {
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    public void read_corruptRow_skippedAndReportedWithLineNumber() throws IOException {
+        Files.writeString(file, "id,type,name,status,description,duration,startTime,epic\n"
+                + ROWS.get(0) + "\nX,TASK,Имя,NEW,Описание,,,\n" + ROWS.get(1) + "\n", StandardCharsets.UTF_8);
+
+        try (MappedCsvReader reader = new MappedCsvReader(file)) {
+            assertEquals(1, reader.read().getId());
+            assertEquals(2, reader.read().getId(), "Чтение должно продолжиться после некорректной строки");
+            assertNull(reader.read());
+            assertEquals(1, reader.getErrors().size());
+            assertEquals(3, reader.getErrors().getFirst().getLineNumber());
+        }
+    }
+
+    @Test
+    public void read_reorderedHeader_columnsMappedByName() throws IOException {
+        Files.writeString(file, "id,type,name,status,description,epic\n"
+                + "7,SUBTASK,Подзадача,NEW,Описание,3\n", StandardCharsets.UTF_8);
+
+        try (MappedCsvReader reader = new MappedCsvReader(file)) {
+            Subtask subtask = (Subtask) reader.read();
+            assertEquals(3, subtask.getEpicId());
+            assertNull(subtask.getDuration());
+            assertFalse(reader.getFormat().isCurrent());
+        }
+    }
+
+    @Test
+    public void read_quotedFieldWithNewline_singleRecord() throws IOException {
+        Files.writeString(file, "id,type,name,status,description,duration,startTime,epic\n"
+                + "1,TASK,\"Имя, с запятой\",NEW,\"Первая\nвторая\",,,\n"
+                + "X,TASK,Имя,NEW,Описание,,,\n", StandardCharsets.UTF_8);
+
+        try (MappedCsvReader reader = new MappedCsvReader(file)) {
+            Task task = reader.read();
+            assertEquals("Имя, с запятой", task.getName());
+            assertEquals("Первая\nвторая", task.getDescription());
+            assertNull(reader.read());
+            assertEquals(4, reader.getErrors().getFirst().getLineNumber(), "Номер строки учитывает перевод внутри кавычек");
+        }
+    }
+
+    private static List<Task> readAll(MappedCsvReader reader) throws IOException {
+        List<Task> result = new ArrayList<>();
+        try (reader) {
+            for (Task task = reader.read(); task != null; task = reader.read()) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    private static void assertRowsMatch(List<Task> actual) {
+        assertEquals(ROWS.size(), actual.size());
+        for (int i = 0; i < ROWS.size(); i++) {
+            Task expected = CsvConverter.fromCsv(ROWS.get(i));
+            Task task = actual.get(i);
+            assertEquals(expected.getId(), task.getId());
+            assertEquals(expected.getType(), task.getType());
+            assertEquals(expected.getName(), task.getName());
+            assertEquals(expected.getStatus(), task.getStatus());
+            assertEquals(expected.getDescription(), task.getDescription());
+            assertEquals(expected.getDuration(), task.getDuration());
+            assertEquals(expected.getStartTime(), task.getStartTime());
+            if (expected instanceof Subtask) {
+                assertEquals(((Subtask) expected).getEpicId(), ((Subtask) task).getEpicId());
+            }
+        }
+    }
+}
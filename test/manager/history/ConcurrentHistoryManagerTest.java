@@ -0,0 +1,67 @@
+package manager.history;
+
+import main.javakanban.manager.history.ConcurrentHistoryManager;
+import main.javakanban.model.Status;
+import main.javakanban.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentHistoryManagerTest extends HistoryManagerTest<ConcurrentHistoryManager> {
+
+    @Override
+    protected ConcurrentHistoryManager createManager() {
+        return new ConcurrentHistoryManager();
+    }
+
+    @Override
+    protected ConcurrentHistoryManager createManager(int capacity) {
+        return new ConcurrentHistoryManager(capacity);
+    }
+
+    @Test
+    public void concurrentAddAndRead_historyStaysDeduplicated() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            tasks.add(new Task(i, "Задача " + i, "", Status.NEW));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 5_000; i++) {
+                    historyManager.add(tasks.get((i * 7 + offset) % tasks.size()));
+                    if (i % 100 == 0) {
+                        List<Task> history = historyManager.getHistory();
+                        Set<Integer> ids = new HashSet<>();
+                        history.forEach(task -> assertTrue(ids.add(task.getId()), "Дубликат в истории"));
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(tasks.size(), historyManager.getHistory().size());
+        historyManager.add(tasks.getFirst());
+        assertEquals(tasks.getFirst(), historyManager.getHistory().getLast(), "Повторный просмотр переносит задачу в конец");
+    }
+}
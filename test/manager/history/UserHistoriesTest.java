@@ -0,0 +1,46 @@
+package manager.history;
+
+import main.javakanban.manager.history.InMemoryHistoryManager;
+import main.javakanban.manager.history.UserHistories;
+import main.javakanban.model.Status;
+import main.javakanban.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserHistoriesTest {
+
+    @Test
+    public void getHistory_unknownUser_emptyWithoutCreatingHistory() {
+        UserHistories histories = new UserHistories(InMemoryHistoryManager::new);
+
+        assertTrue(histories.getHistory("гость").isEmpty());
+        assertEquals(0, histories.size(), "Чтение не должно создавать историю");
+    }
+
+    @Test
+    public void forUser_overCapacity_evictsLeastRecentlyUsedUser() {
+        UserHistories histories = new UserHistories(InMemoryHistoryManager::new, 2);
+        Task task = new Task(1, "Задача", "", Status.NEW);
+        histories.forUser("alice").add(task);
+        histories.forUser("bob").add(task);
+        histories.getHistory("alice");
+
+        histories.forUser("carol").add(task);
+
+        assertEquals(2, histories.size());
+        assertEquals(List.of(task), histories.getHistory("alice"), "Недавно читавший пользователь остаётся");
+        assertTrue(histories.getHistory("bob").isEmpty(), "Дольше всех неактивный пользователь вытесняется");
+
+        assertTrue(histories.removeUser("alice"));
+        assertFalse(histories.removeUser("alice"));
+        assertEquals(1, histories.size());
+    }
+
+    @Test
+    public void constructor_nonPositiveCapacity_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new UserHistories(InMemoryHistoryManager::new, 0));
+    }
+}
@@ -0,0 +1,100 @@
+package test.manager.metrics;
+
+import main.javakanban.exception.TimeIntervalConflictException;
+import main.javakanban.manager.Managers;
+import main.javakanban.manager.metrics.InstrumentedTaskManager;
+import main.javakanban.manager.metrics.OperationStats;
+import main.javakanban.manager.task.FileBackedTaskManager;
+import main.javakanban.manager.task.InMemoryTaskManager;
+import main.javakanban.model.Status;
+import main.javakanban.model.Task;
+import org.junit.jupiter.api.Test;
+import test.manager.task.TaskManagerTest;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InstrumentedTaskManagerTest extends TaskManagerTest<InstrumentedTaskManager> {
+
+    @Override
+    protected InstrumentedTaskManager createManager() {
+        InMemoryTaskManager delegate = new InMemoryTaskManager();
+        delegate.setEpicStatusVerification(true);
+        return Managers.getInstrumented(delegate);
+    }
+
+    @Test
+    public void metrics_callsAndConflicts_countedPerOperation() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        manager.addTask(timed(start));
+        assertThrows(TimeIntervalConflictException.class, () -> manager.addTask(timed(start)));
+        for (int i = 0; i < 10; i++) {
+            manager.getPrioritizedTasks();
+        }
+
+        OperationStats addTask = manager.getMetrics().get("addTask");
+        assertEquals(2, addTask.getCalls());
+        assertEquals(1, addTask.getErrors());
+        assertEquals(1L, addTask.getErrorsByType().get("TimeIntervalConflictException"));
+        assertEquals(10, manager.getMetrics().get("getPrioritizedTasks").getCalls());
+        assertTrue(addTask.getLatency().getValueAtPercentile(99.9) >= addTask.getLatency().getValueAtPercentile(50));
+
+        String dump = manager.getMetrics().getTextDump();
+        assertTrue(dump.contains("addTask"), dump);
+        assertFalse(dump.contains("deleteEpics"), "Невызванные операции не выводятся");
+
+        manager.getMetrics().reset();
+        assertEquals(0, manager.getMetrics().get("addTask").getCalls());
+    }
+
+    @Test
+    public void metrics_registeredOverJmx_readableAsCompositeData() throws Exception {
+        manager.addTask(new Task(null, "Задача", "", Status.NEW));
+        ObjectName name = manager.getMetrics().registerMBean("test-" + System.nanoTime());
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            CompositeData[] operations = (CompositeData[]) server.getAttribute(name, "Operations");
+            CompositeData addTask = null;
+            for (CompositeData operation : operations) {
+                if ("addTask".equals(operation.get("name"))) {
+                    addTask = operation;
+                }
+            }
+            assertNotNull(addTask);
+            assertEquals(1L, addTask.get("calls"));
+            assertTrue(((String) server.getAttribute(name, "TextDump")).contains("addTask"));
+        } finally {
+            manager.getMetrics().unregisterMBean();
+        }
+    }
+
+    @Test
+    public void fileBackedDelegate_saveTimedByManager() throws IOException {
+        File file = File.createTempFile("instrumented", ".csv");
+        file.deleteOnExit();
+        try {
+            InstrumentedTaskManager instrumented = Managers.getInstrumented(new FileBackedTaskManager(file));
+            ((FileBackedTaskManager) instrumented.getDelegate()).compact();
+
+            assertEquals(1, instrumented.getMetrics().get("save").getCalls());
+        } finally {
+            file.delete();
+            new File(file.getPath() + ".journal").delete();
+        }
+    }
+
+    private static Task timed(LocalDateTime start) {
+        Task task = new Task(null, "Задача", "", Status.NEW);
+        task.setStartTime(start);
+        task.setDuration(Duration.ofMinutes(30));
+        return task;
+    }
+}
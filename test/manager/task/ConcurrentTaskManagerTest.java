@@ -0,0 +1,170 @@
+package test.manager.task;
+
+import main.javakanban.exception.TimeIntervalConflictException;
+import main.javakanban.manager.task.ConcurrentTaskManager;
+import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
+import main.javakanban.model.Subtask;
+import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 2_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Override
+    protected ConcurrentTaskManager createManager() {
+        ConcurrentTaskManager manager = new ConcurrentTaskManager();
+        manager.setEpicStatusVerification(true);
+        return manager;
+    }
+
+    @Test
+    public void stress_concurrentMixedOperations_invariantsHold() throws Exception {
+        List<Epic> epicList = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            epicList.add(manager.addEpic(new Epic("Эпик " + i, "")));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    Epic epic = epicList.get(random.nextInt(epicList.size()));
+                    Task timed = new Task("T", "");
+                    timed.setStartTime(BASE.plusMinutes(random.nextInt(100_000)));
+                    timed.setDuration(Duration.ofMinutes(1 + random.nextInt(30)));
+                    switch (random.nextInt(6)) {
+                        case 0 -> addIgnoringConflict(timed);
+                        case 1 -> {
+                            Subtask subtask = new Subtask("S", "", Status.values()[random.nextInt(3)], epic.getId());
+                            subtask.setStartTime(timed.getStartTime());
+                            subtask.setDuration(timed.getDuration());
+                            addIgnoringConflict(subtask);
+                        }
+                        case 2 -> {
+                            List<Subtask> epicSubtasks = manager.getEpicSubtasks(epic.getId());
+                            if (!epicSubtasks.isEmpty()) {
+                                manager.deleteSubtaskByID(epicSubtasks.getFirst().getId());
+                            }
+                        }
+                        case 3 -> manager.getPrioritizedTasks();
+                        case 4 -> manager.getTasks().forEach(task -> manager.getTaskByID(task.getId()));
+                        default -> manager.getEpicByID(epic.getId());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Set<Integer> ids = new HashSet<>();
+        manager.getTasks().forEach(task -> assertTrue(ids.add(task.getId()), "ID должны быть уникальны"));
+        manager.getEpics().forEach(epic -> assertTrue(ids.add(epic.getId()), "ID должны быть уникальны"));
+        manager.getSubtasks().forEach(subtask -> assertTrue(ids.add(subtask.getId()), "ID должны быть уникальны"));
+
+        int linked = 0;
+        for (Epic epic : manager.getEpics()) {
+            List<Subtask> epicSubtasks = manager.getEpicSubtasks(epic.getId());
+            linked += epicSubtasks.size();
+            assertEquals(expectedStatus(epicSubtasks), epic.getStatus(), "Статус эпика не совпадает с подзадачами");
+        }
+        assertEquals(manager.getSubtasks().size(), linked, "Каждая подзадача должна быть привязана к эпику");
+
+        for (Status status : Status.values()) {
+            long expected = manager.getSubtasks().stream().filter(s -> s.getStatus() == status).count();
+            assertEquals(expected, manager.countByStatus(TaskType.SUBTASK, status), "Индекс статусов разошёлся с данными");
+            assertEquals(expected, manager.getByStatus(TaskType.SUBTASK, status).size());
+            long epicCount = manager.getEpics().stream().filter(e -> e.getStatus() == status).count();
+            assertEquals(epicCount, manager.countByStatus(TaskType.EPIC, status), "Индекс статусов эпиков разошёлся");
+        }
+
+        List<Task> prioritized = manager.getPrioritizedTasks();
+        assertEquals(manager.getTasks().size() + manager.getSubtasks().size(), prioritized.size());
+        for (int i = 1; i < prioritized.size(); i++) {
+            Task previous = prioritized.get(i - 1);
+            Task current = prioritized.get(i);
+            if (previous.getEndTime() != null && current.getStartTime() != null) {
+                assertFalse(previous.getEndTime().isAfter(current.getStartTime()), "Интервалы не должны пересекаться");
+            }
+        }
+    }
+
+    @Test
+    public void getTasks_readersDuringWrites_neverSeeStaleSnapshotAfterWrite() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch done = new CountDownLatch(1);
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            readers.add(executor.submit(() -> {
+                int seen = 0;
+                while (done.getCount() > 0) {
+                    int size = manager.getTasks().size();
+                    assertTrue(size >= seen, "Снимок не должен откатываться к более старой версии");
+                    seen = size;
+                }
+                return null;
+            }));
+        }
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            manager.addTask(new Task("T" + i, ""));
+            assertEquals(i + 1, manager.getTasks().size(), "Писатель должен сразу видеть свою запись");
+        }
+        done.countDown();
+        for (Future<?> reader : readers) {
+            reader.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertTrue(manager.getSnapshotHits() > 0, "Повторные чтения без записи должны попадать в снимок");
+    }
+
+    private void addIgnoringConflict(Task task) {
+        try {
+            if (task instanceof Subtask subtask) {
+                manager.addSubtask(subtask);
+            } else {
+                manager.addTask(task);
+            }
+        } catch (TimeIntervalConflictException ignored) {
+            // ожидаемо при случайном расписании
+        }
+    }
+
+    private static Status expectedStatus(List<Subtask> epicSubtasks) {
+        if (epicSubtasks.stream().allMatch(s -> s.getStatus() == Status.NEW)) {
+            return Status.NEW;
+        }
+        if (epicSubtasks.stream().allMatch(s -> s.getStatus() == Status.DONE)) {
+            return Status.DONE;
+        }
+        return Status.IN_PROGRESS;
+    }
+}
@@ -1,11 +1,13 @@
 package test.manager.task;
 
 import main.javakanban.manager.task.FileBackedTaskManager;
+import main.javakanban.manager.task.FlushPolicy;
 import main.javakanban.exception.ManagerSaveException;
 import main.javakanban.model.Epic;
 import main.javakanban.model.Status;
 import main.javakanban.model.Subtask;
 import main.javakanban.model.Task;
+import main.javakanban.model.TaskType;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +16,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -200,6 +207,11 @@ public class FileBackedTaskManagerTest {
         if (tempFile.exists()) {
             tempFile.delete();
         }
+        journalOf(tempFile).delete();
+    }
+
+    private static File journalOf(File file) {
+        return new File(file.getPath() + ".journal");
     }
 
     @Test
@@ -216,4 +228,399 @@ public class FileBackedTaskManagerTest {
         assertThrows(ManagerSaveException.class, () -> mgr.addTask(willFailOnSave),
                 "Запись в директорию должна приводить к ManagerSaveException");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void mutations_appendToJournal_snapshotRewrittenOnlyOnCompaction() throws IOException {
+        FileBackedTaskManager mgr = new FileBackedTaskManager(tempFile, 3);
+        mgr.addTask(new Task(null, "A", "a", Status.NEW));
+        mgr.addTask(new Task(null, "B", "b", Status.NEW));
+
+        assertEquals(0, tempFile.length(), "До свёртки снапшот не должен переписываться");
+        assertEquals(2, Files.readAllLines(journalOf(tempFile).toPath()).size());
+        assertEquals(2, new FileBackedTaskManager(tempFile).getTasks().size());
+
+        mgr.addTask(new Task(null, "C", "c", Status.NEW));
+
+        assertFalse(journalOf(tempFile).exists(), "После свёртки журнал должен быть очищен");
+        assertEquals(4, Files.readAllLines(tempFile.toPath()).size());
+        assertEquals(3, new FileBackedTaskManager(tempFile).getTasks().size());
+    }
+
+    @Test
+    public void compaction_failedSnapshotWrite_keepsOldSnapshotAndJournal() throws IOException {
+        FileBackedTaskManager mgr = new FileBackedTaskManager(tempFile, 100);
+        mgr.addTask(new Task(null, "A", "a", Status.NEW));
+        List<String> snapshot = Files.readAllLines(tempFile.toPath());
+        mgr.addTask(new Task(null, "B", "b", Status.NEW));
+        mgr.addTask(new Task(null, "C", "c", Status.NEW));
+
+        // Временный файл снапшота недоступен для записи - свёртка обрывается
+        Path temp = Path.of(tempFile.getPath() + ".tmp");
+        Files.createDirectory(temp);
+        Files.createFile(temp.resolve("busy"));
+        try {
+            assertThrows(ManagerSaveException.class, mgr::compact);
+
+            assertEquals(snapshot, Files.readAllLines(tempFile.toPath()), "Старый снапшот не должен портиться");
+            assertTrue(journalOf(tempFile).exists(), "Журнал не должен удаляться без нового снапшота");
+            assertEquals(3, new FileBackedTaskManager(tempFile).getTasks().size());
+        } finally {
+            Files.delete(temp.resolve("busy"));
+            Files.delete(temp);
+        }
+    }
+
+    @Test
+    public void loadFromFile_legacyBareQuote_readAsPlainCharacter() throws IOException {
+        // Старый toCsv не экранировал поля: кавычка посреди имени или описания - обычный символ
+        Files.writeString(tempFile.toPath(), "id,type,name,status,description,duration,startTime,epic\n"
+                + "1,TASK,Купить 2\" трубу,NEW,Описание,null,null,\n"
+                + "2,EPIC,Ремонт,NEW,Дюймы: 1\",null,null,\n"
+                + "3,SUBTASK,Подзадача,DONE,Описание,null,null,2\n"
+                + "4,TASK,Последняя,NEW,Описание,null,null,\n");
+
+        FileBackedTaskManager loaded = new FileBackedTaskManager(tempFile);
+
+        assertTrue(loaded.getLoadErrors().isEmpty(), loaded.getLoadErrors().toString());
+        assertEquals(2, loaded.getTasks().size());
+        assertEquals(1, loaded.getEpics().size());
+        assertEquals(1, loaded.getSubtasks().size());
+        assertEquals("Купить 2\" трубу", loaded.getTaskByID(1).getName());
+        assertEquals("Дюймы: 1\"", loaded.getEpicByID(2).getDescription());
+    }
+
+    @Test
+    public void deleteEpic_replayedFromJournal_subtasksRemoved() {
+        Epic epic = manager.addEpic(new Epic(null, "Эпик", "Описание", Status.NEW));
+        manager.addSubtask(new Subtask("S1", "", Status.DONE, epic.getId()));
+        Epic other = manager.addEpic(new Epic(null, "Другой эпик", "Описание", Status.NEW));
+        Integer keptId = manager.addSubtask(new Subtask("S2", "", Status.DONE, other.getId()));
+        manager.deleteEpicByID(epic.getId());
+
+        FileBackedTaskManager reloaded = new FileBackedTaskManager(tempFile);
+
+        assertEquals(1, reloaded.getEpics().size());
+        assertEquals(1, reloaded.getSubtasks().size());
+        assertEquals(keptId, reloaded.getSubtasks().get(0).getId());
+        assertEquals(Status.DONE, reloaded.getEpicByID(other.getId()).getStatus());
+    }
+
+    @Test
+    public void updateAndClear_replayedFromJournal_stateMatches() {
+        Task task = manager.addTask(new Task(null, "Задача", "Описание", Status.NEW));
+        manager.updateTask(new Task(task.getId(), "Новое имя", "Новое описание", Status.DONE));
+        Epic epic = manager.addEpic(new Epic(null, "Эпик", "Описание", Status.NEW));
+        manager.addSubtask(new Subtask("S1", "", Status.NEW, epic.getId()));
+        manager.deleteSubtasks();
+
+        FileBackedTaskManager reloaded = new FileBackedTaskManager(tempFile);
+
+        assertEquals("Новое имя", reloaded.getTaskByID(task.getId()).getName());
+        assertEquals(Status.DONE, reloaded.getTaskByID(task.getId()).getStatus());
+        assertTrue(reloaded.getSubtasks().isEmpty(), "Очистка подзадач должна сохраняться");
+        assertEquals(1, reloaded.getEpics().size());
+    }
+
+    @Test
+    public void writeBehind_mutationsBuffered_untilBatchIsFull() throws IOException {
+        FileBackedTaskManager mgr = new FileBackedTaskManager(tempFile, FlushPolicy.writeBehind(3, 0));
+        mgr.addTask(new Task(null, "A", "a", Status.NEW));
+        mgr.addTask(new Task(null, "B", "b", Status.NEW));
+
+        assertEquals(2, mgr.getPendingWrites());
+        assertFalse(journalOf(tempFile).exists(), "До заполнения пачки журнал не должен записываться");
+
+        mgr.addTask(new Task(null, "C", "c", Status.NEW));
+
+        assertEquals(0, mgr.getPendingWrites());
+        assertEquals(1, mgr.getFlushCount());
+        assertEquals(3, Files.readAllLines(journalOf(tempFile).toPath()).size());
+    }
+
+    @Test
+    public void writeBehind_explicitFlushAndClose_persistPendingWrites() {
+        FileBackedTaskManager mgr = new FileBackedTaskManager(tempFile, FlushPolicy.writeBehind(100, 0));
+        Task task = mgr.addTask(new Task(null, "A", "a", Status.NEW));
+        mgr.flush();
+        assertEquals(1, new FileBackedTaskManager(tempFile).getTasks().size());
+
+        mgr.updateTask(new Task(task.getId(), "A2", "a2", Status.DONE));
+        mgr.addTask(new Task(null, "B", "b", Status.NEW));
+        mgr.close();
+
+        FileBackedTaskManager reloaded = new FileBackedTaskManager(tempFile);
+        assertEquals(2, reloaded.getTasks().size());
+        assertEquals("A2", reloaded.getTaskByID(task.getId()).getName());
+        assertTrue(mgr.getMaxFlushNanos() >= mgr.getLastFlushNanos());
+    }
+
+    @Test
+    public void writeBehind_backgroundFlusher_persistsByTimer() throws InterruptedException {
+        FileBackedTaskManager mgr = new FileBackedTaskManager(tempFile, FlushPolicy.writeBehind(1000, 10));
+        mgr.addTask(new Task(null, "A", "a", Status.NEW));
+        mgr.addTask(new Task(null, "B", "b", Status.NEW));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (mgr.getPendingWrites() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, mgr.getPendingWrites(), "Фоновый поток должен сбросить журнал");
+        assertEquals(2, new FileBackedTaskManager(tempFile).getTasks().size());
+        mgr.close();
+    }
+
+    @Test
+    public void binarySnapshot_compactAndReload_allFieldsPreserved() throws IOException {
+        File binary = File.createTempFile("taskstest", ".bin");
+        binary.delete();
+        try {
+            FileBackedTaskManager mgr = new FileBackedTaskManager(binary);
+            Task task = new Task(null, "Задача", "Длинное описание задачи, которое не интернируется", Status.IN_PROGRESS);
+            task.setStartTime(LocalDateTime.of(1969, 7, 20, 20, 17, 40));
+            task.setDuration(Duration.ofMinutes(90));
+            mgr.addTask(task);
+            Epic epic = mgr.addEpic(new Epic(null, "Эпик", "", Status.NEW));
+            Subtask subtask = new Subtask("Подзадача", "", Status.DONE, epic.getId());
+            subtask.setStartTime(LocalDateTime.of(2025, 3, 1, 9, 0));
+            subtask.setDuration(Duration.ofMinutes(15));
+            mgr.addSubtask(subtask);
+            mgr.compact();
+
+            FileBackedTaskManager reloaded = new FileBackedTaskManager(binary);
+
+            Task loadedTask = reloaded.getTaskByID(task.getId());
+            assertEquals(task.getName(), loadedTask.getName());
+            assertEquals(task.getDescription(), loadedTask.getDescription());
+            assertEquals(task.getStatus(), loadedTask.getStatus());
+            assertEquals(task.getStartTime(), loadedTask.getStartTime());
+            assertEquals(task.getDuration(), loadedTask.getDuration());
+
+            Subtask loadedSubtask = reloaded.getSubtaskByID(subtask.getId());
+            assertEquals(epic.getId(), loadedSubtask.getEpicId());
+            assertEquals("", loadedSubtask.getDescription());
+            assertEquals(subtask.getStartTime(), loadedSubtask.getStartTime());
+            assertEquals(Status.DONE, reloaded.getEpicByID(epic.getId()).getStatus());
+            assertTrue(reloaded.getEpicByID(epic.getId()).getSubtaskId().contains(subtask.getId()));
+        } finally {
+            binary.delete();
+            journalOf(binary).delete();
+        }
+    }
+
+    @Test
+    public void binarySnapshot_corruptStatusByte_loadsWithoutThrowing() throws IOException {
+        File binary = File.createTempFile("taskstest", ".bin");
+        binary.delete();
+        try {
+            // Первое изменение сразу пишет снапшот
+            new FileBackedTaskManager(binary).addTask(new Task(null, "Задача", "Описание", Status.NEW));
+            byte[] bytes = Files.readAllBytes(binary.toPath());
+            // Заголовок (4 байта сигнатуры и версия), тип, однобайтовый ID, затем статус
+            bytes[7] = 0x7F;
+            Files.write(binary.toPath(), bytes);
+
+            FileBackedTaskManager reloaded = assertDoesNotThrow(() -> new FileBackedTaskManager(binary));
+            assertTrue(reloaded.getTasks().isEmpty());
+        } finally {
+            binary.delete();
+            journalOf(binary).delete();
+        }
+    }
+
+    @Test
+    public void binarySnapshot_corruptStringTagOrLength_loadsWithoutThrowing() throws IOException {
+        File binary = File.createTempFile("taskstest", ".bin");
+        binary.delete();
+        try {
+            new FileBackedTaskManager(binary).addTask(new Task(null, "Задача", "Описание", Status.NEW));
+            byte[] original = Files.readAllBytes(binary.toPath());
+            // После статуса идут флаги, тег строки имени и её длина
+            int[][] corruptions = {{9, 0x50}, {10, 0x7F}, {10, 0xFF}};
+            for (int[] corruption : corruptions) {
+                byte[] bytes = original.clone();
+                bytes[corruption[0]] = (byte) corruption[1];
+                Files.write(binary.toPath(), bytes);
+
+                FileBackedTaskManager reloaded = assertDoesNotThrow(() -> new FileBackedTaskManager(binary),
+                        "Байт " + corruption[0] + " = " + corruption[1]);
+                assertTrue(reloaded.getTasks().isEmpty());
+            }
+        } finally {
+            binary.delete();
+            journalOf(binary).delete();
+        }
+    }
+
+    @Test
+    public void binarySnapshot_partiallyRead_originalKeptBeforeCompaction() throws IOException {
+        File binary = File.createTempFile("taskstest", ".bin");
+        binary.delete();
+        FileBackedTaskManager reloaded = null;
+        try {
+            FileBackedTaskManager original = new FileBackedTaskManager(binary);
+            original.addTask(new Task(null, "Первая", "Описание", Status.NEW));
+            original.addTask(new Task(null, "Вторая", "Описание", Status.NEW));
+            original.compact();
+            byte[] bytes = Files.readAllBytes(binary.toPath());
+            // Обрезаем файл посреди второй записи
+            byte[] truncated = Arrays.copyOf(bytes, bytes.length - 4);
+            Files.write(binary.toPath(), truncated);
+
+            reloaded = new FileBackedTaskManager(binary);
+            assertEquals(1, reloaded.getTasks().size());
+            reloaded.compact();
+
+            assertArrayEquals(truncated, Files.readAllBytes(reloaded.getDamagedSnapshotFile().toPath()),
+                    "Исходный снапшот должен сохраниться в копии до свёртки");
+            assertEquals(1, new FileBackedTaskManager(binary).getTasks().size());
+        } finally {
+            if (reloaded != null) {
+                reloaded.getDamagedSnapshotFile().delete();
+            }
+            binary.delete();
+            journalOf(binary).delete();
+        }
+    }
+
+    @Test
+    public void exportTo_csvAndBinary_loadSameState() throws IOException {
+        Epic epic = manager.addEpic(new Epic(null, "Эпик", "Описание", Status.NEW));
+        manager.addSubtask(new Subtask("S1", "D1", Status.NEW, epic.getId()));
+        manager.addTask(new Task(null, "Задача", "Описание", Status.DONE));
+
+        File binary = File.createTempFile("taskstest", ".bin");
+        File csv = File.createTempFile("taskstest", ".csv");
+        try {
+            manager.exportTo(binary);
+            new FileBackedTaskManager(binary).exportTo(csv);
+            FileBackedTaskManager fromCsv = new FileBackedTaskManager(csv);
+
+            assertEquals(1, fromCsv.getTasks().size());
+            assertEquals(1, fromCsv.getEpics().size());
+            assertEquals(1, fromCsv.getSubtasks().size());
+            assertEquals("D1", fromCsv.getSubtasks().get(0).getDescription());
+            assertEquals(epic.getId(), fromCsv.getSubtasks().get(0).getEpicId());
+        } finally {
+            binary.delete();
+            csv.delete();
+        }
+    }
+
+    @Test
+    public void loadFromFile_corruptRows_skippedAndReported() throws IOException {
+        Files.writeString(tempFile.toPath(), "id,type,name,status,description,duration,startTime,epic\n"
+                + "2,SUBTASK,Подзадача,DONE,Описание,,,1\n"
+                + "3,TASK,Битая,НЕИЗВЕСТНО,Описание,,,\n"
+                + "1,EPIC,Эпик,NEW,Описание,,,\n");
+        Files.writeString(journalOf(tempFile).toPath(), "ADD,4,TASK,Задача,NEW,Описание,,,\nADD,5,TASK,Обор");
+
+        FileBackedTaskManager loaded = new FileBackedTaskManager(tempFile);
+
+        assertEquals(1, loaded.getTasks().size(), "Запись журнала до обрыва должна примениться");
+        assertEquals(Status.DONE, loaded.getEpicByID(1).getStatus(), "Подзадача до эпика должна быть привязана");
+        assertEquals(2, loaded.getLoadErrors().size());
+        assertEquals(3, loaded.getLoadErrors().get(0).getLineNumber());
+        assertEquals(2, loaded.getLoadErrors().get(1).getLineNumber());
+    }
+
+    @Test
+    public void specialCharacters_snapshotAndJournal_roundTrip() {
+        Task task = manager.addTask(new Task(null, "Имя, с запятой", "Строка \"1\"\nстрока 2", Status.NEW));
+        manager.compact();
+        Task journaled = manager.addTask(new Task(null, "Ещё, одна", "А\r\nБ", Status.NEW));
+
+        FileBackedTaskManager loaded = new FileBackedTaskManager(tempFile);
+
+        assertEquals(task.getName(), loaded.getTaskByID(task.getId()).getName());
+        assertEquals(task.getDescription(), loaded.getTaskByID(task.getId()).getDescription());
+        assertEquals(journaled.getName(), loaded.getTaskByID(journaled.getId()).getName());
+        assertTrue(loaded.getLoadErrors().isEmpty());
+    }
+
+    @Test
+    public void addAll_batch_persistedWithSingleWrite() throws IOException {
+        Epic epic = new Epic(500, "Эпик", "", Status.NEW);
+        List<Task> batch = new ArrayList<>(List.of(epic));
+        for (int i = 0; i < 50; i++) {
+            Subtask subtask = new Subtask("Подзадача " + i, "", Status.NEW, epic.getId());
+            subtask.setStartTime(LocalDateTime.of(2025, 1, 1, 0, 0).plusHours(i));
+            subtask.setDuration(Duration.ofMinutes(30));
+            batch.add(subtask);
+        }
+
+        manager.addAll(batch);
+
+        assertEquals(1, manager.getFlushCount(), "Пакет должен сохраняться одной записью журнала");
+        assertEquals(51, Files.readAllLines(journalOf(tempFile).toPath()).size());
+        FileBackedTaskManager reloaded = new FileBackedTaskManager(tempFile);
+        assertEquals(50, reloaded.getEpicSubtasks(epic.getId()).size());
+        assertEquals(50, reloaded.getPrioritizedTasks().size());
+    }
+
+    @Test
+    public void updateAll_batch_journaledAndReloaded() {
+        Epic epic = manager.addEpic(new Epic(null, "Эпик", "", Status.NEW));
+        Subtask subtask = new Subtask("Подзадача", "", Status.NEW, epic.getId());
+        manager.addSubtask(subtask);
+        Task task = manager.addTask(new Task(null, "Задача", "", Status.NEW));
+
+        Subtask done = new Subtask("Подзадача", "Готово", Status.DONE, epic.getId());
+        done.setId(subtask.getId());
+        manager.updateAll(List.of(new Epic(epic.getId(), "Новый эпик", "", Status.NEW), done,
+                new Task(task.getId(), "Задача", "Изменена", Status.IN_PROGRESS)));
+
+        FileBackedTaskManager reloaded = new FileBackedTaskManager(tempFile);
+        assertEquals("Новый эпик", reloaded.getEpicByID(epic.getId()).getName());
+        assertEquals(Status.DONE, reloaded.getEpicByID(epic.getId()).getStatus());
+        assertEquals("Готово", reloaded.getSubtaskByID(subtask.getId()).getDescription());
+        assertEquals(Status.IN_PROGRESS, reloaded.getTaskByID(task.getId()).getStatus());
+    }
+
+    @Test
+    public void addAll_largeBatch_compactedIntoSnapshotOnce() {
+        FileBackedTaskManager mgr = new FileBackedTaskManager(tempFile, 10);
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(new Task(null, "Задача " + i, "", Status.NEW));
+        }
+
+        mgr.addAll(batch);
+
+        assertEquals(0, mgr.getFlushCount());
+        assertFalse(journalOf(tempFile).exists(), "Большой пакет должен сразу свернуться в снапшот");
+
+        mgr.deleteAll(List.of(batch.get(0).getId(), batch.get(1).getId()));
+
+        assertEquals(1, mgr.getFlushCount());
+        assertEquals(98, new FileBackedTaskManager(tempFile).getTasks().size());
+    }
+
+    @Test
+    public void statusIndex_reload_builtFromSnapshotAndJournal() {
+        Epic epic = manager.addEpic(new Epic(null, "Эпик", "", Status.NEW));
+        manager.addSubtask(new Subtask("Готова", "", Status.DONE, epic.getId()));
+        manager.addTask(new Task(null, "В работе", "", Status.IN_PROGRESS));
+        manager.compact();
+        manager.addSubtask(new Subtask("Тоже готова", "", Status.DONE, epic.getId()));
+
+        FileBackedTaskManager reloaded = new FileBackedTaskManager(tempFile);
+
+        assertEquals(2, reloaded.countByStatus(TaskType.SUBTASK, Status.DONE));
+        assertEquals(1, reloaded.countByStatus(TaskType.TASK, Status.IN_PROGRESS));
+        assertEquals(List.of(reloaded.getEpicByID(epic.getId())), reloaded.getByStatus(TaskType.EPIC, Status.DONE));
+    }
+
+    @Test
+    public void search_reload_indexRebuiltFromFile() {
+        Epic epic = manager.addEpic(new Epic(null, "Переезд", "Новый офис", Status.NEW));
+        manager.addSubtask(new Subtask("Упаковать мебель", "", Status.NEW, epic.getId()));
+        manager.addTask(new Task(null, "Офисная техника", "Закупка", Status.NEW));
+
+        FileBackedTaskManager reloaded = new FileBackedTaskManager(tempFile);
+
+        assertEquals(1, reloaded.search("мебель", 10).size());
+        assertEquals(2, reloaded.searchPrefix("офис", 10).size());
+        assertEquals(epic.getId(), reloaded.search("переезд", 10).getFirst().getId());
+    }
+}
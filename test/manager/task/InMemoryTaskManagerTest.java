@@ -15,7 +15,9 @@ public class InMemoryTaskManagerTest extends test.manager.task.TaskManagerTest<I
 
     @Override
     protected InMemoryTaskManager createManager() {
-        return new InMemoryTaskManager();
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        manager.setEpicStatusVerification(true);
+        return manager;
     }
 
     @Test
@@ -156,7 +158,7 @@ public class InMemoryTaskManagerTest extends test.manager.task.TaskManagerTest<I
     }
 
     @Test
-    public void updateTask_returnOldTask_checkHistory() {
+    public void updateTask_returnActualTask_checkHistory() {
         InMemoryTaskManager manager = new InMemoryTaskManager();
         Task washFloor = new Task("Помыть полы", "С новым средством");
         manager.addTask(washFloor);
@@ -164,10 +166,42 @@ public class InMemoryTaskManagerTest extends test.manager.task.TaskManagerTest<I
         manager.updateTask(new Task(washFloor.getId(), "Не забыть помыть полы",
                 "Можно и без средства", Status.IN_PROGRESS));
         List<Task> tasks = manager.getHistory();
-        Task oldTask = tasks.getFirst();
-        assertEquals(washFloor.getName(), oldTask.getName(), "В истории не сохранилась старая версия задачи");
-        assertEquals(washFloor.getDescription(), oldTask.getDescription(),
-                "В истории не сохранилась старая версия задачи");
+        Task viewedTask = tasks.getFirst();
+        assertEquals("Не забыть помыть полы", viewedTask.getName(), "История должна отдавать актуальную версию задачи");
+        assertEquals(Status.IN_PROGRESS, viewedTask.getStatus(), "История должна отдавать актуальную версию задачи");
+    }
+
+    @Test
+    public void deleteTask_removedFromHistory() {
+        Task task = manager.addTask(new Task("Задача", "Описание"));
+        Epic epic = manager.addEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = new Subtask("Подзадача", "Описание", Status.NEW, epic.getId());
+        manager.addSubtask(subtask);
+        manager.getTaskByID(task.getId());
+        manager.getEpicByID(epic.getId());
+        manager.getSubtaskByID(subtask.getId());
+
+        manager.deleteTaskByID(task.getId());
+        manager.deleteEpicByID(epic.getId());
+
+        assertTrue(manager.getHistory().isEmpty(), "Удалённые задачи не должны оставаться в истории");
+    }
+
+    @Test
+    public void getTaskById_differentUsers_separateHistories() {
+        Task task1 = manager.addTask(new Task("Задача 1", "Описание"));
+        Task task2 = manager.addTask(new Task("Задача 2", "Описание"));
+
+        manager.getTaskByID(task1.getId(), "alice");
+        manager.getTaskByID(task2.getId(), "bob");
+        manager.getTaskByID(task1.getId(), "bob");
+
+        assertEquals(List.of(task1), manager.getHistory("alice"));
+        assertEquals(List.of(task2, task1), manager.getHistory("bob"));
+        assertTrue(manager.getHistory().isEmpty(), "Просмотры пользователей не попадают в общую историю");
+
+        manager.deleteTaskByID(task1.getId());
+        assertEquals(List.of(task2), manager.getHistory("bob"));
     }
 
     @Test
@@ -179,4 +213,22 @@ public class InMemoryTaskManagerTest extends test.manager.task.TaskManagerTest<I
         subtask.setId(epic.getId());
         assertFalse(epic.equals(subtask));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getTasks_noWritesBetweenReads_sameSnapshotReturned() {
+        manager.addTask(new Task("Задача 1", "Описание"));
+        long misses = manager.getSnapshotMisses();
+
+        List<Task> first = manager.getTasks();
+        List<Task> second = manager.getTasks();
+
+        assertSame(first, second, "Без изменений должен возвращаться тот же снимок");
+        assertEquals(misses + 1, manager.getSnapshotMisses());
+        assertTrue(manager.getSnapshotHits() >= 1);
+        assertThrows(UnsupportedOperationException.class, () -> first.add(new Task("Задача 2", "Описание")));
+
+        manager.addTask(new Task("Задача 2", "Описание"));
+        assertEquals(2, manager.getTasks().size(), "После записи снимок должен пересобираться");
+        assertEquals(1, first.size(), "Ранее выданный снимок не меняется");
+    }
+}
@@ -0,0 +1,172 @@
+package test.manager.task;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import main.javakanban.exception.TimeIntervalConflictException;
+import main.javakanban.manager.task.ConcurrentTaskManager;
+import main.javakanban.manager.task.FileBackedTaskManager;
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Status;
+import main.javakanban.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JfrEventsTest {
+
+    private static final String SAVE = "main.javakanban.SnapshotSave";
+    private static final String LOAD = "main.javakanban.SnapshotLoad";
+    private static final String CONFLICT = "main.javakanban.ConflictCheck";
+    private static final String FLUSH = "main.javakanban.JournalFlush";
+
+    private File file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = File.createTempFile("jfr", ".csv");
+        file.delete();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        file.delete();
+        new File(file.getPath() + ".journal").delete();
+    }
+
+    @Test
+    public void enabledEvents_saveLoadConflictAndFlush_recordedWithFields() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(SAVE);
+            recording.enable(LOAD);
+            recording.enable(CONFLICT);
+            recording.enable(FLUSH);
+            recording.start();
+            exercise();
+            recording.stop();
+            events = dump(recording);
+        }
+
+        RecordedEvent save = single(events, SAVE);
+        assertEquals(1, save.getInt("rows"));
+        assertEquals(file.length(), save.getLong("bytes"));
+
+        // Первая загрузка - пустого файла, вторая - с одной задачей
+        List<RecordedEvent> loads = ofType(events, LOAD);
+        assertEquals(2, loads.size());
+        RecordedEvent load = loads.getLast();
+        assertEquals(1, load.getInt("rows"));
+        assertEquals(0, load.getInt("parseErrors"));
+        assertTrue(load.getLong("indexRebuildTime") >= 0);
+
+        List<RecordedEvent> checks = ofType(events, CONFLICT);
+        assertEquals(2, checks.size());
+        assertFalse(checks.get(0).getBoolean("conflict"));
+        assertTrue(checks.get(1).getBoolean("conflict"));
+        assertEquals(1, checks.get(1).getInt("intervalsProbed"));
+
+        // Дозапись после изменения и надёжный сброс при закрытии
+        List<RecordedEvent> flushes = ofType(events, FLUSH);
+        assertEquals(2, flushes.size());
+        RecordedEvent flush = flushes.get(0);
+        assertEquals(1, flush.getInt("records"));
+        assertEquals(new File(file.getPath() + ".journal").length(), flush.getLong("bytes"));
+        assertFalse(flush.getBoolean("sync"));
+        assertFalse(flush.getDuration().isNegative());
+        RecordedEvent close = flushes.get(1);
+        assertEquals(0, close.getInt("records"));
+        assertEquals(0, close.getLong("bytes"));
+        assertTrue(close.getBoolean("sync"));
+    }
+
+    @Test
+    public void batch_checkedOnce_noPerItemConflictChecks() throws Exception {
+        for (TaskManager manager : List.of(new FileBackedTaskManager(file), new ConcurrentTaskManager())) {
+            List<Task> batch = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Task task = new Task(null, "Задача " + i, "", Status.NEW);
+                task.setStartTime(LocalDateTime.of(2025, 1, 1, 0, 0).plusHours(i));
+                task.setDuration(Duration.ofMinutes(30));
+                batch.add(task);
+            }
+
+            List<RecordedEvent> events;
+            try (Recording recording = new Recording()) {
+                recording.enable(CONFLICT);
+                recording.start();
+                manager.addAll(batch);
+                manager.updateAll(batch);
+                recording.stop();
+                events = dump(recording);
+            }
+
+            String name = manager.getClass().getSimpleName();
+            assertTrue(ofType(events, CONFLICT).isEmpty(), "Проверенный пакет не должен проверяться повторно: " + name);
+            assertEquals(10, manager.getPrioritizedTasks().size(), name);
+        }
+    }
+
+    @Test
+    public void defaultRecording_eventsDisabled() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording(Configuration.getConfiguration("default"))) {
+            recording.start();
+            exercise();
+            recording.stop();
+            events = dump(recording);
+        }
+
+        assertTrue(events.stream().noneMatch(e -> e.getEventType().getName().startsWith("main.javakanban.")),
+                "События менеджера должны быть выключены по умолчанию");
+    }
+
+    private void exercise() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        Task task = new Task(null, "Задача", "", Status.NEW);
+        task.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 0));
+        task.setDuration(Duration.ofMinutes(30));
+        manager.addTask(task);
+
+        FileBackedTaskManager loaded = new FileBackedTaskManager(file);
+        Task clash = new Task(null, "Пересечение", "", Status.NEW);
+        clash.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 15));
+        clash.setDuration(Duration.ofMinutes(30));
+        assertThrows(TimeIntervalConflictException.class, () -> loaded.addTask(clash));
+
+        loaded.addTask(new Task(null, "Без времени", "", Status.NEW));
+        loaded.close();
+    }
+
+    private static List<RecordedEvent> dump(Recording recording) throws IOException {
+        Path path = Files.createTempFile("events", ".jfr");
+        try {
+            recording.dump(path);
+            return RecordingFile.readAllEvents(path);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = ofType(events, name);
+        assertEquals(1, matching.size(), "Ожидалось одно событие " + name);
+        return matching.getFirst();
+    }
+}
@@ -1,6 +1,7 @@
 package test.manager.task;
 
 import main.javakanban.exception.TimeIntervalConflictException;
+import main.javakanban.manager.task.TaskCursor;
 import main.javakanban.manager.task.TaskManager;
 import main.javakanban.model.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,7 +9,10 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -40,6 +44,436 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         assertEquals(Status.IN_PROGRESS, manager.getEpicByID(epic.getId()).getStatus());
     }
 
+    @Test
+    public void epicStatus_subtaskChangesInPlaceAndDeleted_followsSubtasks() {
+        Epic epic = manager.addEpic(new Epic(0, "Эпик", "Описание", Status.NEW));
+        Subtask first = new Subtask("S1", "", Status.NEW, epic.getId());
+        Subtask second = new Subtask("S2", "", Status.NEW, epic.getId());
+        manager.addSubtask(first);
+        manager.addSubtask(second);
+
+        first.setStatus(Status.DONE);
+        manager.updateSubtask(first);
+        assertEquals(Status.IN_PROGRESS, manager.getEpicByID(epic.getId()).getStatus());
+
+        Subtask replacement = new Subtask("S2", "", Status.DONE, epic.getId());
+        replacement.setId(second.getId());
+        manager.updateSubtask(replacement);
+        assertEquals(Status.DONE, manager.getEpicByID(epic.getId()).getStatus());
+
+        manager.deleteSubtaskByID(first.getId());
+        assertEquals(Status.DONE, manager.getEpicByID(epic.getId()).getStatus());
+
+        manager.deleteSubtaskByID(second.getId());
+        assertEquals(Status.NEW, manager.getEpicByID(epic.getId()).getStatus(), "Эпик без подзадач - новый");
+
+        manager.addSubtask(new Subtask("S3", "", Status.IN_PROGRESS, epic.getId()));
+        assertEquals(Status.IN_PROGRESS, manager.getEpicByID(epic.getId()).getStatus());
+
+        manager.deleteSubtasks();
+        manager.addSubtask(new Subtask("S4", "", Status.DONE, epic.getId()));
+        assertEquals(Status.DONE, manager.getEpicByID(epic.getId()).getStatus(), "Счётчики сбрасываются при очистке");
+    }
+
+    @Test
+    public void epicTime_subtasksAddedUpdatedRemoved_boundsFollowSubtasks() {
+        Epic epic = manager.addEpic(new Epic(0, "Эпик", "Описание", Status.NEW));
+        Subtask early = new Subtask("S1", "", Status.NEW, epic.getId());
+        early.setStartTime(LocalDateTime.of(2025, 1, 1, 9, 0));
+        early.setDuration(Duration.ofMinutes(30));
+        Subtask late = new Subtask("S2", "", Status.NEW, epic.getId());
+        late.setStartTime(LocalDateTime.of(2025, 1, 1, 12, 0));
+        late.setDuration(Duration.ofMinutes(60));
+        manager.addSubtask(early);
+        manager.addSubtask(late);
+        manager.addSubtask(new Subtask("Без времени", "", Status.NEW, epic.getId()));
+
+        Epic stored = manager.getEpicByID(epic.getId());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 9, 0), stored.getStartTime());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 13, 0), stored.getEndTime());
+        assertEquals(Duration.ofMinutes(90), stored.getDuration());
+
+        late.setDuration(Duration.ofMinutes(120));
+        manager.updateSubtask(late);
+        assertEquals(LocalDateTime.of(2025, 1, 1, 14, 0), stored.getEndTime());
+        assertEquals(Duration.ofMinutes(150), stored.getDuration());
+
+        manager.deleteSubtaskByID(early.getId());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 12, 0), stored.getStartTime());
+        assertEquals(Duration.ofMinutes(120), stored.getDuration());
+
+        manager.deleteSubtasks();
+        assertNull(stored.getStartTime());
+        assertNull(stored.getEndTime());
+        assertNull(stored.getDuration());
+    }
+
+    @Test
+    public void prioritizedTasksBetween_weekWindow_returnsOverlappingOnly() {
+        Task before = timedTask("До окна", LocalDateTime.of(2025, 1, 5, 10, 0), 60);
+        Task running = timedTask("Идёт на границе", LocalDateTime.of(2025, 1, 5, 23, 0), 120);
+        Task inside = timedTask("Внутри", LocalDateTime.of(2025, 1, 8, 9, 0), 30);
+        Task atEnd = timedTask("Начинается на правой границе", LocalDateTime.of(2025, 1, 13, 0, 0), 30);
+        Task noDuration = new Task(null, "Без длительности", "", Status.NEW);
+        noDuration.setStartTime(LocalDateTime.of(2025, 1, 10, 12, 0));
+        manager.addTask(noDuration);
+        manager.addTask(new Task(null, "Без времени", "", Status.NEW));
+
+        List<Task> week = manager.getPrioritizedTasksBetween(
+                LocalDateTime.of(2025, 1, 6, 0, 0), LocalDateTime.of(2025, 1, 13, 0, 0));
+
+        assertEquals(List.of(running.getId(), inside.getId(), noDuration.getId()),
+                week.stream().map(Task::getId).toList());
+        assertFalse(week.contains(before));
+        assertFalse(week.contains(atEnd), "Правая граница не входит в окно");
+    }
+
+    @Test
+    public void prioritizedTasksPage_cursorFromLastTask_walksWholeListOnce() {
+        for (int i = 0; i < 7; i++) {
+            timedTask("Задача " + i, LocalDateTime.of(2025, 2, 1, 8, 0).plusHours(i), 30);
+        }
+        manager.addTask(new Task(null, "Без времени 1", "", Status.NEW));
+        manager.addTask(new Task(null, "Без времени 2", "", Status.NEW));
+
+        List<Task> walked = new ArrayList<>();
+        TaskCursor cursor = null;
+        List<Task> page;
+        while (!(page = manager.getPrioritizedTasksPage(cursor, 3)).isEmpty()) {
+            assertTrue(page.size() <= 3);
+            walked.addAll(page);
+            cursor = TaskCursor.after(page.getLast());
+        }
+
+        assertEquals(manager.getPrioritizedTasks(), walked);
+        assertThrows(IllegalArgumentException.class, () -> manager.getPrioritizedTasksPage(null, 0));
+    }
+
+    @Test
+    public void findFreeSlot_busyDay_returnsEarliestGapThatFits() {
+        LocalDateTime day = LocalDateTime.of(2025, 3, 3, 9, 0);
+        timedTask("9:00-10:00", day, 60);
+        timedTask("10:30-11:00", day.plusMinutes(90), 30);
+        timedTask("11:15-12:00", day.plusMinutes(135), 45);
+
+        assertEquals(day.plusMinutes(60), manager.findFreeSlot(day, Duration.ofMinutes(30)));
+        assertEquals(day.plusMinutes(60), manager.findFreeSlot(day.plusMinutes(30), Duration.ofMinutes(15)));
+        assertEquals(day.plusMinutes(61), manager.findFreeSlot(day.plusMinutes(61), Duration.ofMinutes(29)));
+        assertEquals(day.plusMinutes(180), manager.findFreeSlot(day, Duration.ofMinutes(45)));
+        assertEquals(day.minusHours(1), manager.findFreeSlot(day.minusHours(1), Duration.ofMinutes(60)));
+        assertThrows(IllegalArgumentException.class, () -> manager.findFreeSlot(day, Duration.ZERO));
+    }
+
+    @Test
+    public void autoSchedule_unscheduledTasks_placedIntoGapsInOrder() {
+        LocalDateTime day = LocalDateTime.of(2025, 3, 3, 9, 0);
+        timedTask("9:00-10:00", day, 60);
+        timedTask("10:30-11:00", day.plusMinutes(90), 30);
+        Epic epic = manager.addEpic(new Epic(null, "Эпик", "", Status.NEW));
+        Task first = unscheduled(new Task(null, "30 минут", "", Status.NEW), 30);
+        Task second = unscheduled(new Subtask("Час", "", Status.NEW, epic.getId()), 60);
+        Task third = unscheduled(new Task(null, "15 минут", "", Status.NEW), 15);
+
+        List<Task> scheduled = manager.autoSchedule(List.of(first, second, third), day);
+
+        assertEquals(List.of(first, second, third), scheduled);
+        assertEquals(day.plusMinutes(60), first.getStartTime());
+        assertEquals(day.plusMinutes(120), second.getStartTime());
+        assertEquals(day.plusMinutes(180), third.getStartTime());
+        assertEquals(5, manager.getPrioritizedTasks().size());
+        assertEquals(second.getStartTime(), manager.getEpicByID(epic.getId()).getStartTime());
+    }
+
+    @Test
+    public void autoSchedule_invalidTaskInBatch_nothingScheduled() {
+        Task valid = unscheduled(new Task(null, "Без времени", "", Status.NEW), 30);
+        Task alreadyScheduled = timedTaskDetached("Уже запланирована", LocalDateTime.of(2025, 3, 3, 9, 0), 30);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.autoSchedule(List.of(valid, alreadyScheduled), LocalDateTime.of(2025, 3, 3, 0, 0)));
+        assertNull(valid.getStartTime());
+        assertTrue(manager.getTasks().isEmpty());
+    }
+
+    @Test
+    public void addAll_mixedBatch_addsEverythingWithEpicFromSameBatch() {
+        LocalDateTime day = LocalDateTime.of(2025, 3, 3, 9, 0);
+        Epic epic = new Epic(100, "Эпик пакета", "", Status.NEW);
+        Subtask subtask = new Subtask("Подзадача", "", Status.DONE, 100);
+        subtask.setStartTime(day.plusHours(1));
+        subtask.setDuration(Duration.ofMinutes(30));
+        Task task = timedTaskDetached("Задача", day, 60);
+
+        List<Task> added = manager.addAll(List.of(task, subtask, epic));
+
+        assertEquals(3, added.size());
+        assertNotNull(task.getId());
+        assertEquals(List.of(subtask), manager.getEpicSubtasks(100));
+        assertEquals(Status.DONE, manager.getEpicByID(100).getStatus());
+        assertEquals(subtask.getStartTime(), manager.getEpicByID(100).getStartTime());
+        assertEquals(List.of(task, subtask), manager.getPrioritizedTasks());
+    }
+
+    @Test
+    public void getVersion_mutationsBumpIt_viewsDoNot() {
+        long initial = manager.getVersion();
+        Task task = manager.addTask(new Task("Задача", "Описание"));
+        Epic epic = manager.addEpic(new Epic(0, "Эпик", "Описание", Status.NEW));
+        Subtask sub = new Subtask("S", "", Status.NEW, epic.getId());
+        manager.addSubtask(sub);
+        long afterAdd = manager.getVersion();
+        assertTrue(afterAdd > initial, "Добавление меняет версию");
+
+        manager.getTaskByID(task.getId());
+        manager.getEpicByID(epic.getId());
+        manager.getSubtasks();
+        manager.getPrioritizedTasks();
+        manager.getHistory();
+        assertEquals(afterAdd, manager.getVersion(), "Просмотры не меняют версию");
+
+        sub.setStatus(Status.DONE);
+        manager.updateSubtask(sub);
+        long afterUpdate = manager.getVersion();
+        assertTrue(afterUpdate > afterAdd, "Обновление меняет версию");
+
+        manager.deleteTaskByID(task.getId());
+        long afterDelete = manager.getVersion();
+        assertTrue(afterDelete > afterUpdate, "Удаление меняет версию");
+        manager.deleteEpics();
+        assertTrue(manager.getVersion() > afterDelete, "Массовое удаление меняет версию");
+    }
+
+    @Test
+    public void addAll_conflictInsideBatchOrWithExisting_wholeBatchRejected() {
+        LocalDateTime day = LocalDateTime.of(2025, 3, 3, 9, 0);
+        timedTask("Существующая", day, 60);
+        Task free = timedTaskDetached("Свободная", day.plusHours(3), 30);
+        Task first = timedTaskDetached("Первая", day.plusHours(2), 30);
+        Task overlapping = timedTaskDetached("Пересекается с первой", day.plusHours(2).plusMinutes(15), 30);
+        Task clashing = timedTaskDetached("Пересекается с существующей", day.plusMinutes(30), 60);
+
+        assertThrows(TimeIntervalConflictException.class, () -> manager.addAll(List.of(free, first, overlapping)));
+        assertThrows(TimeIntervalConflictException.class, () -> manager.addAll(List.of(free, clashing)));
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.addAll(List.of(free, new Subtask("Без эпика", "", Status.NEW, 999))));
+        assertEquals(1, manager.getTasks().size(), "Отклонённый пакет не должен ничего добавить");
+        assertNull(free.getId());
+    }
+
+    @Test
+    public void updateAll_swapTimes_succeedsAndConflictRejectsBatch() {
+        LocalDateTime day = LocalDateTime.of(2025, 3, 3, 9, 0);
+        Task morning = timedTask("Утро", day, 60);
+        Task evening = timedTask("Вечер", day.plusHours(8), 60);
+        Task other = timedTask("Другая", day.plusHours(4), 60);
+
+        Task newMorning = new Task(morning.getId(), "Утро", "", Status.DONE);
+        newMorning.setStartTime(evening.getStartTime());
+        newMorning.setDuration(Duration.ofMinutes(60));
+        Task newEvening = new Task(evening.getId(), "Вечер", "", Status.NEW);
+        newEvening.setStartTime(day);
+        newEvening.setDuration(Duration.ofMinutes(60));
+        manager.updateAll(List.of(newMorning, newEvening));
+
+        assertEquals(List.of(newEvening, other, newMorning), manager.getPrioritizedTasks());
+        assertEquals(Status.DONE, manager.getTaskByID(morning.getId()).getStatus());
+
+        Task clash = new Task(newEvening.getId(), "Вечер", "", Status.IN_PROGRESS);
+        clash.setStartTime(day.plusHours(4).plusMinutes(30));
+        clash.setDuration(Duration.ofMinutes(60));
+        Task missing = new Task(12345, "Нет такой", "", Status.NEW);
+        assertThrows(TimeIntervalConflictException.class, () -> manager.updateAll(List.of(clash)));
+        assertThrows(IllegalArgumentException.class, () -> manager.updateAll(List.of(newMorning, missing)));
+        assertEquals(Status.NEW, manager.getTaskByID(evening.getId()).getStatus());
+        assertEquals(List.of(newEvening, other, newMorning), manager.getPrioritizedTasks());
+    }
+
+    @Test
+    public void deleteAll_mixedIds_removesAllAndSkipsMissing() {
+        Task task = timedTask("Задача", LocalDateTime.of(2025, 3, 3, 9, 0), 30);
+        Epic epic = manager.addEpic(new Epic(null, "Эпик", "", Status.NEW));
+        Subtask kept = new Subtask("Остаётся", "", Status.NEW, epic.getId());
+        Subtask removed = new Subtask("Удаляется", "", Status.DONE, epic.getId());
+        manager.addSubtask(kept);
+        manager.addSubtask(removed);
+        Epic other = manager.addEpic(new Epic(null, "Другой эпик", "", Status.NEW));
+
+        manager.deleteAll(List.of(task.getId(), removed.getId(), other.getId(), 999));
+
+        assertTrue(manager.getTasks().isEmpty());
+        assertEquals(List.of(epic), manager.getEpics());
+        assertEquals(List.of(kept), manager.getSubtasks());
+        assertEquals(Status.NEW, manager.getEpicByID(epic.getId()).getStatus());
+        assertTrue(manager.getPrioritizedTasks().stream().noneMatch(t -> t == task));
+    }
+
+    @Test
+    public void userHistory_separatePerUser_removedOnRequest() {
+        Task task = manager.addTask(new Task("Задача", "Описание"));
+        Epic epic = manager.addEpic(new Epic(null, "Эпик", "", Status.NEW));
+        Subtask sub = new Subtask("Подзадача", "", Status.NEW, epic.getId());
+        manager.addSubtask(sub);
+
+        manager.getTaskByID(task.getId(), "alice");
+        manager.getEpicByID(epic.getId(), "bob");
+        manager.getSubtaskByID(sub.getId(), "bob");
+        assertNull(manager.getTaskByID(999, "carol"));
+
+        assertEquals(List.of(task), manager.getHistory("alice"));
+        assertEquals(List.of(epic, sub), manager.getHistory("bob"));
+        assertTrue(manager.getHistory("carol").isEmpty(), "Просмотр несуществующей задачи не попадает в историю");
+        assertTrue(manager.getHistory().isEmpty(), "Просмотры пользователей не попадают в общую историю");
+
+        manager.removeUserHistory("bob");
+        assertTrue(manager.getHistory("bob").isEmpty());
+        assertEquals(List.of(task), manager.getHistory("alice"));
+    }
+
+    @Test
+    public void updateSubtask_otherEpic_rejectedAndNothingChanges() {
+        Epic epic = manager.addEpic(new Epic(null, "Эпик", "", Status.NEW));
+        Epic other = manager.addEpic(new Epic(null, "Другой эпик", "", Status.NEW));
+        Subtask sub = new Subtask("Подзадача", "", Status.NEW, epic.getId());
+        manager.addSubtask(sub);
+
+        Subtask moved = new Subtask("Подзадача", "", Status.DONE, other.getId());
+        moved.setId(sub.getId());
+        assertThrows(IllegalArgumentException.class, () -> manager.updateSubtask(moved));
+        assertThrows(IllegalArgumentException.class, () -> manager.updateAll(List.of(moved)));
+
+        assertEquals(epic.getId(), manager.getSubtaskByID(sub.getId()).getEpicId());
+        assertEquals(Status.NEW, manager.getSubtaskByID(sub.getId()).getStatus());
+        assertEquals(List.of(sub), manager.getEpicSubtasks(epic.getId()));
+        assertTrue(manager.getEpicSubtasks(other.getId()).isEmpty());
+        assertEquals(Status.NEW, manager.getEpicByID(epic.getId()).getStatus());
+        assertEquals(Status.NEW, manager.getEpicByID(other.getId()).getStatus(), "Чужая подзадача не учитывается");
+    }
+
+    @Test
+    public void statusIndex_mutations_keepCountsAndMembersInSync() {
+        Task task = manager.addTask(new Task(null, "Задача", "", Status.NEW));
+        Epic epic = manager.addEpic(new Epic(null, "Эпик", "", Status.NEW));
+        Subtask first = new Subtask("Первая", "", Status.IN_PROGRESS, epic.getId());
+        Subtask second = new Subtask("Вторая", "", Status.DONE, epic.getId());
+        manager.addSubtask(first);
+        manager.addSubtask(second);
+
+        assertEquals(1, manager.countByStatus(TaskType.TASK, Status.NEW));
+        assertEquals(List.of(first), manager.getByStatus(TaskType.SUBTASK, Status.IN_PROGRESS));
+        assertEquals(List.of(epic), manager.getByStatus(TaskType.EPIC, Status.IN_PROGRESS));
+        assertEquals(2, manager.countByType(TaskType.SUBTASK));
+
+        // Изменение на месте до update: индекс помнит прежний статус
+        task.setStatus(Status.DONE);
+        manager.updateTask(task);
+        first.setStatus(Status.DONE);
+        manager.updateSubtask(first);
+
+        assertEquals(0, manager.countByStatus(TaskType.TASK, Status.NEW));
+        assertEquals(List.of(task), manager.getByStatus(TaskType.TASK, Status.DONE));
+        assertEquals(2, manager.countByStatus(TaskType.SUBTASK, Status.DONE));
+        assertEquals(List.of(epic), manager.getByStatus(TaskType.EPIC, Status.DONE));
+
+        manager.deleteSubtaskByID(second.getId());
+        manager.deleteTaskByID(task.getId());
+        assertEquals(List.of(first), manager.getByStatus(TaskType.SUBTASK, Status.DONE));
+        assertEquals(0, manager.countByStatus(TaskType.TASK, Status.DONE));
+
+        manager.deleteSubtasks();
+        assertEquals(List.of(epic), manager.getByStatus(TaskType.EPIC, Status.NEW));
+        assertEquals(0, manager.countByStatus(TaskType.SUBTASK, Status.DONE));
+
+        manager.deleteEpicByID(epic.getId());
+        for (TaskType type : TaskType.values()) {
+            for (Status status : Status.values()) {
+                assertEquals(0, manager.countByStatus(type, status), "Индекс должен быть пуст: " + type + " " + status);
+            }
+        }
+    }
+
+    @Test
+    public void search_russianText_rankedByRelevanceAndUpdatedIncrementally() {
+        Task report = manager.addTask(new Task(null, "Отчёт за квартал", "Подготовить отчёт и отправить отчёт", Status.NEW));
+        Task meeting = manager.addTask(new Task(null, "Встреча", "Обсудить ОТЧЕТ", Status.NEW));
+        Epic epic = manager.addEpic(new Epic(null, "Релиз", "Выпуск версии", Status.NEW));
+        Subtask subtask = new Subtask("Отчетность", "Собрать метрики", Status.NEW, epic.getId());
+        manager.addSubtask(subtask);
+
+        assertEquals(List.of(report, meeting), manager.search("отчет", 10), "ё и регистр не должны влиять на поиск");
+        assertEquals(List.of(report, subtask, meeting), manager.searchPrefix("Отч", 10), "Редкое слово весит больше");
+        assertEquals(List.of(report), manager.searchPrefix("отч", 1));
+        assertEquals(List.of(epic), manager.search("версии релиз", 10));
+        assertTrue(manager.search("несуществующее", 10).isEmpty());
+
+        manager.updateTask(new Task(report.getId(), "Квартал", "Итоги", Status.NEW));
+        manager.updateEpic(new Epic(epic.getId(), "Выпуск", "", Status.NEW));
+        manager.deleteTaskByID(meeting.getId());
+
+        assertEquals(List.of(subtask), manager.searchPrefix("отч", 10));
+        assertTrue(manager.search("релиз", 10).isEmpty());
+        assertEquals(List.of(epic), manager.search("выпуск", 10));
+
+        manager.deleteEpicByID(epic.getId());
+        assertTrue(manager.searchPrefix("отч", 10).isEmpty(), "Подзадачи удалённого эпика не должны находиться");
+    }
+
+    @Test
+    public void search_repeatedQueryTerm_countedOnce() {
+        Task once = manager.addTask(new Task(null, "Задача", "", Status.NEW));
+        Task twice = manager.addTask(new Task(null, "Срочно", "Срочно", Status.NEW));
+
+        // С повторами "задача" весила бы втрое больше и первой шла бы задача once
+        assertEquals(List.of(twice, once), manager.search("задача задача задача срочно", 10));
+    }
+
+    @Test
+    public void streams_parallelAndDuringModification_matchListsWithoutFailing() {
+        Epic epic = manager.addEpic(new Epic(null, "Эпик", "", Status.NEW));
+        for (int i = 0; i < 200; i++) {
+            manager.addTask(timedTaskDetached("Задача " + i, LocalDateTime.of(2025, 1, 1, 0, 0).plusHours(i), 30));
+            manager.addSubtask(new Subtask("Подзадача " + i, "", Status.NEW, epic.getId()));
+        }
+
+        Spliterator<Task> spliterator = manager.streamTasks().spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.DISTINCT | Spliterator.IMMUTABLE));
+        assertEquals(200, spliterator.getExactSizeIfKnown());
+        assertTrue(manager.streamPrioritizedTasks().spliterator().hasCharacteristics(Spliterator.ORDERED));
+        assertEquals(manager.getPrioritizedTasks(), manager.streamPrioritizedTasks().parallel().toList());
+        assertEquals(manager.getTasks().stream().mapToInt(Task::getId).sum(),
+                manager.streamTasks().parallel().mapToInt(Task::getId).sum());
+        assertEquals(manager.getEpicSubtasks(epic.getId()), manager.streamEpicSubtasks(epic.getId()).parallel().toList());
+
+        // Изменения во время обхода не ломают поток: хранилища обходятся по снимку, удалённые подзадачи пропускаются
+        List<Integer> seen = new ArrayList<>();
+        manager.streamTasks().forEach(task -> {
+            seen.add(task.getId());
+            manager.deleteTaskByID(task.getId());
+        });
+        assertEquals(200, seen.size());
+        Stream<Subtask> epicSubtasks = manager.streamEpicSubtasks(epic.getId());
+        manager.deleteSubtaskByID(manager.getEpicSubtasks(epic.getId()).getFirst().getId());
+        assertEquals(199, epicSubtasks.count());
+    }
+
+    private static Task unscheduled(Task task, int minutes) {
+        task.setDuration(Duration.ofMinutes(minutes));
+        return task;
+    }
+
+    private static Task timedTaskDetached(String name, LocalDateTime start, int minutes) {
+        Task task = new Task(null, name, "", Status.NEW);
+        task.setStartTime(start);
+        task.setDuration(Duration.ofMinutes(minutes));
+        return task;
+    }
+
+    private Task timedTask(String name, LocalDateTime start, int minutes) {
+        Task task = new Task(null, name, "", Status.NEW);
+        task.setStartTime(start);
+        task.setDuration(Duration.ofMinutes(minutes));
+        return manager.addTask(task);
+    }
+
     @Test
     public void prioritizedTasks_sortedByStartTime_nullsLast() {
         Task t1 = new Task(null, "A", "", Status.NEW);
@@ -111,4 +545,63 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         assertThrows(TimeIntervalConflictException.class, () -> manager.addTask(conflictingTask),
                 "Слоты должны быть заняты под старую задачу");
     }
+
+    @Test
+    public void timeIntervals_adjacentTasks_noConflictWithMinutePrecision() {
+        Task t1 = new Task(null, "T1", "", Status.NEW);
+        t1.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 0));
+        t1.setDuration(Duration.ofMinutes(10));
+        manager.addTask(t1);
+
+        Task t2 = new Task(null, "T2", "", Status.NEW);
+        t2.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 10));
+        t2.setDuration(Duration.ofMinutes(5));
+
+        assertDoesNotThrow(() -> manager.addTask(t2), "Задачи встык не должны пересекаться");
+        assertEquals(2, manager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    public void timeIntervals_weekLongTask_conflictsInsideAndFreesAfterDelete() {
+        Task week = new Task(null, "Неделя", "", Status.NEW);
+        week.setStartTime(LocalDateTime.of(2025, 1, 1, 0, 0));
+        week.setDuration(Duration.ofDays(7));
+        manager.addTask(week);
+
+        Task inside = new Task(null, "Внутри", "", Status.NEW);
+        inside.setStartTime(LocalDateTime.of(2025, 1, 5, 13, 7));
+        inside.setDuration(Duration.ofMinutes(1));
+        assertThrows(TimeIntervalConflictException.class, () -> manager.addTask(inside));
+
+        Task covering = new Task(null, "Поверх", "", Status.NEW);
+        covering.setStartTime(LocalDateTime.of(2024, 12, 31, 0, 0));
+        covering.setDuration(Duration.ofDays(10));
+        assertThrows(TimeIntervalConflictException.class, () -> manager.addTask(covering));
+
+        manager.deleteTaskByID(week.getId());
+        assertDoesNotThrow(() -> manager.addTask(inside), "После удаления интервал должен освободиться");
+    }
+
+    @Test
+    public void updateTask_shiftInsideOwnInterval_noConflict() {
+        Task task = new Task(null, "Задача", "", Status.NEW);
+        task.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 0));
+        task.setDuration(Duration.ofMinutes(60));
+        manager.addTask(task);
+
+        Task shifted = new Task(task.getId(), "Задача", "", Status.NEW);
+        shifted.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 30));
+        shifted.setDuration(Duration.ofMinutes(60));
+        assertDoesNotThrow(() -> manager.updateTask(shifted));
+
+        Task conflicting = new Task(null, "Конфликт", "", Status.NEW);
+        conflicting.setStartTime(LocalDateTime.of(2025, 1, 1, 11, 0));
+        conflicting.setDuration(Duration.ofMinutes(15));
+        assertThrows(TimeIntervalConflictException.class, () -> manager.addTask(conflicting));
+
+        Task freed = new Task(null, "Свободно", "", Status.NEW);
+        freed.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 0));
+        freed.setDuration(Duration.ofMinutes(30));
+        assertDoesNotThrow(() -> manager.addTask(freed), "Старый интервал задачи должен освободиться");
+    }
 }
\ No newline at end of file
@@ -27,6 +27,19 @@ class EpicTest {
         assertTrue(epic.getSubtaskId().isEmpty(), "Сабтаск с тем же ID, что и у эпика, не должен добавляться");
     }
 
+    @Test
+    public void addSubtask_duplicateId_addedOnceInOriginalOrder() {
+        Epic epic = new Epic(1, "Эпик", "Описание эпика", Status.NEW);
+        epic.addSubtask(3);
+        epic.addSubtask(2);
+        epic.addSubtask(3);
+        assertArrayEquals(new int[]{3, 2}, epic.getSubtaskId().toIntArray());
+
+        epic.removeEpicSubtask(3);
+        epic.addSubtask(3);
+        assertArrayEquals(new int[]{2, 3}, epic.getSubtaskId().toIntArray());
+    }
+
     @Test
     public void status_allSubtasksNew_epicIsNew() {
         TaskManager manager = new InMemoryTaskManager();
@@ -0,0 +1,158 @@
+package server;
+
+import main.javakanban.converter.JsonParser;
+import main.javakanban.manager.Managers;
+import main.javakanban.manager.metrics.LatencyHistogram;
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Epic;
+import main.javakanban.model.Status;
+import main.javakanban.model.Task;
+import main.javakanban.server.HttpTaskServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Локальный генератор нагрузки: много одновременных клиентов на виртуальных потоках,
+// смесь чтений по ID, списков, обновлений задач и добавления подзадач в эпики, которые параллельно
+// читаются списком. Печатает пропускную способность и хвостовые задержки.
+// Не входит в обычный прогон тестов: запускается задачей ./gradlew loadTest
+@Tag("load")
+public class HttpTaskServerLoadTest {
+
+    private static final int CLIENTS = 256;
+    private static final int REQUESTS_PER_CLIENT = 40;
+    private static final int TASKS = 200;
+    private static final int EPICS = 20;
+
+    @Test
+    public void server_highConcurrency_servesAllRequests() throws Exception {
+        TaskManager manager = Managers.getConcurrent();
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            Task task = new Task("Задача " + i, "Описание " + i);
+            task.setStartTime(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(30L * i));
+            task.setDuration(Duration.ofMinutes(15));
+            ids.add(manager.addTask(task).getId());
+        }
+        List<Integer> epicIds = new ArrayList<>();
+        for (int i = 0; i < EPICS; i++) {
+            epicIds.add(manager.addEpic(new Epic("Эпик " + i, "")).getId());
+        }
+        AtomicLong createdSubtasks = new AtomicLong();
+
+        HttpTaskServer server = new HttpTaskServer(manager, 0);
+        server.start();
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        String base = "http://localhost:" + server.getPort();
+        long started;
+        long elapsed;
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Прогрев: соединения и JIT
+            runClients(clients, client, base, ids, epicIds, 16, new LatencyHistogram(), new AtomicLong(), createdSubtasks);
+
+            started = System.nanoTime();
+            runClients(clients, client, base, ids, epicIds, REQUESTS_PER_CLIENT, latency, errors, createdSubtasks);
+            elapsed = System.nanoTime() - started;
+        } finally {
+            server.stop();
+        }
+
+        long requests = (long) CLIENTS * REQUESTS_PER_CLIENT;
+        System.out.printf("Клиентов: %d, запросов: %d, ошибок: %d, пропускная способность: %.0f запр/с%n",
+                CLIENTS, requests, errors.get(), requests * 1e9 / elapsed);
+        System.out.printf("Задержка, мс: p50=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                latency.getValueAtPercentile(50) / 1e6, latency.getValueAtPercentile(99) / 1e6,
+                latency.getValueAtPercentile(99.9) / 1e6, latency.getMax() / 1e6);
+
+        assertEquals(0, errors.get(), "Все запросы обработаны успешно");
+        assertEquals(requests, latency.getCount());
+        assertEquals(TASKS, manager.getTasks().size(), "Обновления не теряют и не дублируют задачи");
+        assertEquals(createdSubtasks.get(), manager.getSubtasks().size());
+        int linked = 0;
+        for (int epicId : epicIds) {
+            linked += manager.getEpicSubtasks(epicId).size();
+        }
+        assertEquals(createdSubtasks.get(), linked, "Каждая подзадача привязана к своему эпику");
+    }
+
+    private static void runClients(ExecutorService clients, HttpClient client, String base, List<Integer> ids,
+                                   List<Integer> epicIds, int requestsPerClient, LatencyHistogram latency,
+                                   AtomicLong errors, AtomicLong createdSubtasks) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(clients.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int r = 0; r < requestsPerClient; r++) {
+                    HttpRequest request = nextRequest(base, ids, epicIds, random);
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() != 200 && response.statusCode() != 201) {
+                            errors.incrementAndGet();
+                        } else if (request.uri().getPath().equals("/subtasks")) {
+                            createdSubtasks.incrementAndGet();
+                        } else if (request.uri().getPath().equals("/epics")) {
+                            // Список эпиков пишется параллельно с добавлением подзадач - он должен оставаться корректным JSON
+                            JsonParser.parse(new String(response.body(), StandardCharsets.UTF_8));
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latency.record(System.nanoTime() - start);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    // 70% - чтение по ID, 10% - полный список, 10% - обновление статуса,
+    // по 5% - список эпиков и добавление подзадачи в эпик
+    private static HttpRequest nextRequest(String base, List<Integer> ids, List<Integer> epicIds,
+                                           ThreadLocalRandom random) {
+        int index = random.nextInt(ids.size());
+        int id = ids.get(index);
+        int kind = random.nextInt(20);
+        if (kind < 14) {
+            return HttpRequest.newBuilder(URI.create(base + "/tasks/" + id)).GET().build();
+        }
+        if (kind < 16) {
+            return HttpRequest.newBuilder(URI.create(base + "/tasks")).GET().build();
+        }
+        if (kind == 18) {
+            return HttpRequest.newBuilder(URI.create(base + "/epics")).GET().build();
+        }
+        if (kind == 19) {
+            int epicId = epicIds.get(random.nextInt(epicIds.size()));
+            return HttpRequest.newBuilder(URI.create(base + "/subtasks"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Подзадача\",\"epicId\":" + epicId + "}"))
+                    .build();
+        }
+        Status status = Status.values()[random.nextInt(Status.values().length)];
+        String body = "{\"id\":" + id + ",\"name\":\"Задача " + index + "\",\"status\":\"" + status
+                + "\",\"duration\":15,\"startTime\":\"" + LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(30L * index) + "\"}";
+        return HttpRequest.newBuilder(URI.create(base + "/tasks"))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,240 @@
+package server;
+
+import main.javakanban.converter.JsonParser;
+import main.javakanban.manager.Managers;
+import main.javakanban.manager.task.TaskManager;
+import main.javakanban.model.Status;
+import main.javakanban.model.Task;
+import main.javakanban.server.HttpTaskServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpTaskServerTest {
+
+    private TaskManager manager;
+    private HttpTaskServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        manager = Managers.getConcurrent();
+        server = new HttpTaskServer(manager, 0);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+        client.close();
+    }
+
+    @Test
+    public void tasks_createReadUpdateDelete_mappedOntoManager() throws Exception {
+        HttpResponse<String> created = send("POST", "/tasks",
+                "{\"name\":\"Задача\",\"description\":\"Описание\",\"duration\":30,\"startTime\":\"2025-01-01T10:00\"}");
+        assertEquals(201, created.statusCode(), created.body());
+        int id = ((Long) JsonParser.parseObject(created.body()).get("id")).intValue();
+        assertEquals("Задача", manager.getTaskByID(id).getName());
+
+        HttpResponse<String> updated = send("POST", "/tasks",
+                "{\"id\":" + id + ",\"name\":\"Задача\",\"status\":\"DONE\"}");
+        assertEquals(201, updated.statusCode(), updated.body());
+        assertEquals(Status.DONE, manager.getTaskByID(id).getStatus());
+
+        HttpResponse<String> one = send("GET", "/tasks/" + id, null);
+        assertEquals(200, one.statusCode());
+        assertEquals("DONE", JsonParser.parseObject(one.body()).get("status"));
+
+        List<?> all = (List<?>) JsonParser.parse(send("GET", "/tasks", null).body());
+        assertEquals(1, all.size());
+
+        assertEquals(200, send("DELETE", "/tasks/" + id, null).statusCode());
+        assertEquals(404, send("GET", "/tasks/" + id, null).statusCode(), "Удалённая задача не находится");
+        assertEquals("[]", send("GET", "/tasks", null).body());
+    }
+
+    @Test
+    public void tasks_intersectingTime_rejectedWith406() throws Exception {
+        String body = "{\"name\":\"Задача\",\"duration\":60,\"startTime\":\"2025-01-01T10:00\"}";
+        assertEquals(201, send("POST", "/tasks", body).statusCode());
+
+        HttpResponse<String> conflict = send("POST", "/tasks", body);
+        assertEquals(406, conflict.statusCode());
+        assertTrue(JsonParser.parseObject(conflict.body()).containsKey("error"));
+        assertEquals(1, manager.getTasks().size());
+    }
+
+    @Test
+    public void epics_subtasksEndpoint_listsEpicSubtasks() throws Exception {
+        HttpResponse<String> epic = send("POST", "/epics", "{\"name\":\"Эпик\",\"description\":\"\"}");
+        assertEquals(201, epic.statusCode(), epic.body());
+        long epicId = (Long) JsonParser.parseObject(epic.body()).get("id");
+        assertEquals(201, send("POST", "/subtasks",
+                "{\"name\":\"Подзадача\",\"status\":\"DONE\",\"epicId\":" + epicId + "}").statusCode());
+
+        List<?> subtasks = (List<?>) JsonParser.parse(send("GET", "/epics/" + epicId + "/subtasks", null).body());
+        assertEquals(1, subtasks.size());
+        assertEquals(epicId, ((Map<?, ?>) subtasks.getFirst()).get("epicId"));
+        Map<String, Object> stored = JsonParser.parseObject(send("GET", "/epics/" + epicId, null).body());
+        assertEquals("DONE", stored.get("status"), "Статус эпика пересчитан по подзадаче");
+
+        assertEquals(404, send("POST", "/subtasks", "{\"name\":\"Подзадача\",\"epicId\":999}").statusCode(),
+                "Подзадача несуществующего эпика не создаётся");
+        assertEquals(404, send("GET", "/epics/999/subtasks", null).statusCode());
+
+        long subtaskId = manager.getSubtasks().getFirst().getId();
+        long otherId = (Long) JsonParser.parseObject(send("POST", "/epics", "{\"name\":\"Другой\"}").body()).get("id");
+        assertEquals(400, send("POST", "/subtasks", "{\"id\":" + subtaskId + ",\"name\":\"Подзадача\",\"epicId\":"
+                + otherId + "}").statusCode(), "Перенос подзадачи в другой эпик отклоняется");
+    }
+
+    @Test
+    public void historyAndPrioritized_reflectManagerState() throws Exception {
+        Task late = new Task("Поздняя", "");
+        late.setStartTime(LocalDateTime.of(2025, 1, 2, 10, 0));
+        late.setDuration(Duration.ofMinutes(15));
+        Task early = new Task("Ранняя", "");
+        early.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 0));
+        early.setDuration(Duration.ofMinutes(15));
+        manager.addTask(late);
+        manager.addTask(early);
+        send("GET", "/tasks/" + late.getId(), null);
+
+        List<?> history = (List<?>) JsonParser.parse(send("GET", "/history", null).body());
+        assertEquals(1, history.size());
+        assertEquals("Поздняя", ((Map<?, ?>) history.getFirst()).get("name"));
+
+        List<?> prioritized = (List<?>) JsonParser.parse(send("GET", "/prioritized", null).body());
+        assertEquals("Ранняя", ((Map<?, ?>) prioritized.getFirst()).get("name"), "Ранняя задача идёт первой");
+    }
+
+    @Test
+    public void lists_unchangedSinceEtag_notModifiedWithoutSerializing() throws Exception {
+        Task task = manager.addTask(new Task("Задача", "Описание"));
+        HttpResponse<String> first = send("GET", "/tasks", null);
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        long misses = server.getResponseCacheMisses();
+
+        HttpResponse<String> same = get("/tasks", "If-None-Match", etag);
+        assertEquals(304, same.statusCode());
+        assertEquals(etag, same.headers().firstValue("ETag").orElseThrow());
+        assertEquals("", same.body());
+        assertEquals(304, get("/tasks", "If-None-Match", "\"other\", W/" + etag).statusCode(),
+                "Слабый тег в списке тоже совпадает");
+        assertEquals(200, send("GET", "/tasks", null).statusCode());
+        assertEquals(misses, server.getResponseCacheMisses(), "Без изменений список не сериализуется заново");
+        assertTrue(server.getResponseCacheHits() > 0);
+
+        manager.getTaskByID(task.getId());
+        assertEquals(304, get("/tasks", "If-None-Match", etag).statusCode(), "Просмотр не меняет ETag");
+
+        manager.addTask(new Task("Вторая", ""));
+        HttpResponse<String> changed = get("/tasks", "If-None-Match", etag);
+        assertEquals(200, changed.statusCode(), "После изменения отдаётся новый список");
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+        assertEquals(2, ((List<?>) JsonParser.parse(changed.body())).size());
+        assertEquals(304, get("/prioritized", "If-None-Match",
+                send("GET", "/prioritized", null).headers().firstValue("ETag").orElseThrow()).statusCode());
+    }
+
+    @Test
+    public void lists_largeBody_gzippedWhenAccepted() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            manager.addTask(new Task("Задача " + i, "Описание задачи номер " + i));
+        }
+        HttpResponse<String> plain = send("GET", "/tasks", null);
+        assertTrue(plain.headers().firstValue("Content-Encoding").isEmpty(), "Без Accept-Encoding тело не сжимается");
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/tasks"))
+                .header("Accept-Encoding", "br;q=1.0, gzip;q=0.8")
+                .build();
+        HttpResponse<byte[]> compressed = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, compressed.statusCode());
+        assertEquals("gzip", compressed.headers().firstValue("Content-Encoding").orElseThrow());
+        assertTrue(compressed.body().length < plain.body().getBytes(StandardCharsets.UTF_8).length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.body()))) {
+            assertEquals(plain.body(), new String(in.readAllBytes(), StandardCharsets.UTF_8),
+                    "Сжатое тело совпадает с обычным");
+        }
+
+        HttpResponse<String> refused = get("/tasks", "Accept-Encoding", "gzip;q=0");
+        assertTrue(refused.headers().firstValue("Content-Encoding").isEmpty(), "gzip;q=0 запрещает сжатие");
+    }
+
+    @Test
+    public void requests_concurrentClients_allServed() throws Exception {
+        long epicId = (Long) JsonParser.parseObject(send("POST", "/epics", "{\"name\":\"Эпик\"}").body()).get("id");
+        int clients = 16;
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                results.add(executor.submit(() -> {
+                    int created = 0;
+                    for (int r = 0; r < 5; r++) {
+                        assertEquals(201, send("POST", "/subtasks",
+                                "{\"name\":\"Подзадача\",\"epicId\":" + epicId + "}").statusCode());
+                        created++;
+                        HttpResponse<String> epics = send("GET", "/epics", null);
+                        assertEquals(200, epics.statusCode());
+                        JsonParser.parse(epics.body());
+                    }
+                    return created;
+                }));
+            }
+            int created = 0;
+            for (Future<Integer> result : results) {
+                created += result.get();
+            }
+            assertEquals(created, manager.getEpicSubtasks((int) epicId).size());
+        }
+        List<?> epics = (List<?>) JsonParser.parse(send("GET", "/epics", null).body());
+        assertEquals(clients * 5, ((List<?>) ((Map<?, ?>) epics.getFirst()).get("subtasks")).size(),
+                "Список эпиков видит все добавленные подзадачи");
+    }
+
+    @Test
+    public void requests_invalid_mappedToClientErrors() throws Exception {
+        assertEquals(400, send("POST", "/tasks", "{\"name\":").statusCode(), "Некорректный JSON");
+        assertEquals(400, send("GET", "/tasks/abc", null).statusCode(), "Некорректный ID");
+        assertEquals(405, send("PUT", "/tasks", "{}").statusCode());
+        assertEquals(405, send("POST", "/history", "{}").statusCode());
+        assertEquals(404, send("GET", "/tasks/1/extra", null).statusCode());
+        assertEquals(404, send("POST", "/tasks", "{\"id\":42,\"name\":\"Нет такой\"}").statusCode(),
+                "Обновление несуществующей задачи");
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path, String header, String value) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .header(header, value)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
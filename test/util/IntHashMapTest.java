@@ -0,0 +1,103 @@
+package util;
+
+import main.javakanban.util.IntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntHashMapTest {
+
+    @Test
+    public void putGetRemove_randomOperations_sameAsHashMap() {
+        IntHashMap<String> map = new IntHashMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+                case 1 -> assertEquals(expected.remove(key), map.remove(key));
+                default -> assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, map, "Содержимое должно совпадать с HashMap");
+    }
+
+    @Test
+    public void values_sequentialIds_sameOrderAsHashMap() {
+        IntHashMap<Integer> map = new IntHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int id = 500; id >= 1; id--) {
+            map.put(id, Integer.valueOf(id));
+            expected.put(id, id);
+        }
+
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+    }
+
+    @Test
+    public void forEachEntry_afterRemovals_visitsEveryLiveEntryOnce() {
+        IntHashMap<String> map = new IntHashMap<>();
+        for (int id = 1; id <= 100; id++) {
+            map.put(id, "v" + id);
+        }
+        for (int id = 1; id <= 100; id += 3) {
+            map.remove(id);
+        }
+        Map<Integer, String> visited = new HashMap<>();
+
+        map.forEachEntry((value, key) -> assertNull(visited.put(key, value), "Ключ не должен повторяться"));
+
+        assertEquals(new HashMap<>(map), visited);
+    }
+
+    @Test
+    public void iteratorRemove_removesCurrentAndContinues() {
+        IntHashMap<Integer> map = new IntHashMap<>();
+        for (int id = 1; id <= 100; id++) {
+            map.put(id, Integer.valueOf(id));
+        }
+
+        Iterator<Integer> iterator = map.values().iterator();
+        List<Integer> seen = new ArrayList<>();
+        while (iterator.hasNext()) {
+            int value = iterator.next();
+            seen.add(value);
+            if (value % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(100, seen.size(), "Удаление не должно пропускать элементы");
+        assertEquals(50, map.size());
+        assertNull(map.get(2));
+        assertEquals(3, map.get(3));
+    }
+
+    @Test
+    public void put_manyRemovals_tableDoesNotFillWithTombstones() {
+        IntHashMap<Integer> map = new IntHashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            map.put(i, Integer.valueOf(i));
+            map.remove(i - 3);
+        }
+
+        assertEquals(3, map.size());
+        assertEquals(99_999, map.get(99_999));
+        assertFalse(map.containsKey(0));
+    }
+
+    @Test
+    public void put_nullValue_throwsNullPointer() {
+        assertThrows(NullPointerException.class, () -> new IntHashMap<String>().put(1, null));
+    }
+}
@@ -0,0 +1,71 @@
+package util;
+
+import main.javakanban.util.IntLinkedSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntLinkedSetTest {
+
+    @Test
+    public void addRemove_randomOperations_sameAsLinkedHashSet() {
+        IntLinkedSet set = new IntLinkedSet();
+        Set<Integer> expected = new LinkedHashSet<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 50_000; i++) {
+            int value = random.nextInt(500);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(set), "Порядок добавления должен сохраняться");
+        assertEquals(expected.size(), set.size());
+    }
+
+    @Test
+    public void forEachInt_afterGrowth_keepsInsertionOrder() {
+        IntLinkedSet set = new IntLinkedSet();
+        for (int value = 1000; value > 0; value -= 7) {
+            set.add(value);
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        set.forEachInt(visited::add);
+
+        assertEquals(1000, visited.getFirst());
+        assertEquals(set.size(), visited.size());
+        for (int i = 1; i < visited.size(); i++) {
+            assertEquals(visited.get(i - 1) - 7, visited.get(i));
+        }
+    }
+
+    @Test
+    public void iteratorRemove_unlinksCurrent() {
+        IntLinkedSet set = new IntLinkedSet();
+        for (int value = 1; value <= 10; value++) {
+            set.add(value);
+        }
+
+        Iterator<Integer> iterator = set.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 3 != 0) {
+                iterator.remove();
+            }
+        }
+
+        assertArrayEquals(new int[]{3, 6, 9}, set.toIntArray());
+        assertTrue(set.contains(6));
+        assertFalse(set.contains(5));
+    }
+}